@@ -37,6 +37,19 @@ java {
 }
 
 val jdaVersion = "5.0.0-beta.21"
+val jmhVersion = "1.37"
+
+sourceSets {
+    create("jmh") {
+        // the benchmarks share the JDA stubs of the tests
+        compileClasspath += sourceSets["main"].output + sourceSets["test"].output
+        runtimeClasspath += sourceSets["main"].output + sourceSets["test"].output
+    }
+}
+
+val jmhImplementation: Configuration by configurations.getting {
+    extendsFrom(configurations["implementation"])
+}
 
 dependencies {
     api(group = "com.fasterxml.jackson.core", name = "jackson-databind", version = "2.16.1")
@@ -49,6 +62,13 @@ dependencies {
     compileOnly("com.google.code.findbugs:jsr305:3.0.2")
 
     compileOnly(group = "org.json", name = "json", version = "20220924") // Provided by the user
+    compileOnly(group = "org.reactivestreams", name = "reactive-streams", version = "1.0.4") // Provided by the user
+    // Optional content decoders, provided by the user
+    compileOnly(group = "com.aayushatharva.brotli4j", name = "brotli4j", version = "1.16.0")
+    compileOnly(group = "org.brotli", name = "dec", version = "0.1.2")
+    compileOnly(group = "com.github.luben", name = "zstd-jni", version = "1.5.5-11")
+    compileOnly(group = "io.airlift", name = "aircompressor", version = "0.26")
+    compileOnly(group = "io.micrometer", name = "micrometer-core", version = "1.12.2") // Provided by the user
     compileOnly(group = "net.dv8tion", name = "JDA", version = jdaVersion) {
         exclude(module = "opus-java")
     }
@@ -58,7 +78,16 @@ dependencies {
     }
     testImplementation(group = "junit", name = "junit", version = "4.12")
     testImplementation("com.squareup.okhttp3:mockwebserver:4.9.3")
+    testImplementation(group = "org.reactivestreams", name = "reactive-streams", version = "1.0.4")
+    testImplementation(group = "io.airlift", name = "aircompressor", version = "0.26")
+    testImplementation(group = "io.micrometer", name = "micrometer-core", version = "1.12.2")
 
+    jmhImplementation(group = "net.dv8tion", name = "JDA", version = jdaVersion) {
+        exclude(module = "opus-java")
+    }
+    jmhImplementation("com.squareup.okhttp3:mockwebserver:4.9.3")
+    jmhImplementation(group = "org.openjdk.jmh", name = "jmh-core", version = jmhVersion)
+    "jmhAnnotationProcessor"(group = "org.openjdk.jmh", name = "jmh-generator-annprocess", version = jmhVersion)
 }
 
 fun getBuildNum(): String {
@@ -121,6 +150,34 @@ publishing {
     }
 }
 
+// Usage: ./gradlew jmh -Pjmh.include=WebParserUtils -Pjmh.args="-f 1 -wi 2"
+// Allocation rates are reported by the gc profiler as gc.alloc.rate.norm (bytes per operation)
+val jmh = task<JavaExec>("jmh") {
+    group = "benchmark"
+    description = "Runs the JMH benchmarks in src/jmh with the gc profiler enabled"
+
+    val jmhSourceSet = sourceSets["jmh"]
+    val resultFile = layout.buildDirectory.file("reports/jmh/results.json")
+
+    dependsOn(jmhSourceSet.classesTaskName)
+    classpath = jmhSourceSet.runtimeClasspath
+    mainClass.set("org.openjdk.jmh.Main")
+
+    doFirst {
+        resultFile.get().asFile.parentFile.mkdirs()
+    }
+
+    args("-prof", "gc", "-rf", "json", "-rff", resultFile.get().asFile.absolutePath)
+
+    (project.findProperty("jmh.args") as String?)?.let {
+        args(it.split(" ").filter(String::isNotBlank))
+    }
+
+    (project.findProperty("jmh.include") as String?)?.let {
+        args(it)
+    }
+}
+
 build.apply {
     dependsOn(jar)
     dependsOn(javadocJar)
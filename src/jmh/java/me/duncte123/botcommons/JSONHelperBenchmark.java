@@ -0,0 +1,66 @@
+/*
+ *    Copyright 2026 Duncan "duncte123" Sterken
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package me.duncte123.botcommons;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares creating a mapper per call (the old behaviour) with the shared mapper and cached readers
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JSONHelperBenchmark {
+    private final byte[] body = "{\"id\":\"191231307290771456\",\"name\":\"duncte123\",\"bot\":false,\"flags\":[1,2,3]}"
+        .getBytes(StandardCharsets.UTF_8);
+
+    @Benchmark
+    public JsonNode readTreeNewMapper() throws IOException {
+        return JSONHelper.createObjectMapper().readTree(body);
+    }
+
+    @Benchmark
+    public JsonNode readTreeShared() throws IOException {
+        return JSONHelper.getTreeReader().readTree(body);
+    }
+
+    @Benchmark
+    public User readValueNewMapper() throws IOException {
+        return JSONHelper.createObjectMapper().readValue(body, User.class);
+    }
+
+    @Benchmark
+    public User readValueCachedReader() throws IOException {
+        return JSONHelper.readerFor(User.class).readValue(body);
+    }
+
+    public static class User {
+        public String id;
+        public String name;
+        public boolean bot;
+        public List<Integer> flags;
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ *    Copyright 2026 Duncan "duncte123" Sterken
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package me.duncte123.botcommons.messaging;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MessageSplitterBenchmark {
+    @Param({"prose", "code", "unbroken"})
+    public String kind;
+
+    // the time per character should stay the same for every size, a growing cost means a chunk scans past itself
+    @Param({"102400", "409600", "1638400"})
+    public int size;
+
+    private String content;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        final Random random = new Random(42L);
+        final StringBuilder builder = new StringBuilder(size);
+
+        while (builder.length() < size) {
+            switch (kind) {
+                case "prose":
+                    builder.append("The quick brown fox jumps over the lazy dog ").append(random.nextInt(1000));
+                    builder.append(random.nextInt(8) == 0 ? '\n' : ' ');
+                    break;
+                case "code":
+                    builder.append("```java\n");
+
+                    for (int i = 0; i < 40; i++) {
+                        builder.append("    System.out.println(\"line ").append(random.nextInt(1000)).append("\");\n");
+                    }
+
+                    builder.append("```\nSome text between the blocks\n");
+                    break;
+                default:
+                    builder.append((char) ('a' + random.nextInt(26)));
+                    break;
+            }
+        }
+
+        content = builder.toString();
+    }
+
+    @Benchmark
+    public List<String> split() {
+        return MessageSplitter.split(content);
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ *    Copyright 2026 Duncan "duncte123" Sterken
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package me.duncte123.botcommons.messaging;
+
+import net.dv8tion.jda.api.EmbedBuilder;
+import net.dv8tion.jda.api.entities.MessageEmbed;
+import net.dv8tion.jda.api.entities.channel.middleman.MessageChannel;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MessagingBenchmark {
+    private MessageChannel channel;
+    private MessageEmbed embed;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        channel = JDAStubs.messageChannel();
+        embed = new EmbedBuilder()
+            .setAuthor("duncte123")
+            .setDescription("Check out [the repo](https://github.com/duncte123/botCommons) for more info")
+            .addField("Field one", "A value with a [link](https://example.com)", false)
+            .addField("Field two", "Another value", true)
+            .setImage("https://example.com/image.png")
+            .setFooter("Footer text")
+            .setTimestamp(Instant.EPOCH)
+            .build();
+    }
+
+    @Benchmark
+    public MessageConfig buildConfig() {
+        return new MessageConfig.Builder()
+            .setChannel(channel)
+            .setMessage("Hello world, this is a message from the benchmark")
+            .addEmbed(EmbedUtils.embedMessage("With an embed"))
+            .build();
+    }
+
+    @Benchmark
+    public void buildAndSendMsg() {
+        MessageUtils.sendMsg(
+            new MessageConfig.Builder()
+                .setChannel(channel)
+                .setMessage("Hello world, this is a message from the benchmark")
+                .addEmbed(EmbedUtils.embedMessage("With an embed"))
+        );
+    }
+
+    @Benchmark
+    public String embedToMessage() {
+        return EmbedUtils.embedToMessage(embed);
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ *    Copyright 2026 Duncan "duncte123" Sterken
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package me.duncte123.botcommons.web;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import me.duncte123.botcommons.JSONHelper;
+import net.dv8tion.jda.internal.utils.IOUtil;
+import okhttp3.*;
+import okio.ByteString;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WebParserUtilsBenchmark {
+    private static final MediaType JSON = MediaType.get("application/json; charset=utf-8");
+
+    @Param({"identity", "gzip", "deflate"})
+    public String encoding;
+
+    private Request request;
+    private byte[] body;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        request = new Request.Builder().url("http://localhost/").build();
+
+        final byte[] raw = WebUtilsBenchmark.OBJECT_BODY.getBytes(StandardCharsets.UTF_8);
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        switch (encoding) {
+            case "gzip":
+                try (OutputStream out = new GZIPOutputStream(bytes)) {
+                    out.write(raw);
+                }
+                break;
+            case "deflate":
+                try (OutputStream out = new DeflaterOutputStream(bytes)) {
+                    out.write(raw);
+                }
+                break;
+            default:
+                bytes.write(raw);
+        }
+
+        body = bytes.toByteArray();
+    }
+
+    @Benchmark
+    public ObjectNode toJSONObject() throws IOException {
+        try (Response response = createResponse()) {
+            return WebParserUtils.toJSONObject(response);
+        }
+    }
+
+    @Benchmark
+    public User toJSONObjectThenConvert() throws IOException {
+        try (Response response = createResponse()) {
+            return JSONHelper.getObjectMapper().treeToValue(WebParserUtils.toJSONObject(response), User.class);
+        }
+    }
+
+    @Benchmark
+    public User toObject() throws IOException {
+        try (Response response = createResponse()) {
+            return WebParserUtils.toObject(response, JSONHelper.readerFor(User.class));
+        }
+    }
+
+    @Benchmark
+    public byte[] readFully() throws IOException {
+        try (Response response = createResponse()) {
+            return IOUtil.readFully(WebParserUtils.getInputStream(response));
+        }
+    }
+
+    @Benchmark
+    public byte[] toByteArray() throws IOException {
+        try (Response response = createResponse()) {
+            return WebParserUtils.toByteArray(response);
+        }
+    }
+
+    @Benchmark
+    public ByteString toByteString() throws IOException {
+        try (Response response = createResponse()) {
+            return WebParserUtils.toByteString(response);
+        }
+    }
+
+    private Response createResponse() {
+        final Response.Builder builder = new Response.Builder()
+            .request(request)
+            .protocol(Protocol.HTTP_1_1)
+            .code(200)
+            .message("OK")
+            .body(ResponseBody.create(body, JSON));
+
+        if (!"identity".equals(encoding)) {
+            builder.header("Content-Encoding", encoding);
+        }
+
+        return builder.build();
+    }
+
+    public static class User {
+        public String id;
+        public String name;
+        public String discriminator;
+        public boolean bot;
+        public List<Integer> flags;
+        public String avatar;
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ *    Copyright 2026 Duncan "duncte123" Sterken
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package me.duncte123.botcommons.web;
+
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.jetbrains.annotations.NotNull;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WebUtilsBenchmark {
+    static final String OBJECT_BODY = "{\"id\":\"191231307290771456\",\"name\":\"duncte123\",\"discriminator\":\"0\",\"bot\":false,\"flags\":[1,2,3],\"avatar\":null}";
+    static final String ARRAY_BODY;
+
+    static {
+        final StringBuilder builder = new StringBuilder("[");
+
+        for (int i = 0; i < 50; i++) {
+            if (i > 0) {
+                builder.append(',');
+            }
+
+            builder.append(OBJECT_BODY);
+        }
+
+        ARRAY_BODY = builder.append(']').toString();
+    }
+
+    private MockWebServer server;
+    private String objectUrl;
+    private String arrayUrl;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        server = new MockWebServer();
+        server.setDispatcher(new Dispatcher() {
+            @NotNull
+            @Override
+            public MockResponse dispatch(@NotNull RecordedRequest request) {
+                final String body = "/array".equals(request.getPath()) ? ARRAY_BODY : OBJECT_BODY;
+
+                return new MockResponse()
+                    .addHeader("Content-Type", "application/json; charset=utf-8")
+                    .setBody(body);
+            }
+        });
+        server.start();
+
+        objectUrl = server.url("/object").toString();
+        arrayUrl = server.url("/array").toString();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    @Benchmark
+    public ObjectNode getJSONObject() {
+        return WebUtils.ins.getJSONObject(objectUrl).execute();
+    }
+
+    @Benchmark
+    public ArrayNode getJSONArray() {
+        return WebUtils.ins.getJSONArray(arrayUrl).execute();
+    }
+}
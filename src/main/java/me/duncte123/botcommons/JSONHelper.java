@@ -17,10 +17,32 @@
 package me.duncte123.botcommons;
 
 import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import java.lang.reflect.Type;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class JSONHelper {
+    // Configured once and never changed afterwards, this is what makes it safe to share between threads
+    private static final ObjectMapper MAPPER = createObjectMapper();
+    private static final ObjectReader TREE_READER = MAPPER.readerFor(JsonNode.class);
+    private static final ObjectWriter WRITER = MAPPER.writer();
+    private static final Map<Type, ObjectReader> READERS = new ConcurrentHashMap<>();
+    private static final Map<Type, ObjectWriter> WRITERS = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a new object mapper with the default configuration of BotCommons.<br/>
+     * Creating a mapper is expensive, use {@link #getObjectMapper()} or one of the cached readers/writers unless you
+     * need to change the configuration
+     *
+     * @return a new object mapper
+     */
     public static ObjectMapper createObjectMapper() {
         final ObjectMapper mapper = new ObjectMapper();
 
@@ -30,4 +52,85 @@ public class JSONHelper {
 
         return mapper;
     }
+
+    /**
+     * Returns the object mapper that is shared across BotCommons.<br/>
+     * <b>Do not change the configuration of this mapper</b>, it is used by every thread. Use {@link
+     * #createObjectMapper()} if you need a mapper with a different configuration
+     *
+     * @return the shared object mapper
+     */
+    public static ObjectMapper getObjectMapper() {
+        return MAPPER;
+    }
+
+    /**
+     * Returns a reader that reads json into a {@link JsonNode} tree
+     *
+     * @return a reader that reads json trees
+     */
+    public static ObjectReader getTreeReader() {
+        return TREE_READER;
+    }
+
+    /**
+     * Returns a writer with the default configuration of the shared mapper
+     *
+     * @return a writer with the default configuration
+     */
+    public static ObjectWriter getWriter() {
+        return WRITER;
+    }
+
+    /**
+     * Returns a cached reader for the given type, readers are immutable and can be used by multiple threads
+     *
+     * @param type
+     *     the class to read the json into
+     * @param <T>
+     *     the type to read the json into
+     *
+     * @return a reader for the given type
+     */
+    public static <T> ObjectReader readerFor(Class<T> type) {
+        return READERS.computeIfAbsent(type, (__) -> MAPPER.readerFor(type));
+    }
+
+    /**
+     * Returns a cached reader for the given type, readers are immutable and can be used by multiple threads
+     *
+     * @param type
+     *     the type to read the json into
+     * @param <T>
+     *     the type to read the json into
+     *
+     * @return a reader for the given type
+     */
+    public static <T> ObjectReader readerFor(TypeReference<T> type) {
+        return READERS.computeIfAbsent(type.getType(), (__) -> MAPPER.readerFor(type));
+    }
+
+    /**
+     * Returns a cached writer for the given type, writers are immutable and can be used by multiple threads
+     *
+     * @param type
+     *     the class that will be written
+     *
+     * @return a writer for the given type
+     */
+    public static ObjectWriter writerFor(Class<?> type) {
+        return WRITERS.computeIfAbsent(type, (__) -> MAPPER.writerFor(type));
+    }
+
+    /**
+     * Returns a cached writer for the given type, writers are immutable and can be used by multiple threads
+     *
+     * @param type
+     *     the type that will be written
+     *
+     * @return a writer for the given type
+     */
+    public static ObjectWriter writerFor(TypeReference<?> type) {
+        return WRITERS.computeIfAbsent(type.getType(), (__) -> MAPPER.writerFor(type));
+    }
 }
@@ -28,6 +28,6 @@ public class ConfigUtils {
     }
 
     public static <T> T loadFromFile(File file, Class<T> classOfT) throws IOException {
-        return JSONHelper.createObjectMapper().readValue(file, classOfT);
+        return JSONHelper.readerFor(classOfT).readValue(file);
     }
 }
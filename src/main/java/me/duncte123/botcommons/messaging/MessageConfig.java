@@ -16,7 +16,6 @@
 
 package me.duncte123.botcommons.messaging;
 
-import me.duncte123.botcommons.StringUtils;
 import me.duncte123.botcommons.commands.ICommandContext;
 import net.dv8tion.jda.api.EmbedBuilder;
 import net.dv8tion.jda.api.entities.Message;
@@ -42,8 +41,13 @@ import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 public class MessageConfig {
+    // the default action config, messages with it can be merged by the MessageQueue
+    static final Consumer<MessageCreateAction> NO_ACTION_CONFIG = (a) -> {
+    };
+
     private final MessageChannel channel;
     private final MessageCreateBuilder messageBuilder;
+    private final String content;
     private final List<EmbedBuilder> embeds;
     private final long replyToId;
     private final boolean mentionRepliedUser;
@@ -77,6 +81,13 @@ public class MessageConfig {
     public MessageConfig(MessageChannel channel, MessageCreateBuilder messageBuilder, Collection<? extends EmbedBuilder> embeds, long replyToId,
                          boolean mentionRepliedUser, Consumer<? super Throwable> failureAction,
                          Consumer<? super Message> successAction, Consumer<MessageCreateAction> actionConfig) {
+        this(channel, messageBuilder, null, embeds, replyToId, mentionRepliedUser, failureAction, successAction, actionConfig);
+    }
+
+    private MessageConfig(MessageChannel channel, MessageCreateBuilder messageBuilder, @Nullable String content,
+                          Collection<? extends EmbedBuilder> embeds, long replyToId, boolean mentionRepliedUser,
+                          Consumer<? super Throwable> failureAction, Consumer<? super Message> successAction,
+                          Consumer<MessageCreateAction> actionConfig) {
 
         Checks.notNull(channel, "channel");
         Checks.notNull(messageBuilder, "messageBuilder");
@@ -85,6 +96,7 @@ public class MessageConfig {
 
         this.channel = channel;
         this.messageBuilder = messageBuilder;
+        this.content = content;
         this.embeds = new ArrayList<>(embeds);
         this.replyToId = replyToId;
         this.mentionRepliedUser = mentionRepliedUser;
@@ -112,6 +124,18 @@ public class MessageConfig {
         return this.messageBuilder;
     }
 
+    /**
+     * Returns the full content of the message, this can be longer than {@link Message#MAX_CONTENT_LENGTH} in which
+     * case {@link MessageUtils#sendMsg(MessageConfig)} splits it over multiple messages with the {@link
+     * MessageSplitter}
+     *
+     * @return The full content of the message
+     */
+    @Nonnull
+    public String getContent() {
+        return this.content == null ? this.messageBuilder.getContent() : this.content;
+    }
+
     /**
      * Returns the list of embeds that should go under the message
      *
@@ -174,13 +198,14 @@ public class MessageConfig {
     public static class Builder {
         private final List<EmbedBuilder> embeds = new ArrayList<>();
         private MessageCreateBuilder messageBuilder = new MessageCreateBuilder();
+        // content that is too long for the message builder, only used while the builder has no content
+        private String longContent;
         private long replyToId;
         private boolean mentionRepliedUser = MessageRequest.isDefaultMentionRepliedUser();
         private MessageChannel channel;
         private Consumer<? super Throwable> failureAction = RestAction.getDefaultFailure();
         private Consumer<? super Message> successAction = RestAction.getDefaultSuccess();
-        private Consumer<MessageCreateAction> actionConfig = (a) -> {
-        };
+        private Consumer<MessageCreateAction> actionConfig = NO_ACTION_CONFIG;
 
         /**
          * Sets the channel that the message will be sent to
@@ -232,6 +257,7 @@ public class MessageConfig {
          */
         public Builder setMessage(Message message) {
             this.messageBuilder = MessageCreateBuilder.fromMessage(message);
+            this.longContent = null;
             // clear the embeds
             this.messageBuilder.setEmbeds();
 
@@ -249,7 +275,8 @@ public class MessageConfig {
         }
 
         /**
-         * Sets the content of the message that will be sent
+         * Sets the content of the message that will be sent, content that is longer than {@link
+         * Message#MAX_CONTENT_LENGTH} is split over multiple messages when it is sent
          *
          * @param message
          *     The content for the message
@@ -258,9 +285,17 @@ public class MessageConfig {
          *
          * @see #setMessage(Message)
          * @see #setMessageFormat(String, Object...)
+         * @see MessageSplitter
          */
         public Builder setMessage(String message) {
-            this.messageBuilder.setContent(StringUtils.abbreviate(message, Message.MAX_CONTENT_LENGTH));
+            if (message != null && message.length() > Message.MAX_CONTENT_LENGTH) {
+                this.messageBuilder.setContent(null);
+                this.longContent = message;
+            } else {
+                this.messageBuilder.setContent(message);
+                this.longContent = null;
+            }
+
             return this;
         }
 
@@ -279,8 +314,7 @@ public class MessageConfig {
          * @see #setMessage(String)
          */
         public Builder setMessageFormat(String message, Object... args) {
-            this.messageBuilder.setContent(String.format(message, args));
-            return this;
+            return this.setMessage(String.format(message, args));
         }
 
         /**
@@ -472,6 +506,7 @@ public class MessageConfig {
          */
         public Builder setMessageBuilder(MessageCreateBuilder messageBuilder) {
             this.messageBuilder = messageBuilder;
+            this.longContent = null;
 
             return this;
         }
@@ -640,8 +675,10 @@ public class MessageConfig {
                 throw new IllegalArgumentException("No text channel has been set, set this with setChannel");
             }
 
+            final String content = this.longContent != null && this.messageBuilder.getContent().isEmpty() ? this.longContent : null;
+
             // we can send messages with just an embed
-            if (this.messageBuilder.isEmpty() && this.embeds.isEmpty()) {
+            if (content == null && this.messageBuilder.isEmpty() && this.embeds.isEmpty()) {
                 throw new IllegalArgumentException("This message has no content, please add some content with setMessage or setEmbeds");
             }
 
@@ -650,6 +687,7 @@ public class MessageConfig {
             return new MessageConfig(
                 this.channel,
                 this.messageBuilder,
+                content,
                 this.embeds,
                 this.replyToId,
                 this.mentionRepliedUser,
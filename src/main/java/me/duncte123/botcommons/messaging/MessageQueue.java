@@ -0,0 +1,288 @@
+/*
+ *    Copyright 2026 Duncan "duncte123" Sterken
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package me.duncte123.botcommons.messaging;
+
+import net.dv8tion.jda.api.entities.Message;
+import net.dv8tion.jda.api.entities.MessageEmbed;
+import net.dv8tion.jda.api.entities.channel.middleman.MessageChannel;
+import net.dv8tion.jda.api.requests.RestAction;
+import net.dv8tion.jda.api.requests.restaction.MessageCreateAction;
+import net.dv8tion.jda.api.utils.messages.MessageCreateBuilder;
+import net.dv8tion.jda.api.utils.messages.MessageCreateData;
+import net.dv8tion.jda.internal.utils.Checks;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Collects the messages that {@link MessageUtils#sendMsg(MessageConfig)} sends to a channel for a short window and
+ * merges consecutive plain messages into one, up to {@link Message#MAX_CONTENT_LENGTH} characters and {@link
+ * Message#MAX_EMBED_COUNT} embeds. A command that sends 20 short lines only makes one request instead of 20.<br/>
+ * Messages are sent in the order they were queued. Messages with files, components, tts, a reply or a custom
+ * {@link MessageConfig#getActionConfig() action config} are never merged, and messages are only merged when they
+ * allow the same mentions. The success and failure actions of every message are called with the result of the
+ * message it was merged into.
+ *
+ * @see MessageUtils#setMessageQueue(MessageQueue)
+ */
+public class MessageQueue {
+    private static final Logger LOGGER = LoggerFactory.getLogger(MessageQueue.class);
+    // a single thread keeps the flushes of a channel in order
+    private static final ScheduledExecutorService SCHEDULER = Executors.newSingleThreadScheduledExecutor((runnable) -> {
+        final Thread thread = new Thread(runnable, "botcommons-message-queue");
+
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final ConcurrentMap<Long, ChannelQueue> channels = new ConcurrentHashMap<>();
+    private final long flushWindowMillis;
+
+    /**
+     * Creates a queue that waits 250 milliseconds for more messages
+     */
+    public MessageQueue() {
+        this(250L, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Creates a queue
+     *
+     * @param flushWindow
+     *     how long to wait for more messages after the first message to a channel was queued
+     * @param unit
+     *     the unit of the flush window
+     */
+    public MessageQueue(long flushWindow, TimeUnit unit) {
+        Checks.notNull(unit, "unit");
+        Checks.check(flushWindow >= 0L, "flushWindow may not be negative");
+
+        this.flushWindowMillis = unit.toMillis(flushWindow);
+    }
+
+    /**
+     * Returns how long the queue waits for more messages
+     *
+     * @return the flush window in milliseconds
+     */
+    public long getFlushWindowMillis() {
+        return this.flushWindowMillis;
+    }
+
+    /**
+     * Returns the amount of messages that are waiting to be sent
+     *
+     * @return the amount of queued messages
+     */
+    public int getPendingCount() {
+        return this.channels.values().stream().mapToInt((queue) -> queue.entries.size()).sum();
+    }
+
+    /**
+     * Sends the queued messages of every channel right away
+     */
+    public void flush() {
+        for (final Long channelId : this.channels.keySet()) {
+            this.flush(channelId);
+        }
+    }
+
+    void add(MessageChannel channel, MessageCreateData data, MessageConfig config, boolean canReply, boolean first, boolean last) {
+        final boolean reply = first && canReply && config.getReplyToId() > 0;
+        final boolean customAction = last && config.getActionConfig() != MessageConfig.NO_ACTION_CONFIG;
+        final Entry entry = new Entry(
+            data,
+            reply || customAction ? (action) -> MessageUtils.configureAction(action, config, canReply, first, last) : null,
+            config.getSuccessAction(),
+            config.getFailureAction()
+        );
+        final long channelId = channel.getIdLong();
+
+        this.channels.compute(channelId, (id, queue) -> {
+            final ChannelQueue current = queue == null ? new ChannelQueue(channel) : queue;
+
+            current.entries.add(entry);
+
+            if (queue == null) {
+                SCHEDULER.schedule(() -> this.flush(channelId), this.flushWindowMillis, TimeUnit.MILLISECONDS);
+            }
+
+            return current;
+        });
+    }
+
+    private void flush(long channelId) {
+        final ChannelQueue[] removed = new ChannelQueue[1];
+
+        // the next message to this channel starts a new queue with its own flush
+        this.channels.computeIfPresent(channelId, (id, queue) -> {
+            removed[0] = queue;
+            return null;
+        });
+
+        if (removed[0] == null) {
+            return;
+        }
+
+        for (final List<Entry> group : group(removed[0].entries)) {
+            try {
+                send(removed[0].channel, group);
+            } catch (Exception e) {
+                LOGGER.error("Failed to send queued messages to channel {}", channelId, e);
+                group.forEach((entry) -> accept(entry.failureAction, e, RestAction.getDefaultFailure()));
+            }
+        }
+    }
+
+    private static void send(MessageChannel channel, List<Entry> group) {
+        if (group.size() == 1) {
+            final Entry entry = group.get(0);
+            final MessageCreateAction action = channel.sendMessage(entry.data);
+
+            if (entry.actionConfig != null) {
+                entry.actionConfig.accept(action);
+            }
+
+            action.queue(entry.successAction, entry.failureAction);
+            return;
+        }
+
+        channel.sendMessage(merge(group)).queue(
+            (message) -> group.forEach((entry) -> accept(entry.successAction, message, RestAction.getDefaultSuccess())),
+            (error) -> group.forEach((entry) -> accept(entry.failureAction, error, RestAction.getDefaultFailure()))
+        );
+    }
+
+    private static <T> void accept(@Nullable Consumer<? super T> consumer, T value, Consumer<? super T> fallback) {
+        try {
+            if (consumer == null) {
+                fallback.accept(value);
+            } else {
+                consumer.accept(value);
+            }
+        } catch (Exception e) {
+            LOGGER.error("Callback of a queued message threw an exception", e);
+        }
+    }
+
+    /**
+     * Splits the entries in groups that are sent as one message, keeping their order
+     */
+    static List<List<Entry>> group(List<Entry> entries) {
+        final List<List<Entry>> groups = new ArrayList<>();
+        List<Entry> current = null;
+        int length = 0;
+        int embeds = 0;
+
+        for (final Entry entry : entries) {
+            final String content = entry.data.getContent();
+            final int mergedLength = length == 0 || content.isEmpty() ? length + content.length() : length + 1 + content.length();
+            final int mergedEmbeds = embeds + entry.data.getEmbeds().size();
+
+            if (current != null && entry.canMergeWith(current.get(0))
+                && mergedLength <= Message.MAX_CONTENT_LENGTH && mergedEmbeds <= Message.MAX_EMBED_COUNT) {
+                current.add(entry);
+                length = mergedLength;
+                embeds = mergedEmbeds;
+                continue;
+            }
+
+            current = new ArrayList<>();
+            current.add(entry);
+            groups.add(current);
+            length = content.length();
+            embeds = entry.data.getEmbeds().size();
+        }
+
+        return groups;
+    }
+
+    static MessageCreateData merge(List<Entry> group) {
+        final MessageCreateBuilder builder = MessageCreateBuilder.from(group.get(0).data);
+        final StringBuilder content = new StringBuilder();
+        final List<MessageEmbed> embeds = new ArrayList<>();
+
+        for (final Entry entry : group) {
+            final String part = entry.data.getContent();
+
+            if (!part.isEmpty()) {
+                if (content.length() > 0) {
+                    content.append('\n');
+                }
+
+                content.append(part);
+            }
+
+            embeds.addAll(entry.data.getEmbeds());
+        }
+
+        return builder.setContent(content.toString())
+            .setEmbeds(embeds)
+            .build();
+    }
+
+    private static class ChannelQueue {
+        private final MessageChannel channel;
+        // only changed inside of compute on the channel map
+        private final List<Entry> entries = new ArrayList<>();
+
+        private ChannelQueue(MessageChannel channel) {
+            this.channel = channel;
+        }
+    }
+
+    static class Entry {
+        private final MessageCreateData data;
+        private final Consumer<MessageCreateAction> actionConfig;
+        private final Consumer<? super Message> successAction;
+        private final Consumer<? super Throwable> failureAction;
+
+        Entry(MessageCreateData data, @Nullable Consumer<MessageCreateAction> actionConfig,
+              @Nullable Consumer<? super Message> successAction, @Nullable Consumer<? super Throwable> failureAction) {
+            this.data = data;
+            this.actionConfig = actionConfig;
+            this.successAction = successAction;
+            this.failureAction = failureAction;
+        }
+
+        private boolean isMergeable() {
+            return this.actionConfig == null
+                && this.data.getFiles().isEmpty()
+                && this.data.getComponents().isEmpty()
+                && !this.data.isTTS();
+        }
+
+        private boolean canMergeWith(Entry other) {
+            return this.isMergeable() && other.isMergeable()
+                && this.data.isSuppressEmbeds() == other.data.isSuppressEmbeds()
+                && this.data.isSuppressedNotifications() == other.data.isSuppressedNotifications()
+                && Objects.equals(this.data.getAllowedMentions(), other.data.getAllowedMentions())
+                && Objects.equals(this.data.getMentionedUsers(), other.data.getMentionedUsers())
+                && Objects.equals(this.data.getMentionedRoles(), other.data.getMentionedRoles());
+        }
+    }
+}
@@ -0,0 +1,212 @@
+/*
+ *    Copyright 2026 Duncan "duncte123" Sterken
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package me.duncte123.botcommons.messaging;
+
+import net.dv8tion.jda.api.entities.Message;
+import net.dv8tion.jda.internal.utils.Checks;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits content that is too long for a single message.<br/>
+ * Every chunk is cut at the last newline that fits, then at the last space and only then at the limit itself. The
+ * newline or space a chunk is cut at is dropped. When a cut falls inside of a {@code ```} code block the block is
+ * closed at the end of the chunk and opened again, with the same language, at the start of the next chunk.<br/>
+ * The content is walked once with index arithmetic, chunks are substrings unless a code block has to be closed or
+ * opened.
+ *
+ * @see MessageUtils#sendMsg(MessageConfig)
+ */
+public final class MessageSplitter {
+    private static final String FENCE = "```";
+    private static final String CLOSE_FENCE = "\n" + FENCE;
+
+    private MessageSplitter() {}
+
+    /**
+     * Splits the content into chunks of at most {@link Message#MAX_CONTENT_LENGTH} characters
+     *
+     * @param content
+     *     the content to split
+     *
+     * @return the chunks in order, empty chunks are left out
+     *
+     * @see #split(String, int)
+     */
+    public static List<String> split(String content) {
+        return split(content, Message.MAX_CONTENT_LENGTH);
+    }
+
+    /**
+     * Splits the content into chunks of at most {@code maxLength} characters
+     *
+     * @param content
+     *     the content to split
+     * @param maxLength
+     *     the maximum length of a chunk, at least 16 so a chunk has room for reopening and closing a code block
+     *
+     * @return the chunks in order, empty chunks are left out
+     */
+    public static List<String> split(String content, int maxLength) {
+        Checks.notNull(content, "content");
+        Checks.check(maxLength >= 16, "maxLength must be at least 16");
+
+        final int length = content.length();
+        final List<String> chunks = new ArrayList<>(length / maxLength + 1);
+        // the opening line of the code block that is open at pos, like ```java
+        String openFence = null;
+        // the first code block fence that was not passed yet, kept so the content after it is only searched once
+        int nextFence = content.indexOf(FENCE);
+        int pos = 0;
+
+        while (pos < length) {
+            final String prefix = openFence == null ? "" : openFence + '\n';
+
+            if (prefix.length() + length - pos <= maxLength) {
+                addChunk(chunks, prefix, content, pos, length, false);
+                break;
+            }
+
+            int cut = findCut(content, pos, pos + maxLength - prefix.length());
+            String fenceAtCut = fenceAt(content, nextFence, cut, openFence, maxLength);
+
+            // a block that is still open needs room to be closed
+            if (fenceAtCut != null) {
+                cut = findCut(content, pos, pos + maxLength - prefix.length() - CLOSE_FENCE.length());
+                fenceAtCut = fenceAt(content, nextFence, cut, openFence, maxLength);
+            }
+
+            addChunk(chunks, prefix, content, pos, cut, fenceAtCut != null);
+
+            openFence = fenceAtCut;
+            pos = cut < length && isSeparator(content.charAt(cut)) ? cut + 1 : cut;
+            nextFence = skipFences(content, nextFence, cut);
+
+            // a fence that was cut in half does not count
+            if (nextFence != -1 && nextFence < pos) {
+                nextFence = content.indexOf(FENCE, pos);
+            }
+        }
+
+        return chunks;
+    }
+
+    /**
+     * Finds where to cut the content so {@code [from, cut)} fits before {@code limit}, only {@code (from, limit]} is
+     * searched
+     */
+    private static int findCut(String content, int from, int limit) {
+        int space = -1;
+
+        for (int i = limit; i > from; i--) {
+            final char c = content.charAt(i);
+
+            if (c == '\n') {
+                return i;
+            }
+
+            if (c == ' ' && space == -1) {
+                space = i;
+            }
+        }
+
+        if (space != -1) {
+            return space;
+        }
+
+        // never cut a surrogate pair in half
+        if (Character.isHighSurrogate(content.charAt(limit - 1)) && limit - 1 > from) {
+            return limit - 1;
+        }
+
+        return limit;
+    }
+
+    /**
+     * Returns the opening line of the code block that is open at {@code to}, or {@code null} when no block is open
+     */
+    private static String fenceAt(String content, int nextFence, int to, String openFence, int maxLength) {
+        String fence = openFence;
+        int index = nextFence;
+
+        while (index != -1 && index + FENCE.length() <= to) {
+            if (fence == null) {
+                fence = openingLine(content, index, maxLength);
+            } else {
+                fence = null;
+            }
+
+            index = content.indexOf(FENCE, index + FENCE.length());
+        }
+
+        return fence;
+    }
+
+    /**
+     * Returns the first fence that does not end before {@code to}, or {@code -1} when there is none
+     */
+    private static int skipFences(String content, int nextFence, int to) {
+        int index = nextFence;
+
+        while (index != -1 && index + FENCE.length() <= to) {
+            index = content.indexOf(FENCE, index + FENCE.length());
+        }
+
+        return index;
+    }
+
+    private static String openingLine(String content, int fenceStart, int maxLength) {
+        int end = content.indexOf('\n', fenceStart);
+
+        if (end == -1) {
+            end = content.length();
+        }
+
+        // a language that leaves no room for content is dropped
+        if (end - fenceStart > maxLength / 4) {
+            return FENCE;
+        }
+
+        return content.substring(fenceStart, end);
+    }
+
+    private static void addChunk(List<String> chunks, String prefix, String content, int from, int to, boolean closeFence) {
+        if (to <= from) {
+            return;
+        }
+
+        if (prefix.isEmpty() && !closeFence) {
+            chunks.add(content.substring(from, to));
+            return;
+        }
+
+        final StringBuilder chunk = new StringBuilder(prefix.length() + to - from + CLOSE_FENCE.length())
+            .append(prefix)
+            .append(content, from, to);
+
+        if (closeFence) {
+            chunk.append(CLOSE_FENCE);
+        }
+
+        chunks.add(chunk.toString());
+    }
+
+    private static boolean isSeparator(char c) {
+        return c == '\n' || c == ' ';
+    }
+}
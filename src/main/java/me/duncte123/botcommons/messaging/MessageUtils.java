@@ -23,20 +23,29 @@ import net.dv8tion.jda.api.Permission;
 import net.dv8tion.jda.api.entities.*;
 import net.dv8tion.jda.api.entities.channel.ChannelType;
 import net.dv8tion.jda.api.entities.channel.concrete.TextChannel;
+import net.dv8tion.jda.api.entities.channel.middleman.GuildChannel;
 import net.dv8tion.jda.api.entities.channel.middleman.GuildMessageChannel;
 import net.dv8tion.jda.api.entities.channel.middleman.MessageChannel;
 import net.dv8tion.jda.api.entities.channel.unions.MessageChannelUnion;
 import net.dv8tion.jda.api.entities.emoji.Emoji;
+import net.dv8tion.jda.api.requests.RestAction;
 import net.dv8tion.jda.api.requests.restaction.MessageCreateAction;
 import net.dv8tion.jda.api.utils.messages.MessageCreateBuilder;
+import net.dv8tion.jda.api.utils.messages.MessageCreateData;
 import net.dv8tion.jda.api.utils.messages.MessageEditBuilder;
 import net.dv8tion.jda.api.utils.messages.MessageEditData;
+import net.dv8tion.jda.internal.utils.Checks;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
@@ -47,6 +56,9 @@ public class MessageUtils {
     private static final Logger LOGGER = LoggerFactory.getLogger(MessageUtils.class);
     private static String errorReaction = "❌";
     private static String successReaction = "✅";
+    private static volatile MessageQueue messageQueue = null;
+    private static volatile PermissionCache permissionCache = null;
+    private static volatile ReactionDispatcher reactionDispatcher = null;
 
     /**
      * Returns the current error reaction
@@ -96,6 +108,80 @@ public class MessageUtils {
         MessageUtils.successReaction = successReaction;
     }
 
+    /**
+     * Returns the queue that merges messages to the same channel
+     *
+     * @return The current message queue, or {@code null} when messages are sent right away (the default)
+     *
+     * @see #setMessageQueue(MessageQueue)
+     */
+    @Nullable
+    public static MessageQueue getMessageQueue() {
+        return messageQueue;
+    }
+
+    /**
+     * Sets the queue that merges messages to the same channel, messages sent with {@link #sendMsg(MessageConfig)}
+     * wait for the flush window of the queue and consecutive plain messages are sent as one message.<br/>
+     * Messages that are already queued are still sent when the queue is replaced.
+     *
+     * @param messageQueue
+     *     The queue to use, or {@code null} to send every message right away
+     */
+    public static void setMessageQueue(@Nullable MessageQueue messageQueue) {
+        MessageUtils.messageQueue = messageQueue;
+    }
+
+    /**
+     * Returns the cache that holds the permissions of the bot per channel
+     *
+     * @return The current permission cache, or {@code null} when permissions are checked on every message (the
+     * default)
+     *
+     * @see #setPermissionCache(PermissionCache)
+     */
+    @Nullable
+    public static PermissionCache getPermissionCache() {
+        return permissionCache;
+    }
+
+    /**
+     * Sets the cache that holds the permissions of the bot per channel, the permission checks of {@link
+     * #sendMsg(MessageConfig)}, {@link #sendError(Message)}, {@link #sendSuccess(Message)} and {@link #editMsg(Message,
+     * Message)} use it instead of resolving the guild and the permissions of the bot every time.<br/>
+     * <b>The cache has to be registered as event listener</b>, otherwise it never sees permission changes.
+     *
+     * @param permissionCache
+     *     The cache to use, or {@code null} to check the permissions on every message
+     */
+    public static void setPermissionCache(@Nullable PermissionCache permissionCache) {
+        MessageUtils.permissionCache = permissionCache;
+    }
+
+    /**
+     * Returns the dispatcher that paces the reactions of {@link #sendError(Message)} and {@link #sendSuccess(Message)}
+     *
+     * @return The current reaction dispatcher, or {@code null} when reactions are added right away (the default)
+     *
+     * @see #setReactionDispatcher(ReactionDispatcher)
+     */
+    @Nullable
+    public static ReactionDispatcher getReactionDispatcher() {
+        return reactionDispatcher;
+    }
+
+    /**
+     * Sets the dispatcher that paces the reactions of {@link #sendError(Message)} and {@link #sendSuccess(Message)}
+     * per channel, duplicate reactions are only added once and reactions that waited too long are dropped.<br/>
+     * Reactions that are already queued are still added when the dispatcher is replaced.
+     *
+     * @param reactionDispatcher
+     *     The dispatcher to use, or {@code null} to add every reaction right away
+     */
+    public static void setReactionDispatcher(@Nullable ReactionDispatcher reactionDispatcher) {
+        MessageUtils.reactionDispatcher = reactionDispatcher;
+    }
+
     /**
      * This will react with a ❌ if the user doesn't have permission to run the command
      *
@@ -106,12 +192,12 @@ public class MessageUtils {
         if (message.getChannelType() == ChannelType.TEXT) {
             TextChannel channel = message.getChannel().asTextChannel();
 
-            if (!channel.getGuild().getSelfMember().hasPermission(channel, Permission.MESSAGE_ADD_REACTION, Permission.MESSAGE_HISTORY)) {
+            if (!hasPermission(channel, Permission.MESSAGE_ADD_REACTION, Permission.MESSAGE_HISTORY)) {
                 return;
             }
         }
 
-        message.addReaction(Emoji.fromUnicode(errorReaction)).queue(null, (ignored) -> {});
+        addReaction(message, Emoji.fromUnicode(errorReaction));
     }
 
     /**
@@ -142,8 +228,8 @@ public class MessageUtils {
         if (message.getChannelType() == ChannelType.TEXT) {
             final TextChannel channel = message.getChannel().asTextChannel();
 
-            if (channel.getGuild().getSelfMember().hasPermission(channel, Permission.MESSAGE_ADD_REACTION, Permission.MESSAGE_HISTORY)) {
-                message.addReaction(Emoji.fromUnicode(successReaction)).queue(null, (ignored) -> {});
+            if (hasPermission(channel, Permission.MESSAGE_ADD_REACTION, Permission.MESSAGE_HISTORY)) {
+                addReaction(message, Emoji.fromUnicode(successReaction));
             }
         }
     }
@@ -177,7 +263,7 @@ public class MessageUtils {
     public static void editMsg(Message message, Message newContent) {
         if (message == null || newContent == null) return;
         if (newContent.getEmbeds().size() > 0) {
-            if (!message.getGuild().getSelfMember().hasPermission(message.getGuildChannel(), Permission.MESSAGE_EMBED_LINKS)) {
+            if (!hasPermission(message.getGuildChannel(), Permission.MESSAGE_EMBED_LINKS)) {
                 final StringBuilder mb = new StringBuilder()
                     .append(newContent.getContentRaw())
                     .append('\n');
@@ -265,104 +351,372 @@ public class MessageUtils {
      *     The configuration on how to send the message
      */
     public static void sendMsg(@Nonnull MessageConfig config) {
+        final Outgoing outgoing = prepare(config);
+
+        if (outgoing == null) {
+            return;
+        }
+
         final MessageChannel channel = config.getChannel();
-        final JDA jda = channel.getJDA();
-        // refresh the entity
-        final MessageChannel channelById = jda.getChannelById(MessageChannel.class, channel.getIdLong());
+        final List<MessageCreateData> messages = outgoing.messages;
+        final boolean canReply = outgoing.canReply;
+        final Consumer<? super Throwable> failureAction = config.getFailureAction();
+        final Consumer<? super Message> successAction = config.getSuccessAction();
+        final MessageQueue queue = messageQueue;
+        final int last = messages.size() - 1;
+
+        if (queue != null) {
+            for (int i = 0; i <= last; i++) {
+                queue.add(channel, messages.get(i), config, canReply, i == 0, i == last);
+            }
+
+            return;
+        }
+
+        // every chunk waits for the previous one so they arrive in order, the success action is called for each chunk
+        RestAction<Message> chain = createChunkAction(channel, messages.get(0), config, canReply, true, last == 0);
+
+        for (int i = 1; i <= last; i++) {
+            final int index = i;
+
+            chain = chain.flatMap((message) -> {
+                if (successAction != null) {
+                    successAction.accept(message);
+                }
+
+                return createChunkAction(channel, messages.get(index), config, canReply, false, index == last);
+            });
+        }
+
+        chain.queue(successAction, failureAction);
+    }
+
+    /**
+     * Sends a message based off the message config and returns a future that completes with every message that was
+     * sent, a long message that was split results in a message per chunk.<br/>
+     * The future completes with an empty list when the bot cannot talk in the channel. Messages sent this way skip the
+     * {@link #setMessageQueue(MessageQueue) message queue}, the success and failure actions of the config are still
+     * called.
+     *
+     * @param config
+     *     The configuration on how to send the message
+     *
+     * @return A future with the sent messages, cancelling it stops the chunks that were not sent yet
+     *
+     * @see #sendMsgAsync(MessageConfig, long, TimeUnit)
+     */
+    @Nonnull
+    public static CompletableFuture<List<Message>> sendMsgAsync(@Nonnull MessageConfig config) {
+        return sendMsgAsync(config, 0L, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Sends a message based off the message config and returns a future that completes with every message that was
+     * sent, a long message that was split results in a message per chunk.<br/>
+     * The future completes with an empty list when the bot cannot talk in the channel. Messages sent this way skip the
+     * {@link #setMessageQueue(MessageQueue) message queue}, the success and failure actions of the config are still
+     * called.
+     *
+     * @param config
+     *     The configuration on how to send the message
+     * @param timeout
+     *     How long the chunks may take to be sent, chunks that are still waiting on a rate limit after this time fail
+     *     with a {@link java.util.concurrent.TimeoutException TimeoutException}. {@code 0} means no timeout
+     * @param unit
+     *     The unit of the timeout
+     *
+     * @return A future with the sent messages, cancelling it stops the chunks that were not sent yet
+     *
+     * @see RestAction#deadline(long)
+     */
+    @Nonnull
+    public static CompletableFuture<List<Message>> sendMsgAsync(@Nonnull MessageConfig config, long timeout, @Nonnull TimeUnit unit) {
+        Checks.notNull(config, "config");
+        Checks.notNull(unit, "unit");
+        Checks.check(timeout >= 0L, "timeout may not be negative");
+
+        final CompletableFuture<List<Message>> result = new CompletableFuture<>();
+        final Outgoing outgoing;
+
+        try {
+            outgoing = prepare(config);
+        } catch (Exception e) {
+            result.completeExceptionally(e);
+            return result;
+        }
+
+        if (outgoing == null) {
+            result.complete(Collections.emptyList());
+            return result;
+        }
+
+        final long deadline = timeout == 0L ? 0L : System.currentTimeMillis() + unit.toMillis(timeout);
+        final AtomicReference<CompletableFuture<Message>> current = new AtomicReference<>();
+
+        result.whenComplete((messages, error) -> {
+            final CompletableFuture<Message> pending = current.get();
+
+            if (result.isCancelled() && pending != null) {
+                pending.cancel(false);
+            }
+        });
+
+        sendChunkAsync(config, outgoing, 0, new ArrayList<>(), deadline, current, result);
+
+        return result;
+    }
+
+    private static void sendChunkAsync(MessageConfig config, Outgoing outgoing, int index, List<Message> sent, long deadline,
+                                       AtomicReference<CompletableFuture<Message>> current, CompletableFuture<List<Message>> result) {
+        // cancelled by the caller, the remaining chunks are not sent
+        if (result.isDone()) {
+            return;
+        }
+
+        final int last = outgoing.messages.size() - 1;
+        final CompletableFuture<Message> future;
+
+        try {
+            final MessageCreateAction action = createChunkAction(
+                config.getChannel(), outgoing.messages.get(index), config, outgoing.canReply, index == 0, index == last
+            );
+
+            if (deadline > 0L) {
+                //noinspection ResultOfMethodCallIgnored
+                action.deadline(deadline);
+            }
+
+            future = action.submit();
+        } catch (Exception e) {
+            failAsync(config, result, e);
+            return;
+        }
+
+        current.set(future);
+
+        // the caller may have cancelled while the chunk was being submitted
+        if (result.isDone()) {
+            future.cancel(false);
+            return;
+        }
+
+        future.whenComplete((message, error) -> {
+            if (error != null) {
+                failAsync(config, result, error);
+                return;
+            }
 
-        if (channelById == null) {
-            throw new IllegalArgumentException("Channel does not seem to exist on JDA#getTextChannelById???");
+            sent.add(message);
+            acceptAsync(config.getSuccessAction(), message);
+
+            if (index == last) {
+                result.complete(Collections.unmodifiableList(sent));
+            } else {
+                sendChunkAsync(config, outgoing, index + 1, sent, deadline, current, result);
+            }
+        });
+    }
+
+    private static void failAsync(MessageConfig config, CompletableFuture<List<Message>> result, Throwable error) {
+        // a cancelled send is not a failure of the message
+        if (result.isDone()) {
+            return;
         }
 
-        // we cannot talk here
-        if (!channelById.canTalk()) {
+        acceptAsync(config.getFailureAction(), error);
+        result.completeExceptionally(error);
+    }
+
+    private static <T> void acceptAsync(@Nullable Consumer<? super T> consumer, T value) {
+        if (consumer == null) {
             return;
         }
 
+        try {
+            consumer.accept(value);
+        } catch (Exception e) {
+            LOGGER.error("Callback of an async message threw an exception", e);
+        }
+    }
+
+    /**
+     * Checks the permissions for a config and builds the messages to send
+     *
+     * @return the messages and whether they can reply, or {@code null} when there is nothing to send
+     */
+    @Nullable
+    private static Outgoing prepare(MessageConfig config) {
+        final MessageChannel channel = config.getChannel();
+        final PermissionCache cache = permissionCache;
         boolean canReply = true;
         final MessageCreateBuilder messageBuilder = config.getMessageBuilder();
         final List<EmbedBuilder> embeds = config.getEmbeds();
 
-        if (channelById instanceof GuildMessageChannel) {
-            final GuildMessageChannel chan = (GuildMessageChannel) channelById;
-            final Guild guild = jda.getGuildById(chan.getGuild().getIdLong());
+        if (cache != null && channel instanceof GuildMessageChannel) {
+            final long permissions = cache.getSnapshot((GuildMessageChannel) channel);
 
-            if (guild == null) {
-                throw new IllegalArgumentException("Guild does not seem to exist on JDA#getGuildById???");
+            // we cannot talk here
+            if (!PermissionCache.canTalk(permissions)) {
+                return null;
             }
 
-            final Member selfMember = guild.getSelfMember();
-
-            if (!embeds.isEmpty() && selfMember.hasPermission(chan, Permission.MESSAGE_EMBED_LINKS)) {
+            if (!embeds.isEmpty() && PermissionCache.hasPermission(permissions, Permission.MESSAGE_EMBED_LINKS)) {
                 messageBuilder.setEmbeds(
                     embeds.stream().map(EmbedBuilder::build).collect(Collectors.toList())
                 );
+            }
+
+            canReply = PermissionCache.hasPermission(permissions, Permission.MESSAGE_HISTORY);
+        } else {
+            final JDA jda = channel.getJDA();
+            // refresh the entity
+            final MessageChannel channelById = jda.getChannelById(MessageChannel.class, channel.getIdLong());
+
+            if (channelById == null) {
+                throw new IllegalArgumentException("Channel does not seem to exist on JDA#getTextChannelById???");
+            }
+
+            // we cannot talk here
+            if (!channelById.canTalk()) {
+                return null;
+            }
 
-                // TODO: keep the text transformer?
-                /*if (guild.getSelfMember().hasPermission(channelById, Permission.MESSAGE_EMBED_LINKS)) {
+            if (channelById instanceof GuildMessageChannel) {
+                final GuildMessageChannel chan = (GuildMessageChannel) channelById;
+                final Guild guild = jda.getGuildById(chan.getGuild().getIdLong());
+
+                if (guild == null) {
+                    throw new IllegalArgumentException("Guild does not seem to exist on JDA#getGuildById???");
+                }
+
+                final Member selfMember = guild.getSelfMember();
+
+                if (!embeds.isEmpty() && selfMember.hasPermission(chan, Permission.MESSAGE_EMBED_LINKS)) {
                     messageBuilder.setEmbeds(
                         embeds.stream().map(EmbedBuilder::build).collect(Collectors.toList())
                     );
-                } else {
-                    messageBuilder.append(
-                        embedToMessage(embeds.get(0).build())
-                    );
-                }*/
+
+                    // TODO: keep the text transformer?
+                    /*if (guild.getSelfMember().hasPermission(channelById, Permission.MESSAGE_EMBED_LINKS)) {
+                        messageBuilder.setEmbeds(
+                            embeds.stream().map(EmbedBuilder::build).collect(Collectors.toList())
+                        );
+                    } else {
+                        messageBuilder.append(
+                            embedToMessage(embeds.get(0).build())
+                        );
+                    }*/
+                }
+
+                canReply = selfMember.hasPermission(chan, Permission.MESSAGE_HISTORY);
+            } else {
+                messageBuilder.setEmbeds(
+                    embeds.stream().map(EmbedBuilder::build).collect(Collectors.toList())
+                );
             }
+        }
 
-            canReply = selfMember.hasPermission(chan, Permission.MESSAGE_HISTORY);
-        } else {
-            messageBuilder.setEmbeds(
-                embeds.stream().map(EmbedBuilder::build).collect(Collectors.toList())
-            );
+        final String content = config.getContent();
+
+        if (messageBuilder.isEmpty() && content.isEmpty()) {
+            return null;
         }
 
-        if (messageBuilder.isEmpty()) {
-            return;
+        // if the message is small enough we can just send it
+        if (content.length() <= Message.MAX_CONTENT_LENGTH) {
+            return new Outgoing(Collections.singletonList(messageBuilder.build()), canReply);
         }
 
-        final Consumer<? super Throwable> failureAction = config.getFailureAction();
-        final Consumer<? super Message> successAction = config.getSuccessAction();
-        final Consumer<MessageCreateAction> actionConfig = config.getActionConfig();
-        final boolean finalCanReply = canReply; // fuck java 8 :(
+        final List<MessageCreateData> messages = createChunks(messageBuilder, MessageSplitter.split(content));
 
-        // if the message is small enough we can just send it
-        if (messageBuilder.getContent().length() <= Message.MAX_CONTENT_LENGTH) {
-            final MessageCreateAction messageAction = channel.sendMessage(messageBuilder.build());
+        return messages.isEmpty() ? null : new Outgoing(messages, canReply);
+    }
 
-            if (config.getReplyToId() > 0 && finalCanReply) {
-                //noinspection ResultOfMethodCallIgnored
-                messageAction.setMessageReference(config.getReplyToId())
-                    .mentionRepliedUser(config.isMentionRepliedUser());
-            }
+    private static boolean hasPermission(GuildChannel channel, Permission... permissions) {
+        final PermissionCache cache = permissionCache;
+
+        if (cache != null) {
+            return cache.hasPermission(channel, permissions);
+        }
+
+        return channel.getGuild().getSelfMember().hasPermission(channel, permissions);
+    }
+
+    private static void addReaction(Message message, Emoji emoji) {
+        final ReactionDispatcher dispatcher = reactionDispatcher;
 
-            actionConfig.accept(messageAction);
-            messageAction.queue(successAction, failureAction);
+        if (dispatcher != null) {
+            dispatcher.addReaction(message, emoji);
             return;
         }
 
-        // TODO:
-        /*List<String> messages = SplitUtil.split(
-            someLargeString,  // input string of arbitrary length
-            2000,             // the split limit, can be arbitrary (>0)
-            true,             // whether to trim the strings (empty will be discarded)
-            Strategy.NEWLINE, // split on '\n' characters if possible
-            Strategy.ANYWHERE // otherwise split on the limit
-        );*/
-
-        /*messageBuilder.buildAll(SplitPolicy.SPACE, SplitPolicy.NEWLINE).forEach(
-            (message) -> {
-                final MessageCreateAction messageAction = channel.sendMessage(message);
-
-                if (config.getReplyToId() > 0 && finalCanReply) {
-                    //noinspection ResultOfMethodCallIgnored
-                    messageAction.setMessageReference(config.getReplyToId())
-                        .mentionRepliedUser(config.isMentionRepliedUser());
-                }
+        message.addReaction(emoji).queue(null, (ignored) -> {});
+    }
 
-                actionConfig.accept(messageAction);
-                messageAction.queue(successAction, failureAction);
-            }
-        );*/
+    private static List<MessageCreateData> createChunks(MessageCreateBuilder messageBuilder, List<String> splitContent) {
+        // discord does not accept messages that are only whitespace
+        final List<String> chunks = splitContent.stream()
+            .filter((chunk) -> !chunk.trim().isEmpty())
+            .collect(Collectors.toList());
+
+        if (chunks.isEmpty()) {
+            messageBuilder.setContent(null);
+
+            return messageBuilder.isEmpty() ? Collections.emptyList() : Collections.singletonList(messageBuilder.build());
+        }
+
+        final List<MessageCreateData> messages = new ArrayList<>(chunks.size());
+        final int last = chunks.size() - 1;
+
+        for (int i = 0; i < last; i++) {
+            messages.add(
+                new MessageCreateBuilder()
+                    .setContent(chunks.get(i))
+                    .setAllowedMentions(messageBuilder.getAllowedMentions())
+                    .mentionUsers(messageBuilder.getMentionedUsers())
+                    .mentionRoles(messageBuilder.getMentionedRoles())
+                    .setSuppressEmbeds(messageBuilder.isSuppressEmbeds())
+                    .build()
+            );
+        }
+
+        // the embeds, files and components go under the last chunk
+        messages.add(messageBuilder.setContent(chunks.get(last)).build());
+
+        return messages;
+    }
+
+    private static MessageCreateAction createChunkAction(MessageChannel channel, MessageCreateData data, MessageConfig config,
+                                                         boolean canReply, boolean first, boolean last) {
+        final MessageCreateAction messageAction = channel.sendMessage(data);
+
+        configureAction(messageAction, config, canReply, first, last);
+
+        return messageAction;
+    }
+
+    /**
+     * Applies the reply to the first message of a config and the action config to the last one
+     */
+    static void configureAction(MessageCreateAction messageAction, MessageConfig config, boolean canReply, boolean first, boolean last) {
+        if (first && config.getReplyToId() > 0 && canReply) {
+            //noinspection ResultOfMethodCallIgnored
+            messageAction.setMessageReference(config.getReplyToId())
+                .mentionRepliedUser(config.isMentionRepliedUser());
+        }
+
+        if (last) {
+            config.getActionConfig().accept(messageAction);
+        }
+    }
+
+    private static class Outgoing {
+        private final List<MessageCreateData> messages;
+        private final boolean canReply;
+
+        private Outgoing(List<MessageCreateData> messages, boolean canReply) {
+            this.messages = messages;
+            this.canReply = canReply;
+        }
     }
 }
@@ -0,0 +1,248 @@
+/*
+ *    Copyright 2026 Duncan "duncte123" Sterken
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package me.duncte123.botcommons.messaging;
+
+import net.dv8tion.jda.api.Permission;
+import net.dv8tion.jda.api.entities.Member;
+import net.dv8tion.jda.api.entities.channel.middleman.GuildChannel;
+import net.dv8tion.jda.api.entities.channel.middleman.GuildMessageChannel;
+import net.dv8tion.jda.api.events.GenericEvent;
+import net.dv8tion.jda.api.events.channel.ChannelDeleteEvent;
+import net.dv8tion.jda.api.events.channel.update.GenericChannelUpdateEvent;
+import net.dv8tion.jda.api.events.guild.GuildLeaveEvent;
+import net.dv8tion.jda.api.events.guild.member.GenericGuildMemberEvent;
+import net.dv8tion.jda.api.events.guild.override.GenericPermissionOverrideEvent;
+import net.dv8tion.jda.api.events.guild.update.GuildUpdateOwnerEvent;
+import net.dv8tion.jda.api.events.role.RoleDeleteEvent;
+import net.dv8tion.jda.api.events.role.update.RoleUpdatePermissionsEvent;
+import net.dv8tion.jda.api.events.session.SessionRecreateEvent;
+import net.dv8tion.jda.api.hooks.EventListener;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caches the permissions of the bot that {@link MessageUtils} checks for every channel, so sending a message only
+ * tests a few bits instead of resolving the guild and computing the permissions of the self member every time.<br/>
+ * The cache is kept up to date with the events of JDA, it <b>must</b> be registered as event listener on every
+ * {@link net.dv8tion.jda.api.JDA JDA} instance or shard manager it is used for. Snapshots are dropped when roles,
+ * permission overrides, the roles of the bot, the owner of the guild or a channel itself change.
+ *
+ * <pre>{@code
+ * final PermissionCache cache = new PermissionCache();
+ *
+ * shardManager.addEventListener(cache);
+ * MessageUtils.setPermissionCache(cache);
+ * }</pre>
+ *
+ * @see MessageUtils#setPermissionCache(PermissionCache)
+ */
+public class PermissionCache implements EventListener {
+    /**
+     * The permissions that are kept in a snapshot, checking other permissions always uses the live permissions
+     */
+    public static final EnumSet<Permission> CACHED_PERMISSIONS = EnumSet.of(
+        Permission.VIEW_CHANNEL,
+        Permission.MESSAGE_SEND,
+        Permission.MESSAGE_EMBED_LINKS,
+        Permission.MESSAGE_HISTORY,
+        Permission.MESSAGE_ADD_REACTION
+    );
+
+    private static final long CACHED_MASK = Permission.getRaw(CACHED_PERMISSIONS);
+    // not a discord permission, set when MessageChannel#canTalk was true for the channel
+    private static final long CAN_TALK = 1L << 63;
+
+    private final Map<Long, Snapshot> snapshots = new ConcurrentHashMap<>();
+    // changes on every invalidation, snapshots computed during an invalidation are not kept
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * Returns the cached permissions of the bot in a channel, the permissions are computed when the channel is not
+     * cached yet
+     *
+     * @param channel
+     *     The channel to get the permissions for
+     *
+     * @return The raw permissions of {@link #CACHED_PERMISSIONS} the bot has in the channel
+     *
+     * @see Permission#getPermissions(long)
+     */
+    public long getPermissions(@NotNull GuildChannel channel) {
+        return this.getSnapshot(channel) & CACHED_MASK;
+    }
+
+    /**
+     * Returns if the bot has all the given permissions in a channel
+     *
+     * @param channel
+     *     The channel to check the permissions in
+     * @param permissions
+     *     The permissions to check
+     *
+     * @return true if the bot has all the permissions
+     */
+    public boolean hasPermission(@NotNull GuildChannel channel, @NotNull Permission... permissions) {
+        long raw = 0L;
+
+        for (final Permission permission : permissions) {
+            if (!CACHED_PERMISSIONS.contains(permission)) {
+                return channel.getGuild().getSelfMember().hasPermission(channel, permissions);
+            }
+
+            raw |= permission.getRawValue();
+        }
+
+        return (this.getSnapshot(channel) & raw) == raw;
+    }
+
+    /**
+     * Returns if the bot can send messages in a channel, this is the cached result of
+     * {@link GuildMessageChannel#canTalk()}
+     *
+     * @param channel
+     *     The channel to check
+     *
+     * @return true if the bot can send messages in the channel
+     */
+    public boolean canTalk(@NotNull GuildMessageChannel channel) {
+        return canTalk(this.getSnapshot(channel));
+    }
+
+    /**
+     * Drops the snapshot of a channel
+     *
+     * @param channelId
+     *     The id of the channel
+     */
+    public void invalidate(long channelId) {
+        this.generation.incrementAndGet();
+        this.snapshots.remove(channelId);
+    }
+
+    /**
+     * Drops the snapshots of every channel in a guild
+     *
+     * @param guildId
+     *     The id of the guild
+     */
+    public void invalidateGuild(long guildId) {
+        this.generation.incrementAndGet();
+        this.snapshots.values().removeIf((snapshot) -> snapshot.guildId == guildId);
+    }
+
+    /**
+     * Drops all snapshots
+     */
+    public void clear() {
+        this.generation.incrementAndGet();
+        this.snapshots.clear();
+    }
+
+    /**
+     * Returns the amount of channels that have a snapshot
+     *
+     * @return the amount of cached channels
+     */
+    public int size() {
+        return this.snapshots.size();
+    }
+
+    @Override
+    public void onEvent(@NotNull GenericEvent event) {
+        if (event instanceof RoleUpdatePermissionsEvent) {
+            this.invalidateGuild(((RoleUpdatePermissionsEvent) event).getGuild().getIdLong());
+        } else if (event instanceof RoleDeleteEvent) {
+            this.invalidateGuild(((RoleDeleteEvent) event).getGuild().getIdLong());
+        } else if (event instanceof GenericPermissionOverrideEvent) {
+            // synced channels follow the overrides of their category and threads follow their parent channel
+            this.invalidateGuild(((GenericPermissionOverrideEvent) event).getGuild().getIdLong());
+        } else if (event instanceof GenericGuildMemberEvent) {
+            final GenericGuildMemberEvent memberEvent = (GenericGuildMemberEvent) event;
+
+            if (isSelf(memberEvent.getMember())) {
+                this.invalidateGuild(memberEvent.getGuild().getIdLong());
+            }
+        } else if (event instanceof GenericChannelUpdateEvent) {
+            this.invalidate(((GenericChannelUpdateEvent<?>) event).getChannel().getIdLong());
+        } else if (event instanceof ChannelDeleteEvent) {
+            this.invalidate(((ChannelDeleteEvent) event).getChannel().getIdLong());
+        } else if (event instanceof GuildUpdateOwnerEvent) {
+            this.invalidateGuild(((GuildUpdateOwnerEvent) event).getGuild().getIdLong());
+        } else if (event instanceof GuildLeaveEvent) {
+            this.invalidateGuild(((GuildLeaveEvent) event).getGuild().getIdLong());
+        } else if (event instanceof SessionRecreateEvent) {
+            // events were missed while disconnected
+            this.clear();
+        }
+    }
+
+    static boolean canTalk(long snapshot) {
+        return (snapshot & CAN_TALK) != 0L;
+    }
+
+    static boolean hasPermission(long snapshot, Permission permission) {
+        return (snapshot & permission.getRawValue()) != 0L;
+    }
+
+    long getSnapshot(GuildChannel channel) {
+        final Snapshot cached = this.snapshots.get(channel.getIdLong());
+
+        if (cached != null) {
+            return cached.permissions;
+        }
+
+        final long generation = this.generation.get();
+        final Snapshot snapshot = new Snapshot(channel.getGuild().getIdLong(), computePermissions(channel));
+
+        this.snapshots.put(channel.getIdLong(), snapshot);
+
+        if (this.generation.get() != generation) {
+            this.snapshots.remove(channel.getIdLong(), snapshot);
+        }
+
+        return snapshot.permissions;
+    }
+
+    private static long computePermissions(GuildChannel channel) {
+        final Member selfMember = channel.getGuild().getSelfMember();
+        long permissions = Permission.getRaw(selfMember.getPermissions(channel)) & CACHED_MASK;
+
+        if (channel instanceof GuildMessageChannel && ((GuildMessageChannel) channel).canTalk()) {
+            permissions |= CAN_TALK;
+        }
+
+        return permissions;
+    }
+
+    private static boolean isSelf(Member member) {
+        return member.getIdLong() == member.getJDA().getSelfUser().getIdLong();
+    }
+
+    private static final class Snapshot {
+        private final long guildId;
+        private final long permissions;
+
+        private Snapshot(long guildId, long permissions) {
+            this.guildId = guildId;
+            this.permissions = permissions;
+        }
+    }
+}
@@ -0,0 +1,244 @@
+/*
+ *    Copyright 2026 Duncan "duncte123" Sterken
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package me.duncte123.botcommons.messaging;
+
+import net.dv8tion.jda.api.entities.Message;
+import net.dv8tion.jda.api.entities.channel.middleman.MessageChannel;
+import net.dv8tion.jda.api.entities.emoji.Emoji;
+import net.dv8tion.jda.internal.utils.Checks;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Queues the reactions that {@link MessageUtils#sendError(Message)} and {@link MessageUtils#sendSuccess(Message)} add
+ * per channel and sends them one at a time, so a burst of commands does not use up the reaction rate limit of a
+ * channel and delay the actual replies.<br/>
+ * Adding the same reaction to the same message twice while it is still queued only sends it once and reactions that
+ * waited longer than the max age are dropped instead of being sent late.
+ *
+ * @see MessageUtils#setReactionDispatcher(ReactionDispatcher)
+ */
+public class ReactionDispatcher {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReactionDispatcher.class);
+    private static final ScheduledExecutorService SCHEDULER = Executors.newSingleThreadScheduledExecutor((runnable) -> {
+        final Thread thread = new Thread(runnable, "botcommons-reaction-dispatcher");
+
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final ConcurrentMap<Long, ChannelQueue> channels = new ConcurrentHashMap<>();
+    private final AtomicLong dropped = new AtomicLong();
+    private final long intervalNanos;
+    private final long maxAgeNanos;
+    private final LongSupplier clock;
+
+    /**
+     * Creates a dispatcher that sends one reaction per channel every 250 milliseconds and drops reactions that waited
+     * longer than 5 seconds
+     */
+    public ReactionDispatcher() {
+        this(250L, 5000L, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Creates a dispatcher
+     *
+     * @param interval
+     *     the minimum time between two reactions in the same channel
+     * @param maxAge
+     *     how long a reaction may wait in the queue before it is dropped
+     * @param unit
+     *     the unit of the interval and max age
+     */
+    public ReactionDispatcher(long interval, long maxAge, TimeUnit unit) {
+        this(interval, maxAge, unit, System::nanoTime);
+    }
+
+    ReactionDispatcher(long interval, long maxAge, TimeUnit unit, LongSupplier clock) {
+        Checks.notNull(unit, "unit");
+        Checks.check(interval >= 0L, "interval may not be negative");
+        Checks.check(maxAge > 0L, "maxAge must be positive");
+
+        this.intervalNanos = unit.toNanos(interval);
+        this.maxAgeNanos = unit.toNanos(maxAge);
+        this.clock = clock;
+    }
+
+    /**
+     * Queues a reaction on a message
+     *
+     * @param message
+     *     the message to react to
+     * @param emoji
+     *     the reaction to add
+     *
+     * @return {@code false} if the same reaction on this message was already queued
+     */
+    public boolean addReaction(Message message, Emoji emoji) {
+        Checks.notNull(message, "message");
+
+        return this.add(message.getChannel(), message.getIdLong(), emoji);
+    }
+
+    /**
+     * Returns the amount of reactions that are waiting to be sent
+     *
+     * @return the amount of queued reactions over all channels
+     */
+    public int getPendingCount() {
+        return this.channels.values().stream().mapToInt((queue) -> queue.size).sum();
+    }
+
+    /**
+     * Returns the amount of reactions that are waiting to be sent in a channel
+     *
+     * @param channelId
+     *     the id of the channel
+     *
+     * @return the amount of queued reactions in the channel
+     */
+    public int getPendingCount(long channelId) {
+        final ChannelQueue queue = this.channels.get(channelId);
+
+        return queue == null ? 0 : queue.size;
+    }
+
+    /**
+     * Returns the amount of reactions that were dropped because they waited longer than the max age
+     *
+     * @return the amount of dropped reactions
+     */
+    public long getDroppedCount() {
+        return this.dropped.get();
+    }
+
+    boolean add(MessageChannel channel, long messageId, Emoji emoji) {
+        Checks.notNull(channel, "channel");
+        Checks.notNull(emoji, "emoji");
+
+        final String key = messageId + ":" + emoji.getAsReactionCode();
+        final Entry entry = new Entry(messageId, emoji, this.clock.getAsLong() + this.maxAgeNanos);
+        final long channelId = channel.getIdLong();
+        final boolean[] added = new boolean[1];
+
+        this.channels.compute(channelId, (id, queue) -> {
+            final ChannelQueue current = queue == null ? new ChannelQueue(channel) : queue;
+
+            added[0] = current.entries.putIfAbsent(key, entry) == null;
+            current.size = current.entries.size();
+
+            // a channel is in the map for as long as its queue is being drained
+            if (queue == null) {
+                SCHEDULER.execute(() -> this.drain(channelId));
+            }
+
+            return current;
+        });
+
+        return added[0];
+    }
+
+    private void drain(long channelId) {
+        final ChannelQueue[] holder = new ChannelQueue[1];
+        final Entry[] next = new Entry[1];
+
+        this.channels.computeIfPresent(channelId, (id, queue) -> {
+            final long now = this.clock.getAsLong();
+            final Iterator<Entry> iterator = queue.entries.values().iterator();
+
+            while (iterator.hasNext()) {
+                final Entry entry = iterator.next();
+
+                iterator.remove();
+
+                if (now - entry.deadlineNanos <= 0L) {
+                    next[0] = entry;
+                    break;
+                }
+
+                this.dropped.incrementAndGet();
+                LOGGER.debug("Dropped stale reaction {} on message {}", entry.emoji.getAsReactionCode(), entry.messageId);
+            }
+
+            queue.size = queue.entries.size();
+
+            if (next[0] == null) {
+                return null;
+            }
+
+            holder[0] = queue;
+            return queue;
+        });
+
+        if (next[0] == null) {
+            return;
+        }
+
+        final long started = this.clock.getAsLong();
+
+        try {
+            holder[0].channel.addReactionById(next[0].messageId, next[0].emoji).queue(
+                (ignored) -> this.scheduleDrain(channelId, started),
+                (ignored) -> this.scheduleDrain(channelId, started)
+            );
+        } catch (Exception e) {
+            LOGGER.debug("Could not add reaction to message {}", next[0].messageId, e);
+            this.scheduleDrain(channelId, started);
+        }
+    }
+
+    private void scheduleDrain(long channelId, long started) {
+        final long delay = Math.max(0L, this.intervalNanos - (this.clock.getAsLong() - started));
+
+        SCHEDULER.schedule(() -> this.drain(channelId), delay, TimeUnit.NANOSECONDS);
+    }
+
+    private static class ChannelQueue {
+        private final MessageChannel channel;
+        // only changed inside of compute on the channel map, keyed on message id and reaction
+        private final Map<String, Entry> entries = new LinkedHashMap<>();
+        private volatile int size;
+
+        private ChannelQueue(MessageChannel channel) {
+            this.channel = channel;
+        }
+    }
+
+    private static class Entry {
+        private final long messageId;
+        private final Emoji emoji;
+        private final long deadlineNanos;
+
+        private Entry(long messageId, Emoji emoji, long deadlineNanos) {
+            this.messageId = messageId;
+            this.emoji = emoji;
+            this.deadlineNanos = deadlineNanos;
+        }
+    }
+}
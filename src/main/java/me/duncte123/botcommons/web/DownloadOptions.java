@@ -0,0 +1,77 @@
+/*
+ *    Copyright 2026 Duncan "duncte123" Sterken
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package me.duncte123.botcommons.web;
+
+/**
+ * Options for {@link WebUtils#downloadTo(String, java.nio.file.Path, DownloadOptions)}
+ */
+public class DownloadOptions {
+    private long maxSize = -1L;
+    private boolean resume = false;
+
+    /**
+     * Returns the maximum size of the downloaded file
+     *
+     * @return the maximum size in bytes, {@code -1} when there is no limit
+     */
+    public long getMaxSize() {
+        return this.maxSize;
+    }
+
+    /**
+     * Sets the maximum size of the downloaded file, the download fails when the body is larger than this. Bodies that
+     * announce a larger {@code Content-Length} are rejected before the file is opened, the file is deleted when the
+     * limit is reached while writing.
+     *
+     * @param maxSize
+     *     the maximum size in bytes, {@code -1} for no limit (the default)
+     *
+     * @return The options instance, useful for chaining
+     */
+    public DownloadOptions setMaxSize(long maxSize) {
+        if (maxSize < -1L) {
+            throw new IllegalArgumentException("maxSize must be -1 or positive");
+        }
+
+        this.maxSize = maxSize;
+        return this;
+    }
+
+    /**
+     * Returns if downloads continue where an earlier download stopped
+     *
+     * @return true if resuming is enabled
+     */
+    public boolean isResume() {
+        return this.resume;
+    }
+
+    /**
+     * When enabled and the target file already exists only the missing bytes are requested with a {@code Range}
+     * header, servers that ignore the header send the full file which then replaces the existing file.<br/>
+     * Failed downloads keep the partial file when this is enabled so they can be resumed later.
+     *
+     * @param resume
+     *     true to resume existing files, disabled by default
+     *
+     * @return The options instance, useful for chaining
+     */
+    public DownloadOptions setResume(boolean resume) {
+        this.resume = resume;
+        return this;
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ *    Copyright 2026 Duncan "duncte123" Sterken
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package me.duncte123.botcommons.web;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * The result of {@link WebUtils#downloadTo(String, Path)}
+ */
+public class DownloadResult {
+    private final Path path;
+    private final long bytesWritten;
+    private final long size;
+    private final boolean resumed;
+    private final Duration elapsed;
+
+    DownloadResult(Path path, long bytesWritten, long size, boolean resumed, Duration elapsed) {
+        this.path = path;
+        this.bytesWritten = bytesWritten;
+        this.size = size;
+        this.resumed = resumed;
+        this.elapsed = elapsed;
+    }
+
+    /**
+     * Returns the file that was written
+     *
+     * @return the path of the downloaded file
+     */
+    public Path getPath() {
+        return this.path;
+    }
+
+    /**
+     * Returns how many bytes this download wrote, this is less than {@link #getSize()} when the download was resumed
+     *
+     * @return the amount of bytes that were written
+     */
+    public long getBytesWritten() {
+        return this.bytesWritten;
+    }
+
+    /**
+     * Returns the size of the file after the download
+     *
+     * @return the size of the file in bytes
+     */
+    public long getSize() {
+        return this.size;
+    }
+
+    /**
+     * Returns if the download continued an existing file
+     *
+     * @return true if only the missing part of the file was downloaded
+     */
+    public boolean isResumed() {
+        return this.resumed;
+    }
+
+    /**
+     * Returns the time between sending the request and writing the last byte
+     *
+     * @return how long the download took
+     */
+    public Duration getElapsed() {
+        return this.elapsed;
+    }
+
+    @Override
+    public String toString() {
+        return "DownloadResult(" + this.path + ", " + this.bytesWritten + " bytes in " + this.elapsed.toMillis() + "ms" +
+            (this.resumed ? ", resumed" : "") + ')';
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ *    Copyright 2026 Duncan "duncte123" Sterken
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package me.duncte123.botcommons.web;
+
+import com.github.natanbc.reliqua.request.RequestException;
+import okhttp3.Request;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Turns a {@link ResponseError} into the exception that fails the request.<br/>
+ * Pass it as {@link RequestBuilderFunction} with {@link #forRequest(ErrorMapper)} to the getters of {@link WebUtils},
+ * requests without a mapper use {@link #DEFAULT}.
+ *
+ * <pre>{@code
+ * WebUtils.ins.getJSONObject(url, null, ErrorMapper.forRequest(
+ *     (error, callStack) -> new ApiException(error.getJson(), callStack)
+ * ));
+ * }</pre>
+ */
+@FunctionalInterface
+public interface ErrorMapper {
+    /**
+     * The maximum amount of body bytes that are read for an error by default
+     */
+    int DEFAULT_MAX_BODY_SIZE = 8 * 1024;
+
+    /**
+     * Fails requests with a {@link HttpStatusException}
+     */
+    ErrorMapper DEFAULT = HttpStatusException::new;
+
+    /**
+     * Creates the exception for an error, returning {@code null} or throwing falls back to {@link #DEFAULT}
+     *
+     * @param error
+     *     the error of the response
+     * @param callStack
+     *     the stack of the code that created the request
+     *
+     * @return the exception that fails the request
+     */
+    RequestException map(ResponseError error, StackTraceElement[] callStack);
+
+    /**
+     * Uses a mapper for a single request, reading at most {@link #DEFAULT_MAX_BODY_SIZE} bytes of the body
+     *
+     * @param mapper
+     *     the mapper to use
+     *
+     * @return a function that sets the mapper on the request
+     */
+    static RequestBuilderFunction forRequest(ErrorMapper mapper) {
+        return forRequest(mapper, DEFAULT_MAX_BODY_SIZE);
+    }
+
+    /**
+     * Uses a mapper for a single request
+     *
+     * @param mapper
+     *     the mapper to use
+     * @param maxBodySize
+     *     the maximum amount of body bytes that are read, {@code 0} to never read the body
+     *
+     * @return a function that sets the mapper on the request
+     */
+    static RequestBuilderFunction forRequest(ErrorMapper mapper, int maxBodySize) {
+        return new Tag(mapper, maxBodySize);
+    }
+
+    /**
+     * The mapper of a request, kept as tag on the request
+     */
+    final class Tag implements RequestBuilderFunction {
+        static final Tag DEFAULT = new Tag(ErrorMapper.DEFAULT, DEFAULT_MAX_BODY_SIZE);
+
+        private final ErrorMapper mapper;
+        private final int maxBodySize;
+
+        private Tag(ErrorMapper mapper, int maxBodySize) {
+            if (mapper == null) {
+                throw new IllegalArgumentException("mapper may not be null");
+            }
+
+            if (maxBodySize < 0) {
+                throw new IllegalArgumentException("maxBodySize may not be negative");
+            }
+
+            this.mapper = mapper;
+            this.maxBodySize = maxBodySize;
+        }
+
+        static Tag of(Request request) {
+            final Tag tag = request.tag(Tag.class);
+
+            return tag == null ? DEFAULT : tag;
+        }
+
+        /**
+         * Returns the mapper of the request
+         *
+         * @return the mapper of the request
+         */
+        public ErrorMapper getMapper() {
+            return this.mapper;
+        }
+
+        /**
+         * Returns the maximum amount of body bytes that are read
+         *
+         * @return the maximum body size
+         */
+        public int getMaxBodySize() {
+            return this.maxBodySize;
+        }
+
+        @NotNull
+        @Override
+        public Request.Builder apply(@NotNull Request.Builder builder) {
+            return builder.tag(Tag.class, this);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ *    Copyright 2026 Duncan "duncte123" Sterken
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package me.duncte123.botcommons.web;
+
+import com.github.natanbc.reliqua.request.RequestException;
+
+/**
+ * Thrown by the requests of {@link WebUtils} when the server responds with an unexpected status code
+ *
+ * @see ErrorMapper#DEFAULT
+ */
+public class HttpStatusException extends RequestException {
+    private static final long serialVersionUID = 1L;
+
+    private final transient ResponseError error;
+
+    public HttpStatusException(ResponseError error, StackTraceElement[] callStack) {
+        super(createMessage(error), callStack);
+        this.error = error;
+    }
+
+    /**
+     * Returns the error with the status, headers and body of the response
+     *
+     * @return the error of the response
+     */
+    public ResponseError getError() {
+        return this.error;
+    }
+
+    /**
+     * Returns the status code of the response
+     *
+     * @return the status code of the response
+     */
+    public int getStatus() {
+        return this.error.getStatus();
+    }
+
+    private static String createMessage(ResponseError error) {
+        final String body = error.getBody();
+
+        if (body.isEmpty()) {
+            return "Unexpected status code " + error.getStatus() + " (No body)";
+        }
+
+        return "Unexpected status code " + error.getStatus() + ": " + body + (error.isBodyTruncated() ? "..." : "");
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ *    Copyright 2026 Duncan "duncte123" Sterken
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package me.duncte123.botcommons.web;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectReader;
+import okhttp3.Response;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Reads the elements of a json array one by one while they arrive from the server, only the current element is kept
+ * in memory.<br/>
+ * The response stays open until the last element is read or until {@link #close()} is called, close this early to
+ * stop reading and drop the connection.
+ *
+ * @param <T>
+ *     The type of the elements in the array
+ *
+ * @see WebUtils#streamJSONArray(String, Class)
+ */
+public class JSONArrayIterator<T> implements Iterator<T>, Closeable {
+    private final Response response;
+    private final ObjectReader reader;
+    private final JsonParser parser;
+    private JsonToken nextToken;
+    private boolean closed;
+
+    /**
+     * Creates a new iterator for the array in the body of the response
+     *
+     * @param response
+     *     The response that has a json array as body
+     * @param reader
+     *     The reader that is configured for the element type, see {@link me.duncte123.botcommons.JSONHelper#readerFor(Class)}
+     *
+     * @throws IOException
+     *     When the body could not be read or does not start with a json array
+     */
+    public JSONArrayIterator(Response response, ObjectReader reader) throws IOException {
+        this.response = response;
+        this.reader = reader;
+        this.parser = reader.createParser(WebParserUtils.getInputStream(response));
+
+        final JsonToken first = this.parser.nextToken();
+
+        if (first != JsonToken.START_ARRAY) {
+            this.close();
+            throw new IOException("Expected the body to be a json array, but it started with " + first);
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (this.closed) {
+            return false;
+        }
+
+        if (this.nextToken == null) {
+            try {
+                this.nextToken = this.parser.nextToken();
+            } catch (IOException e) {
+                this.closeQuietly();
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        // null means the body ended without closing the array, we just stop there
+        if (this.nextToken == null || this.nextToken == JsonToken.END_ARRAY) {
+            this.closeQuietly();
+            return false;
+        }
+
+        return true;
+    }
+
+    @Override
+    public T next() {
+        if (!this.hasNext()) {
+            throw new NoSuchElementException();
+        }
+
+        this.nextToken = null;
+
+        try {
+            return this.reader.readValue(this.parser);
+        } catch (IOException e) {
+            this.closeQuietly();
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Returns a sequential stream of the remaining elements, closing the stream will also close this iterator
+     *
+     * @return a stream of the remaining elements
+     */
+    public Stream<T> stream() {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED), false)
+            .onClose(this::closeQuietly);
+    }
+
+    /**
+     * Returns true if this iterator has been closed, either by reading the last element or by calling {@link #close()}
+     *
+     * @return true if this iterator has been closed
+     */
+    public boolean isClosed() {
+        return this.closed;
+    }
+
+    /**
+     * Stops reading the array and closes the underlying response
+     *
+     * @throws IOException
+     *     When closing the parser fails
+     */
+    @Override
+    public void close() throws IOException {
+        if (this.closed) {
+            return;
+        }
+
+        this.closed = true;
+
+        try {
+            this.parser.close();
+        } finally {
+            this.response.close();
+        }
+    }
+
+    private void closeQuietly() {
+        try {
+            this.close();
+        } catch (IOException ignored) {
+        }
+    }
+}
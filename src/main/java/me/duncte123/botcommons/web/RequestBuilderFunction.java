@@ -19,7 +19,24 @@ package me.duncte123.botcommons.web;
 import okhttp3.Request;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.Objects;
+
 @FunctionalInterface
 public interface RequestBuilderFunction {
     @NotNull Request.Builder apply(@NotNull Request.Builder builder);
+
+    /**
+     * Combines this function with another one, the other function is applied after this one
+     *
+     * @param after
+     *     the function to apply after this one
+     *
+     * @return a function that applies both functions
+     */
+    @NotNull
+    default RequestBuilderFunction andThen(@NotNull RequestBuilderFunction after) {
+        Objects.requireNonNull(after, "after");
+
+        return (builder) -> after.apply(this.apply(builder));
+    }
 }
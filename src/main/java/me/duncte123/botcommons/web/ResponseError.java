@@ -0,0 +1,222 @@
+/*
+ *    Copyright 2026 Duncan "duncte123" Sterken
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package me.duncte123.botcommons.web;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import me.duncte123.botcommons.JSONHelper;
+import okhttp3.Headers;
+import okhttp3.HttpUrl;
+import okhttp3.MediaType;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.BufferedSource;
+import okio.ByteString;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A response with an unexpected status code. Only the first bytes of the body are kept and the body is only parsed
+ * as json when {@link #getJson()} is called, so failing requests stay cheap when an upstream is down.
+ *
+ * @see ErrorMapper
+ * @see HttpStatusException
+ */
+public final class ResponseError {
+    private final int status;
+    private final String message;
+    private final String method;
+    private final HttpUrl url;
+    private final Headers headers;
+    private final ByteString body;
+    private final Charset charset;
+    private final boolean truncated;
+    private volatile boolean jsonParsed = false;
+    private volatile JsonNode json = null;
+
+    private ResponseError(Response response, ByteString body, Charset charset, boolean truncated) {
+        this.status = response.code();
+        this.message = response.message();
+        this.method = response.request().method();
+        this.url = response.request().url();
+        this.headers = response.headers();
+        this.body = body;
+        this.charset = charset;
+        this.truncated = truncated;
+    }
+
+    /**
+     * Reads the error of a response, this never throws. When the body can't be read the error has an empty body.<br/>
+     * The response is closed afterwards, the rest of the body is never read.
+     *
+     * @param response
+     *     the response with the unexpected status code
+     * @param maxBodySize
+     *     the maximum amount of (decompressed) body bytes that are read
+     *
+     * @return the error of the response
+     */
+    public static ResponseError read(Response response, int maxBodySize) {
+        final ResponseBody body = response.body();
+
+        if (body == null) {
+            return new ResponseError(response, ByteString.EMPTY, StandardCharsets.UTF_8, false);
+        }
+
+        // closing releases the connection, even when the body was not read to the end
+        try (ResponseBody ignored = body) {
+            if (maxBodySize <= 0) {
+                return new ResponseError(response, ByteString.EMPTY, StandardCharsets.UTF_8, true);
+            }
+
+            final MediaType contentType = body.contentType();
+            final Charset charset = contentType == null ? StandardCharsets.UTF_8 : contentType.charset(StandardCharsets.UTF_8);
+
+            try {
+                final BufferedSource source = WebParserUtils.getSource(response);
+                // one extra byte tells if the body was cut off
+                final boolean truncated = source.request(maxBodySize + 1L);
+                final long size = Math.min(source.getBuffer().size(), maxBodySize);
+
+                return new ResponseError(response, source.getBuffer().readByteString(size), charset, truncated);
+            } catch (IOException | RuntimeException e) {
+                return new ResponseError(response, ByteString.EMPTY, charset, true);
+            }
+        }
+    }
+
+    /**
+     * Returns the status code of the response
+     *
+     * @return the status code of the response
+     */
+    public int getStatus() {
+        return this.status;
+    }
+
+    /**
+     * Returns the status message of the response, always empty for http/2
+     *
+     * @return the status message of the response
+     */
+    public String getMessage() {
+        return this.message;
+    }
+
+    /**
+     * Returns the method of the request
+     *
+     * @return the method of the request
+     */
+    public String getMethod() {
+        return this.method;
+    }
+
+    /**
+     * Returns the url of the request
+     *
+     * @return the url of the request
+     */
+    public HttpUrl getUrl() {
+        return this.url;
+    }
+
+    /**
+     * Returns the headers of the response
+     *
+     * @return the headers of the response
+     */
+    public Headers getHeaders() {
+        return this.headers;
+    }
+
+    /**
+     * Returns a header of the response
+     *
+     * @param name
+     *     the name of the header
+     *
+     * @return the last value of the header, or {@code null} when the response does not have the header
+     */
+    @Nullable
+    public String getHeader(String name) {
+        return this.headers.get(name);
+    }
+
+    /**
+     * Returns the raw bytes that were read from the body
+     *
+     * @return the (possibly truncated) body
+     */
+    public ByteString getBodyBytes() {
+        return this.body;
+    }
+
+    /**
+     * Returns the body that was read as text, using the charset of the {@code Content-Type} or utf-8
+     *
+     * @return the (possibly truncated) body
+     */
+    public String getBody() {
+        return this.body.string(this.charset);
+    }
+
+    /**
+     * Returns if the body was longer than the maximum size, or could not be read
+     *
+     * @return true when {@link #getBody()} is not the full body
+     */
+    public boolean isBodyTruncated() {
+        return this.truncated;
+    }
+
+    /**
+     * Parses the body as json on the first call, truncated bodies are never parsed
+     *
+     * @return the json of the body, or {@code null} when the body is not (complete) json
+     */
+    @Nullable
+    public JsonNode getJson() {
+        if (!this.jsonParsed) {
+            this.json = this.parseJson();
+            this.jsonParsed = true;
+        }
+
+        return this.json;
+    }
+
+    @Nullable
+    private JsonNode parseJson() {
+        if (this.truncated || this.body.size() == 0) {
+            return null;
+        }
+
+        try {
+            return JSONHelper.getTreeReader().readTree(this.body.toByteArray());
+        } catch (IOException ignored) {
+            return null;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "ResponseError(" + this.method + ' ' + this.url + ", status=" + this.status +
+            ", body=" + this.body.size() + (this.truncated ? "+" : "") + " bytes)";
+    }
+}
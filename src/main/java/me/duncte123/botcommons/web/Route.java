@@ -0,0 +1,79 @@
+/*
+ *    Copyright 2026 Duncan "duncte123" Sterken
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package me.duncte123.botcommons.web;
+
+import okhttp3.Request;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Objects;
+
+/**
+ * Names the route template of a request, like {@code GET /images/{id}}, so requests to the same endpoint with
+ * different urls can share a rate limit.<br/>
+ * Pass it as {@link RequestBuilderFunction} to the getters in {@link WebUtils}.
+ *
+ * @see me.duncte123.botcommons.web.ratelimit.ClientRateLimiter#setRouteLimit(String, me.duncte123.botcommons.web.ratelimit.RateLimit)
+ */
+public final class Route implements RequestBuilderFunction {
+    private final String template;
+
+    private Route(String template) {
+        this.template = template;
+    }
+
+    /**
+     * Creates a route for a template
+     *
+     * @param template
+     *     the template of the route, for example {@code GET /images/{id}}
+     *
+     * @return a route that can be applied to a request
+     */
+    public static Route of(@NotNull String template) {
+        return new Route(Objects.requireNonNull(template, "template"));
+    }
+
+    /**
+     * Returns the template of this route
+     *
+     * @return the template of this route
+     */
+    public String getTemplate() {
+        return this.template;
+    }
+
+    @NotNull
+    @Override
+    public Request.Builder apply(@NotNull Request.Builder builder) {
+        return builder.tag(Route.class, this);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Route && this.template.equals(((Route) o).template);
+    }
+
+    @Override
+    public int hashCode() {
+        return this.template.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "Route(" + this.template + ')';
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ *    Copyright 2026 Duncan "duncte123" Sterken
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package me.duncte123.botcommons.web;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Ends the page early once the maximum size is read or, in head-only mode, once the end of the head is found
+ */
+class ScrapeInputStream extends FilterInputStream {
+    private static final byte[] HEAD_END = "</head".getBytes();
+    private static final byte[] BODY_START = "<body".getBytes();
+
+    private final long maxBytes;
+    private final boolean headOnly;
+    private long read = 0L;
+    private int headEndMatched = 0;
+    private int bodyStartMatched = 0;
+    private boolean ended = false;
+
+    ScrapeInputStream(InputStream in, ScrapeOptions options) {
+        super(in);
+        this.maxBytes = options.getMaxBodySize() > 0L ? options.getMaxBodySize() : Long.MAX_VALUE;
+        this.headOnly = options.isHeadOnly();
+    }
+
+    @Override
+    public int read() throws IOException {
+        final byte[] single = new byte[1];
+        final int count = this.read(single, 0, 1);
+
+        return count == -1 ? -1 : single[0] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        if (this.ended || this.read >= this.maxBytes) {
+            return -1;
+        }
+
+        final int count = super.read(buffer, offset, (int) Math.min(length, this.maxBytes - this.read));
+
+        if (count == -1) {
+            return -1;
+        }
+
+        this.read += count;
+
+        if (!this.headOnly) {
+            return count;
+        }
+
+        for (int i = offset; i < offset + count; i++) {
+            final byte b = lowerCase(buffer[i]);
+
+            this.headEndMatched = advance(HEAD_END, this.headEndMatched, b);
+            this.bodyStartMatched = advance(BODY_START, this.bodyStartMatched, b);
+
+            if (this.headEndMatched == HEAD_END.length || this.bodyStartMatched == BODY_START.length) {
+                this.ended = true;
+                // the parser closes the open tag itself
+                return i - offset + 1;
+            }
+        }
+
+        return count;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        // skipping would hide bytes from the matcher
+        final byte[] buffer = new byte[(int) Math.min(n, 8192L)];
+        final int count = this.read(buffer, 0, buffer.length);
+
+        return Math.max(count, 0);
+    }
+
+    @Override
+    public int available() throws IOException {
+        return this.ended ? 0 : (int) Math.min(super.available(), this.maxBytes - this.read);
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    private static int advance(byte[] pattern, int matched, byte b) {
+        if (pattern[matched] == b) {
+            return matched + 1;
+        }
+
+        // every pattern starts with '<' which does not appear anywhere else in the pattern
+        return b == '<' ? 1 : 0;
+    }
+
+    private static byte lowerCase(byte b) {
+        return b >= 'A' && b <= 'Z' ? (byte) (b + ('a' - 'A')) : b;
+    }
+}
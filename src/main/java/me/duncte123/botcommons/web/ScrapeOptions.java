@@ -0,0 +1,75 @@
+/*
+ *    Copyright 2026 Duncan "duncte123" Sterken
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package me.duncte123.botcommons.web;
+
+/**
+ * Options for {@link WebUtils#scrapeWebPage(String, ScrapeOptions)}
+ */
+public class ScrapeOptions {
+    private long maxBodySize = 0L;
+    private boolean headOnly = false;
+
+    /**
+     * Returns the maximum amount of bytes that is read from the page
+     *
+     * @return the maximum body size, {@code 0} when there is no limit
+     */
+    public long getMaxBodySize() {
+        return this.maxBodySize;
+    }
+
+    /**
+     * Sets the maximum amount of (decompressed) bytes that is read from the page, the rest of the page is ignored in
+     * the same way as the {@code maxBodySize} of jsoup.
+     *
+     * @param maxBodySize
+     *     the maximum body size in bytes, {@code 0} for no limit (the default)
+     *
+     * @return The options instance, useful for chaining
+     */
+    public ScrapeOptions setMaxBodySize(long maxBodySize) {
+        if (maxBodySize < 0L) {
+            throw new IllegalArgumentException("maxBodySize may not be negative");
+        }
+
+        this.maxBodySize = maxBodySize;
+        return this;
+    }
+
+    /**
+     * Returns if only the {@code <head>} of the page is read
+     *
+     * @return true if reading stops at the end of the head
+     */
+    public boolean isHeadOnly() {
+        return this.headOnly;
+    }
+
+    /**
+     * Stops reading the page at {@code </head>} or {@code <body}, the document only contains the title, meta tags
+     * (like OpenGraph) and links of the page. Ideal for link previews as the body is usually most of the page.
+     *
+     * @param headOnly
+     *     true to only read the head, disabled by default
+     *
+     * @return The options instance, useful for chaining
+     */
+    public ScrapeOptions setHeadOnly(boolean headOnly) {
+        this.headOnly = headOnly;
+        return this;
+    }
+}
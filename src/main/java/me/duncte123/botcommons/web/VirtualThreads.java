@@ -0,0 +1,81 @@
+/*
+ *    Copyright 2026 Duncan "duncte123" Sterken
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package me.duncte123.botcommons.web;
+
+import javax.annotation.Nonnull;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Access to the virtual thread executor of JDK 21 and later while still compiling against Java 8
+ *
+ * @see WebUtils.Builder#setVirtualThreads(boolean)
+ */
+public final class VirtualThreads {
+    private static final MethodHandle NEW_EXECUTOR = findExecutorFactory();
+
+    private VirtualThreads() {}
+
+    /**
+     * Checks if virtual threads can be used on the running jvm
+     *
+     * @return true if the jvm supports virtual threads (JDK 21 or later)
+     */
+    public static boolean isAvailable() {
+        return NEW_EXECUTOR != null;
+    }
+
+    /**
+     * Creates an executor that starts a new virtual thread for every task
+     *
+     * @return an executor backed by virtual threads
+     *
+     * @throws IllegalStateException
+     *     when the running jvm does not support virtual threads
+     */
+    @Nonnull
+    public static ExecutorService newExecutor() {
+        if (NEW_EXECUTOR == null) {
+            throw new IllegalStateException("Virtual threads require Java 21 or later, running on " +
+                System.getProperty("java.version"));
+        }
+
+        try {
+            return (ExecutorService) NEW_EXECUTOR.invoke();
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IllegalStateException("Could not create a virtual thread executor", t);
+        }
+    }
+
+    private static MethodHandle findExecutorFactory() {
+        try {
+            return MethodHandles.publicLookup().findStatic(
+                Executors.class,
+                "newVirtualThreadPerTaskExecutor",
+                MethodType.methodType(ExecutorService.class)
+            );
+        } catch (NoSuchMethodException | IllegalAccessException ignored) {
+            // Java 20 and older
+            return null;
+        }
+    }
+}
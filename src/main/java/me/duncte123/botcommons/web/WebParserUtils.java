@@ -16,32 +16,76 @@
 
 package me.duncte123.botcommons.web;
 
-import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.github.natanbc.reliqua.request.RequestContext;
 import com.github.natanbc.reliqua.request.RequestException;
 import me.duncte123.botcommons.JSONHelper;
+import me.duncte123.botcommons.web.encoding.ContentDecoders;
+import me.duncte123.botcommons.web.metrics.WebMetrics;
+import okhttp3.MediaType;
 import okhttp3.Response;
 import okhttp3.ResponseBody;
+import okio.BufferedSource;
+import okio.ByteString;
+import okio.Okio;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
 
 import javax.annotation.Nullable;
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.zip.GZIPInputStream;
-import java.util.zip.InflaterInputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.OpenOption;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
 
 public class WebParserUtils {
+    private static final long TRANSFER_SIZE = 1024L * 1024L;
+
     // Only null when invalid json is found
     @Nullable
     public static ObjectNode toJSONObject(Response response) throws IOException {
-        return toJSONObject(response, JSONHelper.createObjectMapper());
+        return timeParse(response, "json", () -> (ObjectNode) JSONHelper.getTreeReader().readTree(getInputStream(response)));
     }
 
     // Only null when invalid json is found
     @Nullable
     public static ObjectNode toJSONObject(Response response, ObjectMapper mapper) throws IOException {
-        return (ObjectNode) mapper.readTree(getInputStream(response));
+        return timeParse(response, "json", () -> (ObjectNode) mapper.readTree(getInputStream(response)));
+    }
+
+    // Only null when invalid json is found
+    @Nullable
+    public static ArrayNode toJSONArray(Response response, ObjectMapper mapper) throws IOException {
+        return timeParse(response, "json", () -> (ArrayNode) mapper.readTree(getInputStream(response)));
+    }
+
+    /**
+     * Binds the json body of the response directly to an object, no json tree is created in between
+     *
+     * @param response
+     *     The response to read the body from
+     * @param reader
+     *     The reader that is configured for the target type, see {@link JSONHelper#readerFor(Class)}
+     * @param <T>
+     *     The type of the returned object
+     *
+     * @return The object that was read from the response body
+     *
+     * @throws IOException
+     *     When the body could not be read or is not valid json for the target type
+     */
+    public static <T> T toObject(Response response, ObjectReader reader) throws IOException {
+        try (InputStream stream = getInputStream(response)) {
+            return timeParse(response, "json", () -> reader.readValue(stream));
+        }
     }
 
     public static InputStream getInputStream(Response response) {
@@ -53,42 +97,286 @@ public class WebParserUtils {
 
         final String encoding = response.header("Content-Encoding");
 
-        if (encoding != null) {
-            switch (encoding.toLowerCase()) {
-                case "gzip":
-                    try {
-                        return new GZIPInputStream(body.byteStream());
-                    } catch (IOException e) {
-                        throw new IllegalStateException("Received Content-Encoding header of gzip, but data is not valid gzip", e);
-                    }
-                case "deflate":
-                    return new InflaterInputStream(body.byteStream());
+        // responses from WebUtils are already decoded by the ContentDecodingInterceptor
+        if (encoding != null && ContentDecoders.canDecode(encoding)) {
+            try {
+                return ContentDecoders.decode(encoding, body.byteStream());
+            } catch (IOException e) {
+                throw new IllegalStateException("Received Content-Encoding header of " + encoding + ", but data is not valid for it", e);
             }
         }
 
         return body.byteStream();
     }
 
-    public static <T> void handleError(RequestContext<T> context) {
-        final Response response = context.getResponse();
+    /**
+     * Returns the body of the response as okio source, decompressed in the same way as {@link
+     * #getInputStream(Response)}
+     *
+     * @param response
+     *     The response to read the body from
+     *
+     * @return The (decompressed) body of the response
+     */
+    public static BufferedSource getSource(Response response) {
         final ResponseBody body = response.body();
 
         if (body == null) {
-            context.getErrorConsumer().accept(new RequestException("Unexpected status code " + response.code() + " (No body)", context.getCallStack()));
-            return;
+            throw new IllegalStateException("Body should never be null");
         }
 
-        JsonNode json = null;
+        if (response.header("Content-Encoding") == null) {
+            return body.source();
+        }
+
+        return Okio.buffer(Okio.source(getInputStream(response)));
+    }
+
+    /**
+     * Reads the (decompressed) body of the response into a byte array.<br/>
+     * The body is collected in okio segments, which come from a shared pool and never need to be grown or copied, and
+     * is then copied once into an array of exactly the right size. Bodies with a {@code Content-Length} and no
+     * {@code Content-Encoding} are read straight into an array of that size.
+     *
+     * @param response
+     *     The response to read the body from
+     *
+     * @return The body of the response
+     *
+     * @throws IOException
+     *     When the body could not be read
+     */
+    public static byte[] toByteArray(Response response) throws IOException {
+        final long contentLength = getPlainContentLength(response);
+
+        try (BufferedSource source = getSource(response)) {
+            return contentLength > -1L ? source.readByteArray(contentLength) : source.readByteArray();
+        }
+    }
+
+    /**
+     * Reads the (decompressed) body of the response into a heap {@link ByteBuffer}, the buffer wraps the array of
+     * {@link #toByteArray(Response)} so no extra copy is made
+     *
+     * @param response
+     *     The response to read the body from
+     *
+     * @return The body of the response, ready to be read
+     *
+     * @throws IOException
+     *     When the body could not be read
+     */
+    public static ByteBuffer toByteBuffer(Response response) throws IOException {
+        return ByteBuffer.wrap(toByteArray(response));
+    }
+
+    /**
+     * Reads the (decompressed) body of the response into an immutable okio {@link ByteString}
+     *
+     * @param response
+     *     The response to read the body from
+     *
+     * @return The body of the response
+     *
+     * @throws IOException
+     *     When the body could not be read
+     *
+     * @see #toByteArray(Response)
+     */
+    public static ByteString toByteString(Response response) throws IOException {
+        final long contentLength = getPlainContentLength(response);
+
+        try (BufferedSource source = getSource(response)) {
+            return contentLength > -1L ? source.readByteString(contentLength) : source.readByteString();
+        }
+    }
+
+    /**
+     * Parses the (decompressed) body of the response as html while it is being downloaded, the page is never held as
+     * a string in memory. The charset from the {@code Content-Type} header is used when present, otherwise jsoup
+     * detects it from the BOM or the meta tags. Relative urls are resolved against the url of the request.
+     *
+     * @param response
+     *     The response to read the page from
+     * @param options
+     *     The options for reading the page
+     *
+     * @return The parsed page
+     *
+     * @throws IOException
+     *     When the body could not be read
+     */
+    public static Document toDocument(Response response, ScrapeOptions options) throws IOException {
+        final ResponseBody body = response.body();
+
+        if (body == null) {
+            throw new IllegalStateException("Body should never be null");
+        }
+
+        final MediaType contentType = body.contentType();
+        final Charset charset = contentType == null ? null : contentType.charset(null);
+
+        try (InputStream stream = new ScrapeInputStream(getInputStream(response), options)) {
+            return timeParse(response, "html", () -> Jsoup.parse(
+                stream,
+                charset == null ? null : charset.name(),
+                response.request().url().toString()
+            ));
+        }
+    }
+
+    private static <T> T timeParse(Response response, String format, Parser<T> parser) throws IOException {
+        final WebMetrics metrics = WebMetrics.of(response.request());
+
+        if (metrics == null) {
+            return parser.parse();
+        }
+
+        final long start = System.nanoTime();
 
         try {
-            json = toJSONObject(response);
-        } catch (Exception ignored) {
+            return parser.parse();
+        } finally {
+            metrics.recordParse(response.request(), format, System.nanoTime() - start);
         }
+    }
+
+    private static long getPlainContentLength(Response response) {
+        final ResponseBody body = response.body();
 
-        if (json != null) {
-            context.getErrorConsumer().accept(new RequestException("Unexpected status code " + response.code() + ": " + json, context.getCallStack()));
-        } else {
-            context.getErrorConsumer().accept(new RequestException("Unexpected status code " + response.code(), context.getCallStack()));
+        if (body == null || response.header("Content-Encoding") != null) {
+            return -1L;
         }
+
+        final long contentLength = body.contentLength();
+
+        // larger bodies don't fit in an array anyway, let okio fail on them
+        return contentLength > Integer.MAX_VALUE ? -1L : contentLength;
+    }
+
+    /**
+     * Writes the body of the response to a file without holding the full body in memory, the body is transferred to
+     * the file with {@link FileChannel#transferFrom(java.nio.channels.ReadableByteChannel, long, long)}.
+     *
+     * @param response
+     *     The response to read the body from
+     * @param target
+     *     The file to write to
+     * @param options
+     *     The options of the download
+     * @param offset
+     *     The size of the existing file when the request asked for a range, {@code 0} otherwise
+     *
+     * @return The result of the download
+     *
+     * @throws IOException
+     *     When the body could not be read or written, or is larger than {@link DownloadOptions#getMaxSize()}
+     */
+    public static DownloadResult toFile(Response response, Path target, DownloadOptions options, long offset) throws IOException {
+        // 416 means that the range starts at the end of the file, so there is nothing left to download
+        if (offset > 0L && response.code() == 416) {
+            response.close();
+            return new DownloadResult(target, 0L, offset, true, elapsedSince(response));
+        }
+
+        final boolean append = offset > 0L && response.code() == 206;
+
+        if (append) {
+            final String contentRange = response.header("Content-Range");
+
+            if (contentRange == null || !contentRange.startsWith("bytes " + offset + '-')) {
+                response.close();
+                throw new IOException("Requested bytes from " + offset + " but server sent range " + contentRange);
+            }
+        }
+
+        final long start = append ? offset : 0L;
+        final long maxSize = options.getMaxSize();
+        final long contentLength = response.header("Content-Encoding") == null ? response.body().contentLength() : -1L;
+
+        if (maxSize > -1L && contentLength > -1L && start + contentLength > maxSize) {
+            response.close();
+            throw new IOException("Body of " + (start + contentLength) + " bytes is larger than the maximum of " + maxSize);
+        }
+
+        final OpenOption[] openOptions = append ?
+            new OpenOption[] { StandardOpenOption.CREATE, StandardOpenOption.WRITE } :
+            new OpenOption[] { StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING };
+        // one byte more than allowed so a body that is too large can be detected
+        final long limit = maxSize > -1L ? maxSize - start + 1L : Long.MAX_VALUE;
+        long written = 0L;
+
+        try (BufferedSource source = getSource(response); FileChannel channel = FileChannel.open(target, openOptions)) {
+            while (written < limit) {
+                final long transferred = channel.transferFrom(source, start + written, Math.min(limit - written, TRANSFER_SIZE));
+
+                // transferFrom returns 0 at the end of the body but also when no bytes arrived yet
+                if (transferred == 0L && source.exhausted()) {
+                    break;
+                }
+
+                written += transferred;
+            }
+        } catch (IOException e) {
+            if (!options.isResume()) {
+                Files.deleteIfExists(target);
+            }
+
+            throw e;
+        }
+
+        if (written == limit) {
+            if (options.isResume()) {
+                // keep the bytes that were already on disk before this request
+                try (FileChannel channel = FileChannel.open(target, StandardOpenOption.WRITE)) {
+                    channel.truncate(start);
+                }
+            } else {
+                Files.deleteIfExists(target);
+            }
+
+            throw new IOException("Body is larger than the maximum of " + maxSize + " bytes");
+        }
+
+        return new DownloadResult(target, written, start + written, append, elapsedSince(response));
+    }
+
+    private static Duration elapsedSince(Response response) {
+        return Duration.ofMillis(System.currentTimeMillis() - response.sentRequestAtMillis());
+    }
+
+    /**
+     * Fails the request with the exception of the {@link ErrorMapper} of the request, {@link ErrorMapper#DEFAULT}
+     * when the request has none. At most {@link ErrorMapper.Tag#getMaxBodySize()} bytes of the body are read and the
+     * body is only parsed when the mapper asks for it.
+     *
+     * @param context
+     *     the context of the failed request
+     * @param <T>
+     *     the result type of the request
+     */
+    public static <T> void handleError(RequestContext<T> context) {
+        final Response response = context.getResponse();
+        final ErrorMapper.Tag tag = ErrorMapper.Tag.of(response.request());
+        final ResponseError error = ResponseError.read(response, tag.getMaxBodySize());
+        RequestException exception;
+
+        try {
+            exception = tag.getMapper().map(error, context.getCallStack());
+        } catch (RuntimeException e) {
+            exception = new HttpStatusException(error, context.getCallStack());
+            exception.addSuppressed(e);
+        }
+
+        if (exception == null) {
+            exception = new HttpStatusException(error, context.getCallStack());
+        }
+
+        context.getErrorConsumer().accept(exception);
+    }
+
+    @FunctionalInterface
+    private interface Parser<T> {
+        T parse() throws IOException;
     }
 }
@@ -16,45 +16,115 @@
 
 package me.duncte123.botcommons.web;
 
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.github.natanbc.reliqua.Reliqua;
+import com.github.natanbc.reliqua.limiter.factory.RateLimiterFactory;
 import com.github.natanbc.reliqua.request.PendingRequest;
 import com.github.natanbc.reliqua.util.PendingRequestBuilder;
 import com.github.natanbc.reliqua.util.ResponseMapper;
 import me.duncte123.botcommons.BotCommons;
 import me.duncte123.botcommons.JSONHelper;
+import me.duncte123.botcommons.web.async.CallBindingInterceptor;
+import me.duncte123.botcommons.web.cache.CacheInterceptor;
+import me.duncte123.botcommons.web.cache.CachePolicy;
+import me.duncte123.botcommons.web.cache.ResponseCache;
+import me.duncte123.botcommons.web.circuit.CircuitBreakerConfig;
+import me.duncte123.botcommons.web.circuit.CircuitBreakerInterceptor;
+import me.duncte123.botcommons.web.circuit.CircuitBreakerOpenException;
+import me.duncte123.botcommons.web.coalesce.SingleFlightInterceptor;
+import me.duncte123.botcommons.web.coalesce.SingleFlightKey;
+import me.duncte123.botcommons.web.encoding.ContentDecodingInterceptor;
+import me.duncte123.botcommons.web.hedge.HedgeMode;
+import me.duncte123.botcommons.web.hedge.HedgingInterceptor;
+import me.duncte123.botcommons.web.metrics.MetricsInterceptor;
+import me.duncte123.botcommons.web.metrics.MetricsRecorder;
+import me.duncte123.botcommons.web.metrics.WebMetrics;
+import me.duncte123.botcommons.web.ratelimit.ClientRateLimiter;
+import me.duncte123.botcommons.web.ratelimit.RateLimitInterceptor;
 import me.duncte123.botcommons.web.requests.IRequestBody;
-import net.dv8tion.jda.internal.utils.IOUtil;
+import me.duncte123.botcommons.web.retry.RetryBudget;
+import me.duncte123.botcommons.web.retry.RetryInterceptor;
+import me.duncte123.botcommons.web.retry.RetryPolicy;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
 import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
 import okhttp3.Request;
-import org.jsoup.Jsoup;
+import okhttp3.Response;
+import okio.ByteString;
+import org.jetbrains.annotations.NotNull;
 import org.jsoup.nodes.Document;
 
+import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.UnsupportedEncodingException;
 import java.net.URLEncoder;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
 
 @SuppressWarnings({"unused", "WeakerAccess", "ConstantConditions"})
 public final class WebUtils extends Reliqua {
 
-    public static final WebUtils ins = new WebUtils();
+    /**
+     * The default instance, uses 30 second timeouts and the default connection pool and dispatcher limits of OkHttp.
+     * Use {@link #builder()} to create instances with their own configuration
+     */
+    public static final WebUtils ins = builder().build();
     private static String USER_AGENT = "Mozilla/5.0 (compatible; BotCommons/" + BotCommons.VERSION + "; +https://github.com/duncte123/BotCommons;)";
-    private final ObjectMapper mapper = JSONHelper.createObjectMapper();
-
-    private WebUtils() {
-        super(
-            new OkHttpClient.Builder()
-                .connectTimeout(30L, TimeUnit.SECONDS)
-                .readTimeout(30L, TimeUnit.SECONDS)
-                .writeTimeout(30L, TimeUnit.SECONDS)
-                .build(),
-            null,
-            true
-        );
+    private final ObjectMapper mapper = JSONHelper.getObjectMapper();
+    private final CacheInterceptor cacheInterceptor;
+    private final SingleFlightInterceptor singleFlightInterceptor;
+    private final RetryInterceptor retryInterceptor;
+    private final HedgingInterceptor hedgingInterceptor;
+    private final CircuitBreakerInterceptor circuitBreakerInterceptor;
+    private final RateLimitInterceptor rateLimitInterceptor;
+    private final WebMetrics metrics;
+
+    private WebUtils(Builder builder) {
+        super(builder.createClient(), builder.rateLimiterFactory, builder.trackCallSites);
+
+        this.cacheInterceptor = builder.cacheInterceptor;
+        this.singleFlightInterceptor = builder.singleFlightInterceptor;
+        this.retryInterceptor = builder.retryInterceptor;
+        this.hedgingInterceptor = builder.hedgingInterceptor;
+        this.circuitBreakerInterceptor = builder.circuitBreakerInterceptor;
+        this.rateLimitInterceptor = builder.rateLimitInterceptor;
+        this.metrics = builder.metrics;
+        this.hedgingInterceptor.setClient(createBareClient(getClient()));
+    }
+
+    private static OkHttpClient createBareClient(OkHttpClient client) {
+        final OkHttpClient.Builder builder = client.newBuilder();
+
+        // shares the connection pool and dispatcher, but the interceptors already ran for the original call
+        builder.interceptors().clear();
+
+        return builder.build();
+    }
+
+    /**
+     * Creates a builder for a new {@link WebUtils} instance with its own connection pool, dispatcher and timeouts
+     *
+     * @return a new builder
+     *
+     * @see Builder
+     */
+    public static Builder builder() {
+        return new Builder();
     }
 
     /**
@@ -136,7 +206,7 @@ public final class WebUtils extends Reliqua {
      * @see #scrapeWebPage(String, PendingRequestFunction, RequestBuilderFunction)
      */
     public PendingRequest<Document> scrapeWebPage(String url) {
-        return scrapeWebPage(url, null);
+        return scrapeWebPage(url, (PendingRequestFunction) null);
     }
 
     /**
@@ -165,11 +235,51 @@ public final class WebUtils extends Reliqua {
      * @see #scrapeWebPage(String, PendingRequestFunction, RequestBuilderFunction)
      */
     public PendingRequest<Document> scrapeWebPage(String url, @Nullable PendingRequestFunction pendingBuilder, @Nullable RequestBuilderFunction requestBuilder) {
+        return scrapeWebPage(url, new ScrapeOptions(), pendingBuilder, requestBuilder);
+    }
+
+    /**
+     * Scrapes a web page, the page is parsed while it is downloaded and reading stops early when the options allow it
+     *
+     * @param url
+     *     The url of the page
+     * @param options
+     *     The options for reading the page
+     *
+     * @return A pending request with the parsed page
+     *
+     * @see #scrapeWebPage(String, ScrapeOptions, PendingRequestFunction, RequestBuilderFunction)
+     */
+    public PendingRequest<Document> scrapeWebPage(String url, ScrapeOptions options) {
+        return scrapeWebPage(url, options, null, null);
+    }
+
+    /**
+     * Scrapes a web page, the page is parsed while it is downloaded and reading stops early when the options allow it
+     *
+     * @param url
+     *     The url of the page
+     * @param options
+     *     The options for reading the page
+     * @param pendingBuilder
+     *     Function to modify the pending request
+     * @param requestBuilder
+     *     Function to modify the request
+     *
+     * @return A pending request with the parsed page
+     *
+     * @see WebParserUtils#toDocument(Response, ScrapeOptions)
+     */
+    public PendingRequest<Document> scrapeWebPage(String url, ScrapeOptions options, @Nullable PendingRequestFunction pendingBuilder, @Nullable RequestBuilderFunction requestBuilder) {
+        if (options == null) {
+            throw new IllegalArgumentException("options may not be null");
+        }
+
         final Request.Builder builder = prepareGet(url, ContentType.TEXT_HTML);
         final PendingRequestBuilder pendingRequestBuilder = applyFunctions(builder, pendingBuilder, requestBuilder);
 
         return pendingRequestBuilder.build(
-            (response) -> Jsoup.parse(response.body().string()),
+            (response) -> WebParserUtils.toDocument(response, options),
             WebParserUtils::handleError
         );
     }
@@ -265,7 +375,255 @@ public final class WebUtils extends Reliqua {
         final PendingRequestBuilder pendingRequestBuilder = applyFunctions(builder, pendingBuilder, requestBuilder);
 
         return pendingRequestBuilder.build(
-            (res) -> (ArrayNode) mapper.readTree(WebParserUtils.getInputStream(res)),
+            (res) -> WebParserUtils.toJSONArray(res, mapper),
+            WebParserUtils::handleError
+        );
+    }
+
+    /**
+     * Retrieves json from a webpage and binds it directly to the given class without building a json tree first
+     *
+     * @param url
+     *     The url to retrieve the json from
+     * @param type
+     *     The class to bind the json to
+     * @param <T>
+     *     The type of the returned object
+     *
+     * @return A {@link PendingRequest PendingRequest} that is pending execution via {@link PendingRequest#async()
+     * PendingRequest#async()}, {@link PendingRequest#submit() PendingRequest#submit()} or {@link
+     * PendingRequest#execute() PendingRequest#execute()}
+     *
+     * @see #getJSON(String, Class, PendingRequestFunction)
+     * @see #getJSON(String, Class, PendingRequestFunction, RequestBuilderFunction)
+     * @see #getJSON(String, TypeReference)
+     */
+    public <T> PendingRequest<T> getJSON(String url, Class<T> type) {
+        return getJSON(url, type, null);
+    }
+
+    /**
+     * Retrieves json from a webpage and binds it directly to the given class without building a json tree first
+     *
+     * @param url
+     *     The url to retrieve the json from
+     * @param type
+     *     The class to bind the json to
+     * @param pendingBuilder
+     *     Used {@link PendingRequestBuilder PendingRequestBuilder} to add extra configuration to the {@link
+     *     PendingRequest PendingRequest} returned
+     * @param <T>
+     *     The type of the returned object
+     *
+     * @return A {@link PendingRequest PendingRequest} that is pending execution via {@link PendingRequest#async()
+     * PendingRequest#async()}, {@link PendingRequest#submit() PendingRequest#submit()} or {@link
+     * PendingRequest#execute() PendingRequest#execute()}
+     *
+     * @see #getJSON(String, Class)
+     * @see #getJSON(String, Class, PendingRequestFunction, RequestBuilderFunction)
+     * @see #getJSON(String, TypeReference, PendingRequestFunction)
+     */
+    public <T> PendingRequest<T> getJSON(String url, Class<T> type, @Nullable PendingRequestFunction pendingBuilder) {
+        return getJSON(url, type, pendingBuilder, null);
+    }
+
+    /**
+     * Retrieves json from a webpage and binds it directly to the given class without building a json tree first
+     *
+     * @param url
+     *     The url to retrieve the json from
+     * @param type
+     *     The class to bind the json to
+     * @param pendingBuilder
+     *     Used {@link PendingRequestBuilder PendingRequestBuilder} to add extra configuration to the {@link
+     *     PendingRequest PendingRequest} returned
+     * @param requestBuilder
+     *     Used to configure the {@link Request Request} before it is send off to the server
+     * @param <T>
+     *     The type of the returned object
+     *
+     * @return A {@link PendingRequest PendingRequest} that is pending execution via {@link PendingRequest#async()
+     * PendingRequest#async()}, {@link PendingRequest#submit() PendingRequest#submit()} or {@link
+     * PendingRequest#execute() PendingRequest#execute()}
+     *
+     * @see #getJSON(String, Class)
+     * @see #getJSON(String, Class, PendingRequestFunction)
+     * @see #getJSON(String, TypeReference, PendingRequestFunction, RequestBuilderFunction)
+     */
+    public <T> PendingRequest<T> getJSON(String url, Class<T> type, @Nullable PendingRequestFunction pendingBuilder, @Nullable RequestBuilderFunction requestBuilder) {
+        return getJSON(url, JSONHelper.readerFor(type), pendingBuilder, requestBuilder);
+    }
+
+    /**
+     * Retrieves json from a webpage and binds it directly to the given type without building a json tree first, use
+     * this for generic types such as lists or maps
+     *
+     * @param url
+     *     The url to retrieve the json from
+     * @param type
+     *     The type to bind the json to
+     * @param <T>
+     *     The type of the returned object
+     *
+     * @return A {@link PendingRequest PendingRequest} that is pending execution via {@link PendingRequest#async()
+     * PendingRequest#async()}, {@link PendingRequest#submit() PendingRequest#submit()} or {@link
+     * PendingRequest#execute() PendingRequest#execute()}
+     *
+     * @see #getJSON(String, TypeReference, PendingRequestFunction)
+     * @see #getJSON(String, TypeReference, PendingRequestFunction, RequestBuilderFunction)
+     * @see #getJSON(String, Class)
+     */
+    public <T> PendingRequest<T> getJSON(String url, TypeReference<T> type) {
+        return getJSON(url, type, null);
+    }
+
+    /**
+     * Retrieves json from a webpage and binds it directly to the given type without building a json tree first, use
+     * this for generic types such as lists or maps
+     *
+     * @param url
+     *     The url to retrieve the json from
+     * @param type
+     *     The type to bind the json to
+     * @param pendingBuilder
+     *     Used {@link PendingRequestBuilder PendingRequestBuilder} to add extra configuration to the {@link
+     *     PendingRequest PendingRequest} returned
+     * @param <T>
+     *     The type of the returned object
+     *
+     * @return A {@link PendingRequest PendingRequest} that is pending execution via {@link PendingRequest#async()
+     * PendingRequest#async()}, {@link PendingRequest#submit() PendingRequest#submit()} or {@link
+     * PendingRequest#execute() PendingRequest#execute()}
+     *
+     * @see #getJSON(String, TypeReference)
+     * @see #getJSON(String, TypeReference, PendingRequestFunction, RequestBuilderFunction)
+     * @see #getJSON(String, Class, PendingRequestFunction)
+     */
+    public <T> PendingRequest<T> getJSON(String url, TypeReference<T> type, @Nullable PendingRequestFunction pendingBuilder) {
+        return getJSON(url, type, pendingBuilder, null);
+    }
+
+    /**
+     * Retrieves json from a webpage and binds it directly to the given type without building a json tree first, use
+     * this for generic types such as lists or maps
+     *
+     * @param url
+     *     The url to retrieve the json from
+     * @param type
+     *     The type to bind the json to
+     * @param pendingBuilder
+     *     Used {@link PendingRequestBuilder PendingRequestBuilder} to add extra configuration to the {@link
+     *     PendingRequest PendingRequest} returned
+     * @param requestBuilder
+     *     Used to configure the {@link Request Request} before it is send off to the server
+     * @param <T>
+     *     The type of the returned object
+     *
+     * @return A {@link PendingRequest PendingRequest} that is pending execution via {@link PendingRequest#async()
+     * PendingRequest#async()}, {@link PendingRequest#submit() PendingRequest#submit()} or {@link
+     * PendingRequest#execute() PendingRequest#execute()}
+     *
+     * @see #getJSON(String, TypeReference)
+     * @see #getJSON(String, TypeReference, PendingRequestFunction)
+     * @see #getJSON(String, Class, PendingRequestFunction, RequestBuilderFunction)
+     */
+    public <T> PendingRequest<T> getJSON(String url, TypeReference<T> type, @Nullable PendingRequestFunction pendingBuilder, @Nullable RequestBuilderFunction requestBuilder) {
+        return getJSON(url, JSONHelper.readerFor(type), pendingBuilder, requestBuilder);
+    }
+
+    private <T> PendingRequest<T> getJSON(String url, ObjectReader reader, @Nullable PendingRequestFunction pendingBuilder, @Nullable RequestBuilderFunction requestBuilder) {
+        final Request.Builder builder = prepareGet(url, ContentType.JSON);
+        final PendingRequestBuilder pendingRequestBuilder = applyFunctions(builder, pendingBuilder, requestBuilder);
+
+        return pendingRequestBuilder.build(
+            (res) -> WebParserUtils.toObject(res, reader),
+            WebParserUtils::handleError
+        );
+    }
+
+    /**
+     * Streams the elements of a json array from a webpage, elements are read from the network one by one while you
+     * iterate so the full array is never in memory.<br/>
+     * <b>The returned iterator holds the response open, make sure to close it if you do not read all the elements</b>
+     *
+     * @param url
+     *     The url to retrieve the json array from
+     * @param type
+     *     The class to bind each element of the array to
+     * @param <T>
+     *     The type of the elements
+     *
+     * @return A {@link PendingRequest PendingRequest} that is pending execution via {@link PendingRequest#async()
+     * PendingRequest#async()}, {@link PendingRequest#submit() PendingRequest#submit()} or {@link
+     * PendingRequest#execute() PendingRequest#execute()}
+     *
+     * @see #streamJSONArray(String, Class, PendingRequestFunction)
+     * @see #streamJSONArray(String, Class, PendingRequestFunction, RequestBuilderFunction)
+     * @see JSONArrayIterator
+     */
+    public <T> PendingRequest<JSONArrayIterator<T>> streamJSONArray(String url, Class<T> type) {
+        return streamJSONArray(url, type, null);
+    }
+
+    /**
+     * Streams the elements of a json array from a webpage, elements are read from the network one by one while you
+     * iterate so the full array is never in memory.<br/>
+     * <b>The returned iterator holds the response open, make sure to close it if you do not read all the elements</b>
+     *
+     * @param url
+     *     The url to retrieve the json array from
+     * @param type
+     *     The class to bind each element of the array to
+     * @param pendingBuilder
+     *     Used {@link PendingRequestBuilder PendingRequestBuilder} to add extra configuration to the {@link
+     *     PendingRequest PendingRequest} returned
+     * @param <T>
+     *     The type of the elements
+     *
+     * @return A {@link PendingRequest PendingRequest} that is pending execution via {@link PendingRequest#async()
+     * PendingRequest#async()}, {@link PendingRequest#submit() PendingRequest#submit()} or {@link
+     * PendingRequest#execute() PendingRequest#execute()}
+     *
+     * @see #streamJSONArray(String, Class)
+     * @see #streamJSONArray(String, Class, PendingRequestFunction, RequestBuilderFunction)
+     * @see JSONArrayIterator
+     */
+    public <T> PendingRequest<JSONArrayIterator<T>> streamJSONArray(String url, Class<T> type, @Nullable PendingRequestFunction pendingBuilder) {
+        return streamJSONArray(url, type, pendingBuilder, null);
+    }
+
+    /**
+     * Streams the elements of a json array from a webpage, elements are read from the network one by one while you
+     * iterate so the full array is never in memory.<br/>
+     * <b>The returned iterator holds the response open, make sure to close it if you do not read all the elements</b>
+     *
+     * @param url
+     *     The url to retrieve the json array from
+     * @param type
+     *     The class to bind each element of the array to
+     * @param pendingBuilder
+     *     Used {@link PendingRequestBuilder PendingRequestBuilder} to add extra configuration to the {@link
+     *     PendingRequest PendingRequest} returned
+     * @param requestBuilder
+     *     Used to configure the {@link Request Request} before it is send off to the server
+     * @param <T>
+     *     The type of the elements
+     *
+     * @return A {@link PendingRequest PendingRequest} that is pending execution via {@link PendingRequest#async()
+     * PendingRequest#async()}, {@link PendingRequest#submit() PendingRequest#submit()} or {@link
+     * PendingRequest#execute() PendingRequest#execute()}
+     *
+     * @see #streamJSONArray(String, Class)
+     * @see #streamJSONArray(String, Class, PendingRequestFunction)
+     * @see JSONArrayIterator
+     */
+    public <T> PendingRequest<JSONArrayIterator<T>> streamJSONArray(String url, Class<T> type, @Nullable PendingRequestFunction pendingBuilder, @Nullable RequestBuilderFunction requestBuilder) {
+        final Request.Builder builder = prepareGet(url, ContentType.JSON);
+        final PendingRequestBuilder pendingRequestBuilder = applyFunctions(builder, pendingBuilder, requestBuilder);
+        final ObjectReader reader = JSONHelper.readerFor(type);
+
+        return pendingRequestBuilder.build(
+            (res) -> new JSONArrayIterator<>(res, reader),
             WebParserUtils::handleError
         );
     }
@@ -361,11 +719,241 @@ public final class WebUtils extends Reliqua {
         final PendingRequestBuilder pendingRequestBuilder = applyFunctions(builder, pendingBuilder, requestBuilder);
 
         return pendingRequestBuilder.build(
-            (res) -> IOUtil.readFully(WebParserUtils.getInputStream(res)),
+            WebParserUtils::toByteArray,
+            WebParserUtils::handleError
+        );
+    }
+
+    /**
+     * Reads the body into a heap {@link ByteBuffer} that wraps the body without an extra copy
+     *
+     * @param url
+     *     The url to request
+     *
+     * @return The pending request for the body
+     *
+     * @see #getByteBuffer(String, PendingRequestFunction, RequestBuilderFunction)
+     */
+    public PendingRequest<ByteBuffer> getByteBuffer(String url) {
+        return getByteBuffer(url, null);
+    }
+
+    /**
+     * Reads the body into a heap {@link ByteBuffer} that wraps the body without an extra copy
+     *
+     * @param url
+     *     The url to request
+     * @param pendingBuilder
+     *     Function to modify the pending request
+     *
+     * @return The pending request for the body
+     *
+     * @see #getByteBuffer(String, PendingRequestFunction, RequestBuilderFunction)
+     */
+    public PendingRequest<ByteBuffer> getByteBuffer(String url, @Nullable PendingRequestFunction pendingBuilder) {
+        return getByteBuffer(url, pendingBuilder, null);
+    }
+
+    /**
+     * Reads the body into a heap {@link ByteBuffer} that wraps the body without an extra copy
+     *
+     * @param url
+     *     The url to request
+     * @param pendingBuilder
+     *     Function to modify the pending request
+     * @param requestBuilder
+     *     Function to modify the http request
+     *
+     * @return The pending request for the body
+     *
+     * @see #getByteBuffer(String)
+     * @see #getByteBuffer(String, PendingRequestFunction)
+     */
+    public PendingRequest<ByteBuffer> getByteBuffer(String url, @Nullable PendingRequestFunction pendingBuilder, @Nullable RequestBuilderFunction requestBuilder) {
+        final Request.Builder builder = prepareGet(url);
+        final PendingRequestBuilder pendingRequestBuilder = applyFunctions(builder, pendingBuilder, requestBuilder);
+
+        return pendingRequestBuilder.build(
+            WebParserUtils::toByteBuffer,
+            WebParserUtils::handleError
+        );
+    }
+
+    /**
+     * Reads the body into an immutable okio {@link ByteString}, useful to share the body between consumers
+     *
+     * @param url
+     *     The url to request
+     *
+     * @return The pending request for the body
+     *
+     * @see #getByteString(String, PendingRequestFunction, RequestBuilderFunction)
+     */
+    public PendingRequest<ByteString> getByteString(String url) {
+        return getByteString(url, null);
+    }
+
+    /**
+     * Reads the body into an immutable okio {@link ByteString}, useful to share the body between consumers
+     *
+     * @param url
+     *     The url to request
+     * @param pendingBuilder
+     *     Function to modify the pending request
+     *
+     * @return The pending request for the body
+     *
+     * @see #getByteString(String, PendingRequestFunction, RequestBuilderFunction)
+     */
+    public PendingRequest<ByteString> getByteString(String url, @Nullable PendingRequestFunction pendingBuilder) {
+        return getByteString(url, pendingBuilder, null);
+    }
+
+    /**
+     * Reads the body into an immutable okio {@link ByteString}, useful to share the body between consumers
+     *
+     * @param url
+     *     The url to request
+     * @param pendingBuilder
+     *     Function to modify the pending request
+     * @param requestBuilder
+     *     Function to modify the http request
+     *
+     * @return The pending request for the body
+     *
+     * @see #getByteString(String)
+     * @see #getByteString(String, PendingRequestFunction)
+     */
+    public PendingRequest<ByteString> getByteString(String url, @Nullable PendingRequestFunction pendingBuilder, @Nullable RequestBuilderFunction requestBuilder) {
+        final Request.Builder builder = prepareGet(url);
+        final PendingRequestBuilder pendingRequestBuilder = applyFunctions(builder, pendingBuilder, requestBuilder);
+
+        return pendingRequestBuilder.build(
+            WebParserUtils::toByteString,
             WebParserUtils::handleError
         );
     }
 
+    /**
+     * Downloads a file without holding the full body in memory, the body is decompressed if needed and transferred
+     * straight into the target file
+     *
+     * @param url
+     *     The url to download
+     * @param target
+     *     The file to write the body to, an existing file is replaced
+     *
+     * @return The pending request that writes the file
+     *
+     * @see #downloadTo(String, Path, DownloadOptions, PendingRequestFunction, RequestBuilderFunction)
+     */
+    public PendingRequest<DownloadResult> downloadTo(String url, Path target) {
+        return downloadTo(url, target, new DownloadOptions());
+    }
+
+    /**
+     * Downloads a file without holding the full body in memory, the body is decompressed if needed and transferred
+     * straight into the target file
+     *
+     * @param url
+     *     The url to download
+     * @param target
+     *     The file to write the body to
+     * @param options
+     *     Options for the maximum size and resuming
+     *
+     * @return The pending request that writes the file
+     *
+     * @see #downloadTo(String, Path, DownloadOptions, PendingRequestFunction, RequestBuilderFunction)
+     */
+    public PendingRequest<DownloadResult> downloadTo(String url, Path target, DownloadOptions options) {
+        return downloadTo(url, target, options, null);
+    }
+
+    /**
+     * Downloads a file without holding the full body in memory, the body is decompressed if needed and transferred
+     * straight into the target file
+     *
+     * @param url
+     *     The url to download
+     * @param target
+     *     The file to write the body to
+     * @param options
+     *     Options for the maximum size and resuming
+     * @param pendingBuilder
+     *     Function to modify the pending request
+     *
+     * @return The pending request that writes the file
+     *
+     * @see #downloadTo(String, Path, DownloadOptions, PendingRequestFunction, RequestBuilderFunction)
+     */
+    public PendingRequest<DownloadResult> downloadTo(String url, Path target, DownloadOptions options, @Nullable PendingRequestFunction pendingBuilder) {
+        return downloadTo(url, target, options, pendingBuilder, null);
+    }
+
+    /**
+     * Downloads a file without holding the full body in memory, the body is decompressed if needed and transferred
+     * straight into the target file.<br/>
+     * When {@link DownloadOptions#setResume(boolean) resuming} is enabled and the target exists, only the missing
+     * bytes are requested. The size of the existing file is read when this method is called.
+     *
+     * @param url
+     *     The url to download
+     * @param target
+     *     The file to write the body to
+     * @param options
+     *     Options for the maximum size and resuming
+     * @param pendingBuilder
+     *     Function to modify the pending request
+     * @param requestBuilder
+     *     Function to modify the http request
+     *
+     * @return The pending request that writes the file
+     *
+     * @see #downloadTo(String, Path)
+     * @see #downloadTo(String, Path, DownloadOptions)
+     * @see #downloadTo(String, Path, DownloadOptions, PendingRequestFunction)
+     */
+    public PendingRequest<DownloadResult> downloadTo(String url, Path target, DownloadOptions options,
+                                                     @Nullable PendingRequestFunction pendingBuilder, @Nullable RequestBuilderFunction requestBuilder) {
+        final long offset = getResumeOffset(target, options);
+        final Request.Builder builder = prepareGet(url);
+
+        if (offset > 0L) {
+            builder.header("Range", "bytes=" + offset + '-');
+        }
+
+        final PendingRequestBuilder pendingRequestBuilder = applyFunctions(
+            builder,
+            (pending) -> {
+                if (offset > 0L) {
+                    // 416 means that the file is already complete
+                    pending.setStatusCodeValidator((code) -> (code >= 200 && code < 300) || code == 416);
+                }
+
+                return pendingBuilder == null ? pending : pendingBuilder.apply(pending);
+            },
+            requestBuilder
+        );
+
+        return pendingRequestBuilder.build(
+            (res) -> WebParserUtils.toFile(res, target, options, offset),
+            WebParserUtils::handleError
+        );
+    }
+
+    private static long getResumeOffset(Path target, DownloadOptions options) {
+        if (!options.isResume()) {
+            return 0L;
+        }
+
+        try {
+            return Files.isRegularFile(target) ? Files.size(target) : 0L;
+        } catch (IOException ignored) {
+            return 0L;
+        }
+    }
+
     /**
      *
      * @param url
@@ -470,6 +1058,258 @@ public final class WebUtils extends Reliqua {
         return pendingRequestBuilder;
     }
 
+    /**
+     * Returns the response cache that is used for GET requests
+     *
+     * @return the response cache or {@code null} when caching is disabled (the default)
+     *
+     * @see #setResponseCache(ResponseCache)
+     */
+    @Nullable
+    public ResponseCache getResponseCache() {
+        return this.cacheInterceptor.getCache();
+    }
+
+    /**
+     * Enables caching of GET responses, cached responses are revalidated with {@code If-None-Match} or {@code
+     * If-Modified-Since} depending on the {@link CachePolicy policy} of the cache.<br/>
+     * The policy can be changed per request by passing a {@link CachePolicy} as {@link RequestBuilderFunction}
+     *
+     * @param cache
+     *     the cache to store responses in, or {@code null} to disable caching
+     *
+     * @see ResponseCache
+     * @see CachePolicy
+     */
+    public void setResponseCache(@Nullable ResponseCache cache) {
+        this.cacheInterceptor.setCache(cache);
+    }
+
+    /**
+     * Returns true if identical in-flight GET requests share a single network call
+     *
+     * @return true if request coalescing is enabled
+     *
+     * @see #setRequestCoalescing(boolean)
+     */
+    public boolean isRequestCoalescing() {
+        return this.singleFlightInterceptor.isEnabled();
+    }
+
+    /**
+     * Enables or disables request coalescing, when enabled identical GET requests (same url and {@code Accept},
+     * {@code Authorization} and {@code Cookie} headers) that are in-flight at the same time share one network call
+     * and a copy of its response.<br/>
+     * Pass a {@link SingleFlightKey} as {@link RequestBuilderFunction} to use a different key for a request.
+     *
+     * @param enabled
+     *     true to enable request coalescing, disabled by default
+     *
+     * @see SingleFlightKey
+     */
+    public void setRequestCoalescing(boolean enabled) {
+        this.singleFlightInterceptor.setEnabled(enabled);
+    }
+
+    /**
+     * Returns the interceptor that coalesces requests, useful for its statistics
+     *
+     * @return the interceptor that coalesces requests
+     *
+     * @see #setRequestCoalescing(boolean)
+     */
+    public SingleFlightInterceptor getSingleFlightInterceptor() {
+        return this.singleFlightInterceptor;
+    }
+
+    /**
+     * Returns the policy that is used to retry requests that don't have their own {@link RetryPolicy}
+     *
+     * @return the default retry policy or {@code null} when requests are not retried (the default)
+     */
+    @Nullable
+    public RetryPolicy getRetryPolicy() {
+        return this.retryInterceptor.getPolicy();
+    }
+
+    /**
+     * Sets the policy that is used to retry requests, a {@link RetryPolicy} can also be passed as {@link
+     * RequestBuilderFunction} to a getter to override the policy for that request.<br/>
+     * All retries of this instance share a {@link me.duncte123.botcommons.web.retry.RetryBudget RetryBudget} so a
+     * failing upstream can't cause a retry storm.
+     *
+     * @param policy
+     *     the policy to use, or {@code null} to only retry requests that have their own policy
+     */
+    public void setRetryPolicy(@Nullable RetryPolicy policy) {
+        this.retryInterceptor.setPolicy(policy);
+    }
+
+    /**
+     * Returns the interceptor that retries requests, useful to read the retry counts
+     *
+     * @return the retry interceptor of this instance
+     */
+    public RetryInterceptor getRetryInterceptor() {
+        return this.retryInterceptor;
+    }
+
+    /**
+     * Returns true when GET requests are hedged
+     *
+     * @return true when GET requests are hedged
+     *
+     * @see #setHedging(boolean)
+     */
+    public boolean isHedging() {
+        return this.hedgingInterceptor.isEnabled();
+    }
+
+    /**
+     * Enables hedging of GET and HEAD requests: when a response takes longer than the 95th percentile of the recent
+     * latencies of the host, a second request is sent and the first response wins. The other request is cancelled.
+     * <br/>
+     * Only enable this for replicated upstreams, a {@link HedgeMode} can be passed as {@link RequestBuilderFunction}
+     * to a getter to override this for a single request.
+     *
+     * @param enabled
+     *     true to hedge requests, disabled by default
+     *
+     * @see #getHedgingInterceptor()
+     */
+    public void setHedging(boolean enabled) {
+        this.hedgingInterceptor.setEnabled(enabled);
+    }
+
+    /**
+     * Returns the interceptor that hedges requests, use it to change the percentile or read the hedge counts
+     *
+     * @return the hedging interceptor of this instance
+     */
+    public HedgingInterceptor getHedgingInterceptor() {
+        return this.hedgingInterceptor;
+    }
+
+    /**
+     * Enables a circuit breaker per host: when too many requests to a host fail, new requests to that host fail right
+     * away with a {@link CircuitBreakerOpenException} (as cause of the {@link
+     * com.github.natanbc.reliqua.request.RequestException RequestException}) until the host recovers. Fresh responses
+     * in the {@link #setResponseCache(ResponseCache) response cache} are still served while a breaker is open.
+     *
+     * @param config
+     *     the config of the circuit breakers, or {@code null} to disable them (the default)
+     *
+     * @see CircuitBreakerConfig#DEFAULT
+     * @see #getCircuitBreakerInterceptor()
+     */
+    public void setCircuitBreaker(@Nullable CircuitBreakerConfig config) {
+        this.circuitBreakerInterceptor.setConfig(config);
+    }
+
+    /**
+     * Returns the interceptor with the circuit breakers, use it to add listeners for state changes
+     *
+     * @return the circuit breaker interceptor of this instance
+     */
+    public CircuitBreakerInterceptor getCircuitBreakerInterceptor() {
+        return this.circuitBreakerInterceptor;
+    }
+
+    /**
+     * Opens pooled connections to the given urls so the first real request does not have to wait for DNS, the TCP
+     * connection and the TLS handshake. Call this at startup for the apis that your bot uses.<br/>
+     * Every url gets a {@code HEAD} request, the status of the response does not matter. These requests skip the
+     * cache, request coalescing, hedging and retries so every one of them goes over the network. HTTP/1.1
+     * connections can only be used by one request at a time, pass a url multiple times to open multiple connections
+     * to it. The connections stay in the pool for the keep-alive time of
+     * {@link Builder#setConnectionPool(int, long, TimeUnit)}.
+     *
+     * @param urls
+     *     the urls to open connections to
+     *
+     * @return a future that completes when every request finished, it completes exceptionally (with a
+     * {@link java.util.concurrent.CompletionException CompletionException}) after all of them finished when one of
+     * the connections failed
+     */
+    public CompletableFuture<Void> prewarm(String... urls) {
+        final CompletableFuture<?>[] futures = new CompletableFuture<?>[urls.length];
+
+        final RequestBuilderFunction untagged = CachePolicy.NETWORK_ONLY
+            .andThen(SingleFlightKey.NONE)
+            .andThen(HedgeMode.DISABLED)
+            .andThen(RetryPolicy.NONE);
+
+        for (int i = 0; i < urls.length; i++) {
+            final CompletableFuture<Void> future = new CompletableFuture<>();
+            final Request request = untagged.apply(defaultRequest())
+                .url(urls[i])
+                .head()
+                .build();
+
+            getClient().newCall(request).enqueue(new Callback() {
+                @Override
+                public void onFailure(@NotNull Call call, @NotNull IOException e) {
+                    future.completeExceptionally(e);
+                }
+
+                @Override
+                public void onResponse(@NotNull Call call, @NotNull Response response) {
+                    response.close();
+                    future.complete(null);
+                }
+            });
+
+            futures[i] = future;
+        }
+
+        return CompletableFuture.allOf(futures);
+    }
+
+    /**
+     * Returns the client side rate limiter
+     *
+     * @return the client side rate limiter or {@code null} when there are no client side limits (the default)
+     */
+    @Nullable
+    public ClientRateLimiter getClientRateLimiter() {
+        return this.rateLimitInterceptor.getLimiter();
+    }
+
+    /**
+     * Sets the client side rate limiter, requests wait for a free slot of their host and {@link Route} before they
+     * are sent. Every attempt of a retried request takes its own slot.<br/>
+     * This is separate from the {@link RateLimiterFactory} of reliqua, which reacts to the rate limit headers of the
+     * server.
+     *
+     * @param limiter
+     *     the limiter to use, or {@code null} to remove the client side limits
+     */
+    public void setClientRateLimiter(@Nullable ClientRateLimiter limiter) {
+        this.rateLimitInterceptor.setLimiter(limiter);
+        this.hedgingInterceptor.setRateLimiter(limiter);
+    }
+
+    /**
+     * Returns the recorder that receives the measurements of this instance
+     *
+     * @return the current recorder, {@link MetricsRecorder#NO_OP} by default
+     */
+    public MetricsRecorder getMetricsRecorder() {
+        return this.metrics.getRecorder();
+    }
+
+    /**
+     * Sets the recorder that receives the latency, status, bytes and queue wait of every call, and the time spent
+     * decoding and parsing the bodies. Nothing is measured while the recorder is {@link MetricsRecorder#NO_OP}.
+     *
+     * @param recorder
+     *     the recorder to use, like a {@link me.duncte123.botcommons.web.metrics.SimpleMetricsRecorder} or
+     *     {@link me.duncte123.botcommons.web.metrics.MicrometerMetricsRecorder}
+     */
+    public void setMetricsRecorder(MetricsRecorder recorder) {
+        this.metrics.setRecorder(recorder);
+    }
+
     /**
      *
      * @return
@@ -510,4 +1350,436 @@ public final class WebUtils extends Reliqua {
             return ""; // Should never happen as we are using UTF-8
         }
     }
+
+    /**
+     * Builder for {@link WebUtils} instances, every instance gets its own connection pool and dispatcher so slow
+     * upstreams can't use up the connections of fast ones.<br/>
+     * <b>NOTE:</b> {@link BotCommons#shutdown()} only shuts down {@link WebUtils#ins}, call {@link #shutdown()} on
+     * your own instances when your bot stops.
+     */
+    public static class Builder {
+        private long connectTimeoutMillis = TimeUnit.SECONDS.toMillis(30L);
+        private long readTimeoutMillis = TimeUnit.SECONDS.toMillis(30L);
+        private long writeTimeoutMillis = TimeUnit.SECONDS.toMillis(30L);
+        private long callTimeoutMillis = 0L;
+        private int maxIdleConnections = 5;
+        private long keepAliveMillis = TimeUnit.MINUTES.toMillis(5L);
+        private int maxRequests = 64;
+        private int maxRequestsPerHost = 5;
+        private ExecutorService executor = null;
+        private List<Protocol> protocols = null;
+        private boolean virtualThreads = false;
+        private RateLimiterFactory rateLimiterFactory = null;
+        private boolean trackCallSites = true;
+        private ResponseCache responseCache = null;
+        private boolean requestCoalescing = false;
+        private RetryPolicy retryPolicy = null;
+        private RetryBudget retryBudget = null;
+        private boolean hedging = false;
+        private CircuitBreakerConfig circuitBreaker = null;
+        private ClientRateLimiter clientRateLimiter = null;
+        private MetricsRecorder metricsRecorder = MetricsRecorder.NO_OP;
+
+        // created for every client so instances never share them
+        private CacheInterceptor cacheInterceptor;
+        private SingleFlightInterceptor singleFlightInterceptor;
+        private RetryInterceptor retryInterceptor;
+        private HedgingInterceptor hedgingInterceptor;
+        private WebMetrics metrics;
+        private CircuitBreakerInterceptor circuitBreakerInterceptor;
+        private RateLimitInterceptor rateLimitInterceptor;
+
+        private Builder() {}
+
+        /**
+         * Sets the connect timeout for new connections, defaults to 30 seconds
+         *
+         * @param timeout
+         *     the timeout, {@code 0} for no timeout
+         * @param unit
+         *     the unit of the timeout
+         *
+         * @return The builder instance, useful for chaining
+         */
+        public Builder setConnectTimeout(long timeout, @Nonnull TimeUnit unit) {
+            this.connectTimeoutMillis = unit.toMillis(timeout);
+            return this;
+        }
+
+        /**
+         * Sets the read timeout for connections, defaults to 30 seconds
+         *
+         * @param timeout
+         *     the timeout, {@code 0} for no timeout
+         * @param unit
+         *     the unit of the timeout
+         *
+         * @return The builder instance, useful for chaining
+         */
+        public Builder setReadTimeout(long timeout, @Nonnull TimeUnit unit) {
+            this.readTimeoutMillis = unit.toMillis(timeout);
+            return this;
+        }
+
+        /**
+         * Sets the write timeout for connections, defaults to 30 seconds
+         *
+         * @param timeout
+         *     the timeout, {@code 0} for no timeout
+         * @param unit
+         *     the unit of the timeout
+         *
+         * @return The builder instance, useful for chaining
+         */
+        public Builder setWriteTimeout(long timeout, @Nonnull TimeUnit unit) {
+            this.writeTimeoutMillis = unit.toMillis(timeout);
+            return this;
+        }
+
+        /**
+         * Sets the timeout for a complete call (resolving dns, connecting, sending and reading the response),
+         * defaults to no timeout
+         *
+         * @param timeout
+         *     the timeout, {@code 0} for no timeout
+         * @param unit
+         *     the unit of the timeout
+         *
+         * @return The builder instance, useful for chaining
+         */
+        public Builder setCallTimeout(long timeout, @Nonnull TimeUnit unit) {
+            this.callTimeoutMillis = unit.toMillis(timeout);
+            return this;
+        }
+
+        /**
+         * Configures the connection pool of the client, defaults to 5 idle connections that are kept alive for 5
+         * minutes
+         *
+         * @param maxIdleConnections
+         *     the maximum amount of idle connections to keep in the pool
+         * @param keepAlive
+         *     how long idle connections are kept in the pool
+         * @param unit
+         *     the unit of the keep alive duration
+         *
+         * @return The builder instance, useful for chaining
+         */
+        public Builder setConnectionPool(int maxIdleConnections, long keepAlive, @Nonnull TimeUnit unit) {
+            if (maxIdleConnections < 0 || keepAlive <= 0L) {
+                throw new IllegalArgumentException("maxIdleConnections may not be negative and keepAlive must be positive");
+            }
+
+            this.maxIdleConnections = maxIdleConnections;
+            this.keepAliveMillis = unit.toMillis(keepAlive);
+            return this;
+        }
+
+        /**
+         * Sets the maximum amount of requests that run at the same time, other requests are queued. Defaults to 64
+         *
+         * @param maxRequests
+         *     the maximum amount of concurrent requests
+         *
+         * @return The builder instance, useful for chaining
+         */
+        public Builder setMaxRequests(int maxRequests) {
+            if (maxRequests < 1) {
+                throw new IllegalArgumentException("maxRequests must be positive");
+            }
+
+            this.maxRequests = maxRequests;
+            return this;
+        }
+
+        /**
+         * Sets the maximum amount of requests to a single host that run at the same time, other requests are queued.
+         * Defaults to 5
+         *
+         * @param maxRequestsPerHost
+         *     the maximum amount of concurrent requests per host
+         *
+         * @return The builder instance, useful for chaining
+         */
+        public Builder setMaxRequestsPerHost(int maxRequestsPerHost) {
+            if (maxRequestsPerHost < 1) {
+                throw new IllegalArgumentException("maxRequestsPerHost must be positive");
+            }
+
+            this.maxRequestsPerHost = maxRequestsPerHost;
+            return this;
+        }
+
+        /**
+         * Sets the protocols that the client may use, defaults to HTTP/2 (negotiated with ALPN over TLS) and HTTP/1.1.
+         * HTTP/2 sends all requests to a host over one connection.<br/>
+         * Use {@link Protocol#H2_PRIOR_KNOWLEDGE} on its own to speak cleartext HTTP/2 (h2c) to local services that
+         * support it, create a separate instance for those services as such a client can't talk to other servers.
+         *
+         * @param protocols
+         *     the protocols to use, {@link Protocol#HTTP_1_1} is required unless only {@link
+         *     Protocol#H2_PRIOR_KNOWLEDGE} is given
+         *
+         * @return The builder instance, useful for chaining
+         */
+        public Builder setProtocols(@Nonnull Protocol... protocols) {
+            final List<Protocol> list = Arrays.asList(protocols);
+
+            if (!(list.size() == 1 && list.contains(Protocol.H2_PRIOR_KNOWLEDGE)) && !list.contains(Protocol.HTTP_1_1)) {
+                throw new IllegalArgumentException("protocols must contain http/1.1 or only h2_prior_knowledge: " + list);
+            }
+
+            this.protocols = list;
+            return this;
+        }
+
+        /**
+         * Sets the executor that runs the async requests and their response mappers, defaults to the cached thread
+         * pool of OkHttp
+         *
+         * @param executor
+         *     the executor to run requests on, or {@code null} to use the default
+         *
+         * @return The builder instance, useful for chaining
+         */
+        public Builder setExecutor(@Nullable ExecutorService executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        /**
+         * Runs requests and their response mappers on virtual threads instead of the platform thread pool of OkHttp,
+         * this allows a lot more requests to wait on I/O at the same time. Takes priority over
+         * {@link #setExecutor(ExecutorService)}.<br/>
+         * <b>NOTE:</b> requires Java 21 or later, check {@link VirtualThreads#isAvailable()} before enabling this.
+         *
+         * @param virtualThreads
+         *     true to use virtual threads, disabled by default
+         *
+         * @return The builder instance, useful for chaining
+         */
+        public Builder setVirtualThreads(boolean virtualThreads) {
+            this.virtualThreads = virtualThreads;
+            return this;
+        }
+
+        /**
+         * Sets the rate limiter factory that reliqua uses for this instance, defaults to {@code null}
+         *
+         * @param rateLimiterFactory
+         *     the rate limiter factory to use
+         *
+         * @return The builder instance, useful for chaining
+         */
+        public Builder setRateLimiterFactory(@Nullable RateLimiterFactory rateLimiterFactory) {
+            this.rateLimiterFactory = rateLimiterFactory;
+            return this;
+        }
+
+        /**
+         * Sets if the call sites of requests should be tracked for better stack traces, defaults to {@code true}
+         *
+         * @param trackCallSites
+         *     {@code false} to disable tracking of call sites
+         *
+         * @return The builder instance, useful for chaining
+         */
+        public Builder setTrackCallSites(boolean trackCallSites) {
+            this.trackCallSites = trackCallSites;
+            return this;
+        }
+
+        /**
+         * Sets the response cache for this instance
+         *
+         * @param responseCache
+         *     the cache to use, or {@code null} to disable caching (the default)
+         *
+         * @return The builder instance, useful for chaining
+         *
+         * @see WebUtils#setResponseCache(ResponseCache)
+         */
+        public Builder setResponseCache(@Nullable ResponseCache responseCache) {
+            this.responseCache = responseCache;
+            return this;
+        }
+
+        /**
+         * Enables or disables request coalescing for this instance
+         *
+         * @param requestCoalescing
+         *     true to enable request coalescing, disabled by default
+         *
+         * @return The builder instance, useful for chaining
+         *
+         * @see WebUtils#setRequestCoalescing(boolean)
+         */
+        public Builder setRequestCoalescing(boolean requestCoalescing) {
+            this.requestCoalescing = requestCoalescing;
+            return this;
+        }
+
+        /**
+         * Sets the policy that is used to retry requests, disabled by default
+         *
+         * @param retryPolicy
+         *     the default retry policy, or {@code null} to only retry requests that have their own policy
+         *
+         * @return The builder instance, useful for chaining
+         *
+         * @see WebUtils#setRetryPolicy(RetryPolicy)
+         */
+        public Builder setRetryPolicy(@Nullable RetryPolicy retryPolicy) {
+            this.retryPolicy = retryPolicy;
+            return this;
+        }
+
+        /**
+         * Sets the budget that limits the retries of this instance, defaults to retrying at most 10% of the requests
+         * with a reserve of 10 retries
+         *
+         * @param retryBudget
+         *     the retry budget, or {@code null} to use the default
+         *
+         * @return The builder instance, useful for chaining
+         */
+        public Builder setRetryBudget(@Nullable RetryBudget retryBudget) {
+            this.retryBudget = retryBudget;
+            return this;
+        }
+
+        /**
+         * Enables or disables hedging of GET requests for this instance
+         *
+         * @param hedging
+         *     true to hedge requests, disabled by default
+         *
+         * @return The builder instance, useful for chaining
+         *
+         * @see WebUtils#setHedging(boolean)
+         */
+        public Builder setHedging(boolean hedging) {
+            this.hedging = hedging;
+            return this;
+        }
+
+        /**
+         * Sets the config of the per host circuit breakers, disabled by default
+         *
+         * @param circuitBreaker
+         *     the config of the circuit breakers, or {@code null} to disable them
+         *
+         * @return The builder instance, useful for chaining
+         *
+         * @see WebUtils#setCircuitBreaker(CircuitBreakerConfig)
+         */
+        public Builder setCircuitBreaker(@Nullable CircuitBreakerConfig circuitBreaker) {
+            this.circuitBreaker = circuitBreaker;
+            return this;
+        }
+
+        /**
+         * Sets the client side rate limiter of this instance, there are no client side limits by default
+         *
+         * @param clientRateLimiter
+         *     the limiter to use, or {@code null} for no client side limits
+         *
+         * @return The builder instance, useful for chaining
+         *
+         * @see WebUtils#setClientRateLimiter(ClientRateLimiter)
+         */
+        public Builder setClientRateLimiter(@Nullable ClientRateLimiter clientRateLimiter) {
+            this.clientRateLimiter = clientRateLimiter;
+            return this;
+        }
+
+        /**
+         * Sets the recorder that receives the measurements of this instance, nothing is measured by default
+         *
+         * @param metricsRecorder
+         *     the recorder to use
+         *
+         * @return The builder instance, useful for chaining
+         *
+         * @see WebUtils#setMetricsRecorder(MetricsRecorder)
+         */
+        public Builder setMetricsRecorder(MetricsRecorder metricsRecorder) {
+            if (metricsRecorder == null) {
+                throw new IllegalArgumentException("metricsRecorder may not be null, use MetricsRecorder.NO_OP instead");
+            }
+
+            this.metricsRecorder = metricsRecorder;
+            return this;
+        }
+
+        /**
+         * Builds a new {@link WebUtils} instance
+         *
+         * @return a new {@link WebUtils} instance
+         *
+         * @throws IllegalStateException
+         *     when virtual threads are enabled on a jvm that does not support them
+         */
+        @Nonnull
+        public WebUtils build() {
+            return new WebUtils(this);
+        }
+
+        private OkHttpClient createClient() {
+            this.cacheInterceptor = new CacheInterceptor();
+            this.cacheInterceptor.setCache(this.responseCache);
+            this.singleFlightInterceptor = new SingleFlightInterceptor();
+            this.singleFlightInterceptor.setEnabled(this.requestCoalescing);
+            this.retryInterceptor = this.retryBudget == null ? new RetryInterceptor() : new RetryInterceptor(this.retryBudget);
+            this.retryInterceptor.setPolicy(this.retryPolicy);
+            this.hedgingInterceptor = new HedgingInterceptor();
+            this.hedgingInterceptor.setEnabled(this.hedging);
+            this.circuitBreakerInterceptor = new CircuitBreakerInterceptor();
+            this.circuitBreakerInterceptor.setConfig(this.circuitBreaker);
+            this.rateLimitInterceptor = new RateLimitInterceptor();
+            this.rateLimitInterceptor.setLimiter(this.clientRateLimiter);
+            this.hedgingInterceptor.setRateLimiter(this.clientRateLimiter);
+            this.metrics = new WebMetrics();
+            this.metrics.setRecorder(this.metricsRecorder);
+
+            final Dispatcher dispatcher;
+
+            if (this.virtualThreads) {
+                dispatcher = new Dispatcher(VirtualThreads.newExecutor());
+            } else if (this.executor != null) {
+                dispatcher = new Dispatcher(this.executor);
+            } else {
+                dispatcher = new Dispatcher();
+            }
+
+            dispatcher.setMaxRequests(this.maxRequests);
+            dispatcher.setMaxRequestsPerHost(this.maxRequestsPerHost);
+
+            final OkHttpClient.Builder builder = new OkHttpClient.Builder();
+
+            if (this.protocols != null) {
+                builder.protocols(this.protocols);
+            }
+
+            return builder
+                .dispatcher(dispatcher)
+                .connectionPool(new ConnectionPool(this.maxIdleConnections, this.keepAliveMillis, TimeUnit.MILLISECONDS))
+                .connectTimeout(this.connectTimeoutMillis, TimeUnit.MILLISECONDS)
+                .readTimeout(this.readTimeoutMillis, TimeUnit.MILLISECONDS)
+                .writeTimeout(this.writeTimeoutMillis, TimeUnit.MILLISECONDS)
+                .callTimeout(this.callTimeoutMillis, TimeUnit.MILLISECONDS)
+                .eventListenerFactory(this.metrics)
+                .addInterceptor(new MetricsInterceptor(this.metrics))
+                .addInterceptor(new CallBindingInterceptor())
+                .addInterceptor(new ContentDecodingInterceptor())
+                .addInterceptor(this.cacheInterceptor)
+                .addInterceptor(this.singleFlightInterceptor)
+                // below the cache and coalescing so the breakers only see requests that go to the host
+                .addInterceptor(this.circuitBreakerInterceptor)
+                .addInterceptor(this.retryInterceptor)
+                .addInterceptor(this.rateLimitInterceptor)
+                .addInterceptor(this.hedgingInterceptor)
+                .build();
+        }
+    }
 }
@@ -0,0 +1,41 @@
+/*
+ *    Copyright 2026 Duncan "duncte123" Sterken
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package me.duncte123.botcommons.web.async;
+
+import okhttp3.Interceptor;
+import okhttp3.Response;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+
+/**
+ * Application interceptor that binds the {@link CallHandle} of a request to its OkHttp call, this needs to be the
+ * first interceptor of the client so cancelling also stops the work of the other interceptors
+ */
+public class CallBindingInterceptor implements Interceptor {
+    @NotNull
+    @Override
+    public Response intercept(@NotNull Chain chain) throws IOException {
+        final CallHandle handle = chain.request().tag(CallHandle.class);
+
+        if (handle != null) {
+            handle.bind(chain.call());
+        }
+
+        return chain.proceed(chain.request());
+    }
+}
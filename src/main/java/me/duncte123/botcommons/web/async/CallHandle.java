@@ -0,0 +1,89 @@
+/*
+ *    Copyright 2026 Duncan "duncte123" Sterken
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package me.duncte123.botcommons.web.async;
+
+import me.duncte123.botcommons.web.RequestBuilderFunction;
+import okhttp3.Call;
+import okhttp3.Request;
+import org.jetbrains.annotations.NotNull;
+
+import javax.annotation.Nullable;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A handle to the OkHttp {@link Call} of a request, pass it as {@link RequestBuilderFunction} to any getter in
+ * {@link me.duncte123.botcommons.web.WebUtils WebUtils} and call {@link #cancel()} to stop the request and free its
+ * connection.<br/>
+ * A handle can only be used for a single request, cancelling a handle before its request started makes the request
+ * fail as soon as it starts.
+ *
+ * @see RequestFutures
+ * @see RequestPublisher
+ */
+public final class CallHandle implements RequestBuilderFunction {
+    private final AtomicReference<Call> call = new AtomicReference<>();
+    private volatile boolean cancelled = false;
+
+    /**
+     * Cancels the request, does nothing when the request already completed
+     */
+    public void cancel() {
+        this.cancelled = true;
+
+        final Call current = this.call.get();
+
+        if (current != null) {
+            current.cancel();
+        }
+    }
+
+    /**
+     * Checks if this handle was cancelled
+     *
+     * @return true if {@link #cancel()} was called
+     */
+    public boolean isCancelled() {
+        return this.cancelled;
+    }
+
+    /**
+     * Returns the call that this handle is bound to
+     *
+     * @return the call of the request or {@code null} when the request did not start yet
+     */
+    @Nullable
+    public Call getCall() {
+        return this.call.get();
+    }
+
+    void bind(Call call) {
+        if (!this.call.compareAndSet(null, call)) {
+            throw new IllegalStateException("A CallHandle can only be used for a single request");
+        }
+
+        // cancel() may have run before the call was set
+        if (this.cancelled) {
+            call.cancel();
+        }
+    }
+
+    @NotNull
+    @Override
+    public Request.Builder apply(@NotNull Request.Builder builder) {
+        return builder.tag(CallHandle.class, this);
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ *    Copyright 2026 Duncan "duncte123" Sterken
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package me.duncte123.botcommons.web.async;
+
+import com.github.natanbc.reliqua.request.PendingRequest;
+import me.duncte123.botcommons.web.RequestBuilderFunction;
+
+import javax.annotation.Nonnull;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Adapts the {@link PendingRequest}s of {@link me.duncte123.botcommons.web.WebUtils WebUtils} to {@link
+ * CompletableFuture}s.<br/>
+ * Cancelling the future, or completing it exceptionally with for example {@code orTimeout}, cancels the OkHttp call
+ * so the request stops using its connection and no time is spent on parsing a response that nobody is waiting for.
+ *
+ * <pre>{@code
+ * RequestFutures.toFuture((handle) -> WebUtils.ins.getJSONObject(url, null, handle))
+ *     .thenCompose((json) -> RequestFutures.toFuture((handle) ->
+ *         WebUtils.ins.getByteStream(json.get("file").asText(), null, handle)
+ *     ));
+ * }</pre>
+ */
+public final class RequestFutures {
+    private RequestFutures() {}
+
+    /**
+     * Starts a request and returns a future for its result, the function receives a {@link CallHandle} that must be
+     * passed as {@link RequestBuilderFunction} to the getter. Use {@link RequestBuilderFunction#andThen} to combine it
+     * with your own request builder.
+     *
+     * @param request
+     *     function that creates the request with the given handle
+     * @param <T>
+     *     The type of the result
+     *
+     * @return a future that completes with the result of the request
+     */
+    @Nonnull
+    public static <T> CompletableFuture<T> toFuture(@Nonnull Function<? super RequestBuilderFunction, PendingRequest<T>> request) {
+        final CallHandle handle = new CallHandle();
+        final CompletableFuture<T> future = new CompletableFuture<>();
+
+        future.whenComplete((value, error) -> {
+            if (error != null) {
+                handle.cancel();
+            }
+        });
+
+        try {
+            request.apply(handle).async(
+                (value) -> {
+                    if (!future.complete(value)) {
+                        closeQuietly(value);
+                    }
+                },
+                future::completeExceptionally
+            );
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+        }
+
+        return future;
+    }
+
+    /**
+     * Closes results like streams that were delivered after the consumer stopped waiting for them
+     *
+     * @param value
+     *     the result to close
+     */
+    static void closeQuietly(Object value) {
+        if (value instanceof AutoCloseable) {
+            try {
+                ((AutoCloseable) value).close();
+            } catch (Exception ignored) {
+                // nothing we can do
+            }
+        }
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ *    Copyright 2026 Duncan "duncte123" Sterken
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package me.duncte123.botcommons.web.async;
+
+import com.github.natanbc.reliqua.request.PendingRequest;
+import me.duncte123.botcommons.web.RequestBuilderFunction;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import javax.annotation.Nonnull;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+/**
+ * A Reactive Streams {@link Publisher} that emits the result of a request from {@link
+ * me.duncte123.botcommons.web.WebUtils WebUtils}.<br/>
+ * The publisher is cold, every subscriber starts its own request as soon as it requests an item. Cancelling the
+ * subscription cancels the OkHttp call.<br/>
+ * <b>NOTE:</b> requires {@code org.reactivestreams:reactive-streams} on the classpath, it is provided by reactor,
+ * RxJava and most other reactive libraries.
+ *
+ * @param <T>
+ *     The type of the result
+ *
+ * @see RequestFutures
+ */
+public final class RequestPublisher<T> implements Publisher<T> {
+    private final Function<? super RequestBuilderFunction, PendingRequest<T>> request;
+
+    private RequestPublisher(Function<? super RequestBuilderFunction, PendingRequest<T>> request) {
+        this.request = request;
+    }
+
+    /**
+     * Creates a publisher for a request, the function receives a {@link CallHandle} that must be passed as
+     * {@link RequestBuilderFunction} to the getter.
+     *
+     * @param request
+     *     function that creates the request with the given handle
+     * @param <T>
+     *     The type of the result
+     *
+     * @return a publisher that emits the result of the request
+     */
+    @Nonnull
+    public static <T> RequestPublisher<T> of(@Nonnull Function<? super RequestBuilderFunction, PendingRequest<T>> request) {
+        return new RequestPublisher<>(Objects.requireNonNull(request, "request"));
+    }
+
+    @Override
+    public void subscribe(Subscriber<? super T> subscriber) {
+        Objects.requireNonNull(subscriber, "subscriber");
+
+        subscriber.onSubscribe(new RequestSubscription<>(this.request, subscriber));
+    }
+
+    private static final class RequestSubscription<T> implements Subscription {
+        private final CallHandle handle = new CallHandle();
+        private final AtomicBoolean started = new AtomicBoolean();
+        private final AtomicBoolean terminated = new AtomicBoolean();
+        private final Function<? super RequestBuilderFunction, PendingRequest<T>> request;
+        private final Subscriber<? super T> subscriber;
+
+        private RequestSubscription(Function<? super RequestBuilderFunction, PendingRequest<T>> request, Subscriber<? super T> subscriber) {
+            this.request = request;
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0L) {
+                // rule 3.9 of the specification
+                this.error(new IllegalArgumentException("Requested amount must be positive, got " + n));
+                return;
+            }
+
+            if (!this.started.compareAndSet(false, true)) {
+                return;
+            }
+
+            try {
+                this.request.apply(this.handle).async(this::complete, this::error);
+            } catch (RuntimeException e) {
+                this.error(e);
+            }
+        }
+
+        @Override
+        public void cancel() {
+            this.terminated.set(true);
+            this.handle.cancel();
+        }
+
+        private void complete(T value) {
+            if (!this.terminated.compareAndSet(false, true)) {
+                RequestFutures.closeQuietly(value);
+                return;
+            }
+
+            // null is not allowed in onNext, mappers return null for empty responses
+            if (value != null) {
+                this.subscriber.onNext(value);
+            }
+
+            this.subscriber.onComplete();
+        }
+
+        private void error(Throwable error) {
+            if (this.terminated.compareAndSet(false, true)) {
+                this.handle.cancel();
+                this.subscriber.onError(error);
+            }
+        }
+    }
+}
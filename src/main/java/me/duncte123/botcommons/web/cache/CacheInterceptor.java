@@ -0,0 +1,65 @@
+/*
+ *    Copyright 2026 Duncan "duncte123" Sterken
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package me.duncte123.botcommons.web.cache;
+
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.jetbrains.annotations.NotNull;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+
+/**
+ * Application interceptor that serves GET requests from a {@link ResponseCache}, does nothing while no cache is set
+ */
+public class CacheInterceptor implements Interceptor {
+    private volatile ResponseCache cache;
+
+    /**
+     * Returns the cache that is currently used
+     *
+     * @return the current cache or {@code null} when caching is disabled
+     */
+    @Nullable
+    public ResponseCache getCache() {
+        return this.cache;
+    }
+
+    /**
+     * Sets the cache to use
+     *
+     * @param cache
+     *     the cache to use, or {@code null} to disable caching
+     */
+    public void setCache(@Nullable ResponseCache cache) {
+        this.cache = cache;
+    }
+
+    @NotNull
+    @Override
+    public Response intercept(@NotNull Chain chain) throws IOException {
+        final ResponseCache cache = this.cache;
+        final Request request = chain.request();
+
+        if (cache == null || !"GET".equals(request.method())) {
+            return chain.proceed(request);
+        }
+
+        return cache.intercept(chain, request);
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ *    Copyright 2026 Duncan "duncte123" Sterken
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package me.duncte123.botcommons.web.cache;
+
+import me.duncte123.botcommons.web.RequestBuilderFunction;
+import okhttp3.Request;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Decides how a request uses the {@link ResponseCache}.<br/>
+ * Every policy is also a {@link RequestBuilderFunction} so it can be passed straight to the getters in {@link
+ * me.duncte123.botcommons.web.WebUtils WebUtils} to override the default policy of the cache for a single request.
+ */
+public enum CachePolicy implements RequestBuilderFunction {
+    /**
+     * Never read from or write to the cache
+     */
+    NETWORK_ONLY,
+    /**
+     * Always ask the server if the cached response is still valid with a conditional request ({@code If-None-Match}
+     * or {@code If-Modified-Since}), the cached body is used when the server answers with {@code 304 Not Modified}
+     */
+    REVALIDATE,
+    /**
+     * Use the cached response without a request while it is fresh according to its {@code Cache-Control: max-age},
+     * revalidate it when it is stale
+     */
+    PREFER_CACHE,
+    /**
+     * Only use the cache, a {@code 504 Unsatisfiable Request} is returned when nothing is cached
+     */
+    CACHE_ONLY;
+
+    @NotNull
+    @Override
+    public Request.Builder apply(@NotNull Request.Builder builder) {
+        return builder.tag(CachePolicy.class, this);
+    }
+}
@@ -0,0 +1,478 @@
+/*
+ *    Copyright 2026 Duncan "duncte123" Sterken
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package me.duncte123.botcommons.web.cache;
+
+import okhttp3.*;
+import okio.BufferedSource;
+import okio.ByteString;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * An in-memory, size bound LRU cache for GET responses.<br/>
+ * Only {@code 200} responses that have an {@code ETag}, a {@code Last-Modified} header or a {@code max-age} are
+ * stored, the {@code Vary} header of the response is respected. Responses are cached per {@code Authorization} and
+ * {@code Cookie} header, so a response is never served to a request with other credentials.
+ *
+ * @see CachePolicy
+ * @see me.duncte123.botcommons.web.WebUtils#setResponseCache(ResponseCache)
+ */
+public class ResponseCache {
+    // responses to requests with credentials are only served to requests with the same credentials
+    private static final String[] KEY_HEADERS = {"Authorization", "Cookie"};
+
+    private final long maxSize;
+    private final long maxEntrySize;
+    private final Map<String, Entry> entries = new LinkedHashMap<>(16, 0.75F, true);
+    private long size = 0;
+    private volatile CachePolicy defaultPolicy = CachePolicy.REVALIDATE;
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder conditionalHitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+
+    /**
+     * Creates a new cache, single responses may take up to a quarter of the cache
+     *
+     * @param maxSize
+     *     The maximum amount of bytes that this cache may hold
+     */
+    public ResponseCache(long maxSize) {
+        this(maxSize, maxSize / 4);
+    }
+
+    /**
+     * Creates a new cache
+     *
+     * @param maxSize
+     *     The maximum amount of bytes that this cache may hold
+     * @param maxEntrySize
+     *     The maximum size of a single response body, larger responses are never cached
+     */
+    public ResponseCache(long maxSize, long maxEntrySize) {
+        if (maxSize <= 0 || maxEntrySize <= 0) {
+            throw new IllegalArgumentException("maxSize and maxEntrySize must be positive");
+        }
+
+        this.maxSize = maxSize;
+        this.maxEntrySize = Math.min(maxSize, maxEntrySize);
+    }
+
+    /**
+     * Returns the policy that is used for requests that don't specify their own policy
+     *
+     * @return the default cache policy
+     */
+    public CachePolicy getDefaultPolicy() {
+        return this.defaultPolicy;
+    }
+
+    /**
+     * Sets the policy that is used for requests that don't specify their own policy, defaults to {@link
+     * CachePolicy#REVALIDATE}
+     *
+     * @param defaultPolicy
+     *     the new default policy
+     *
+     * @return this cache, useful for chaining
+     */
+    public ResponseCache setDefaultPolicy(CachePolicy defaultPolicy) {
+        if (defaultPolicy == null) {
+            throw new IllegalArgumentException("defaultPolicy may not be null");
+        }
+
+        this.defaultPolicy = defaultPolicy;
+        return this;
+    }
+
+    /**
+     * Returns the amount of responses that were served from the cache without contacting the server
+     *
+     * @return the amount of cache hits
+     */
+    public long getHitCount() {
+        return this.hitCount.sum();
+    }
+
+    /**
+     * Returns the amount of responses that were served from the cache after the server confirmed that they were
+     * not modified
+     *
+     * @return the amount of successful revalidations
+     */
+    public long getConditionalHitCount() {
+        return this.conditionalHitCount.sum();
+    }
+
+    /**
+     * Returns the amount of requests where the full response had to be downloaded
+     *
+     * @return the amount of cache misses
+     */
+    public long getMissCount() {
+        return this.missCount.sum();
+    }
+
+    /**
+     * Returns the amount of bytes that are currently cached
+     *
+     * @return the current size of the cache in bytes
+     */
+    public synchronized long getSize() {
+        return this.size;
+    }
+
+    /**
+     * Returns the maximum amount of bytes that this cache may hold
+     *
+     * @return the maximum size of the cache in bytes
+     */
+    public long getMaxSize() {
+        return this.maxSize;
+    }
+
+    /**
+     * Removes the cached responses for this url, for all credentials
+     *
+     * @param url
+     *     the url to remove from the cache
+     */
+    public synchronized void invalidate(String url) {
+        final String prefix = url + '\n';
+        final Iterator<Map.Entry<String, Entry>> iterator = this.entries.entrySet().iterator();
+
+        while (iterator.hasNext()) {
+            final Map.Entry<String, Entry> next = iterator.next();
+
+            if (next.getKey().equals(url) || next.getKey().startsWith(prefix)) {
+                this.size -= next.getValue().size;
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Removes all the cached responses
+     */
+    public synchronized void clear() {
+        this.entries.clear();
+        this.size = 0;
+    }
+
+    Response intercept(Interceptor.Chain chain, Request request) throws IOException {
+        final CachePolicy tagged = request.tag(CachePolicy.class);
+        final CachePolicy policy = tagged == null ? this.defaultPolicy : tagged;
+
+        // requests that bring their own conditions want to see the 304 themselves
+        if (policy == CachePolicy.NETWORK_ONLY ||
+            request.header("If-None-Match") != null || request.header("If-Modified-Since") != null) {
+            return chain.proceed(request);
+        }
+
+        final String key = keyFor(request);
+        final Entry entry = this.get(key, request);
+
+        if (entry == null) {
+            this.missCount.increment();
+
+            if (policy == CachePolicy.CACHE_ONLY) {
+                return unsatisfiable(request);
+            }
+
+            return this.store(key, request, chain.proceed(request));
+        }
+
+        if (policy == CachePolicy.CACHE_ONLY ||
+            (policy == CachePolicy.PREFER_CACHE && entry.isFresh(System.currentTimeMillis()))) {
+            this.hitCount.increment();
+            return entry.toResponse(request);
+        }
+
+        final Request conditional = entry.toConditionalRequest(request);
+
+        if (conditional == null) {
+            this.missCount.increment();
+            return this.store(key, request, chain.proceed(request));
+        }
+
+        final Response network = chain.proceed(conditional);
+
+        if (network.code() != 304) {
+            this.missCount.increment();
+            return this.store(key, request, network);
+        }
+
+        network.close();
+
+        final Entry updated = entry.revalidated(network);
+
+        this.put(key, updated);
+        this.conditionalHitCount.increment();
+
+        return updated.toResponse(request);
+    }
+
+    private static String keyFor(Request request) {
+        final StringBuilder builder = new StringBuilder(request.url().toString());
+
+        for (final String header : KEY_HEADERS) {
+            for (final String value : request.headers(header)) {
+                builder.append('\n').append(header).append(": ").append(value);
+            }
+        }
+
+        return builder.toString();
+    }
+
+    @Nullable
+    private synchronized Entry get(String key, Request request) {
+        final Entry entry = this.entries.get(key);
+
+        if (entry == null || !entry.matchesVary(request)) {
+            return null;
+        }
+
+        return entry;
+    }
+
+    private synchronized void remove(String key) {
+        final Entry removed = this.entries.remove(key);
+
+        if (removed != null) {
+            this.size -= removed.size;
+        }
+    }
+
+    private synchronized void put(String key, Entry entry) {
+        final Entry old = this.entries.put(key, entry);
+
+        if (old != null) {
+            this.size -= old.size;
+        }
+
+        this.size += entry.size;
+
+        final Iterator<Entry> iterator = this.entries.values().iterator();
+
+        // the map is in access order so the first entries are the least recently used ones
+        while (this.size > this.maxSize && iterator.hasNext()) {
+            this.size -= iterator.next().size;
+            iterator.remove();
+        }
+    }
+
+    private Response store(String key, Request request, Response response) throws IOException {
+        final ResponseBody body = response.body();
+        final CacheControl cacheControl = response.cacheControl();
+
+        if (response.code() != 200 || body == null || cacheControl.noStore() || "*".equals(response.header("Vary"))) {
+            this.remove(key);
+            return response;
+        }
+
+        final boolean hasValidators = response.header("ETag") != null || response.header("Last-Modified") != null;
+
+        if (!hasValidators && cacheControl.maxAgeSeconds() <= 0) {
+            return response;
+        }
+
+        if (body.contentLength() > this.maxEntrySize) {
+            return response;
+        }
+
+        final BufferedSource source = body.source();
+
+        // this buffers the body without consuming it, the response can still be read normally when it is too big
+        if (source.request(this.maxEntrySize + 1)) {
+            return response;
+        }
+
+        final ByteString bytes = source.readByteString();
+        final MediaType contentType = body.contentType();
+
+        response.close();
+
+        final Entry entry = new Entry(request, response, bytes, contentType);
+
+        this.put(key, entry);
+
+        return response.newBuilder()
+            .body(ResponseBody.create(bytes, contentType))
+            .build();
+    }
+
+    private static Response unsatisfiable(Request request) {
+        return new Response.Builder()
+            .request(request)
+            .protocol(Protocol.HTTP_1_1)
+            .code(504)
+            .message("Unsatisfiable Request (only-if-cached)")
+            .body(ResponseBody.create(new byte[0], null))
+            .sentRequestAtMillis(-1L)
+            .receivedResponseAtMillis(System.currentTimeMillis())
+            .build();
+    }
+
+    private static final class Entry {
+        private final Protocol protocol;
+        private final String message;
+        private final Headers headers;
+        private final Set<String> varyNames;
+        private final Headers varyValues;
+        private final ByteString body;
+        private final MediaType contentType;
+        private final long receivedAt;
+        private final long size;
+
+        Entry(Request request, Response response, ByteString body, MediaType contentType) {
+            this(
+                response.protocol(),
+                response.message(),
+                response.headers(),
+                varyNames(response.headers()),
+                request.headers(),
+                body,
+                contentType,
+                System.currentTimeMillis()
+            );
+        }
+
+        private Entry(Protocol protocol, String message, Headers headers, Set<String> varyNames, Headers requestHeaders,
+                      ByteString body, MediaType contentType, long receivedAt) {
+            this.protocol = protocol;
+            this.message = message;
+            this.headers = headers;
+            this.varyNames = varyNames;
+            this.varyValues = varyValues(varyNames, requestHeaders);
+            this.body = body;
+            this.contentType = contentType;
+            this.receivedAt = receivedAt;
+            this.size = body.size() + headers.byteCount();
+        }
+
+        boolean matchesVary(Request request) {
+            for (final String name : this.varyNames) {
+                if (!this.varyValues.values(name).equals(request.headers(name))) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+
+        boolean isFresh(long now) {
+            final CacheControl cacheControl = CacheControl.parse(this.headers);
+
+            return !cacheControl.noCache() && cacheControl.maxAgeSeconds() > 0 &&
+                now - this.receivedAt < cacheControl.maxAgeSeconds() * 1000L;
+        }
+
+        @Nullable
+        Request toConditionalRequest(Request request) {
+            final String etag = this.headers.get("ETag");
+            final String lastModified = this.headers.get("Last-Modified");
+
+            if (etag != null) {
+                return request.newBuilder().header("If-None-Match", etag).build();
+            }
+
+            if (lastModified != null) {
+                return request.newBuilder().header("If-Modified-Since", lastModified).build();
+            }
+
+            return null;
+        }
+
+        Entry revalidated(Response notModified) {
+            final Headers.Builder merged = this.headers.newBuilder();
+            final Headers updates = notModified.headers();
+
+            for (final String name : updates.names()) {
+                // these describe the (empty) 304 body, not the one we have cached
+                if ("Content-Length".equalsIgnoreCase(name) || "Content-Encoding".equalsIgnoreCase(name) ||
+                    "Content-Type".equalsIgnoreCase(name)) {
+                    continue;
+                }
+
+                merged.removeAll(name);
+
+                for (final String value : updates.values(name)) {
+                    merged.add(name, value);
+                }
+            }
+
+            return new Entry(
+                this.protocol,
+                this.message,
+                merged.build(),
+                this.varyNames,
+                this.varyValues,
+                this.body,
+                this.contentType,
+                System.currentTimeMillis()
+            );
+        }
+
+        Response toResponse(Request request) {
+            return new Response.Builder()
+                .request(request)
+                .protocol(this.protocol)
+                .code(200)
+                .message(this.message)
+                .headers(this.headers)
+                .body(ResponseBody.create(this.body, this.contentType))
+                .sentRequestAtMillis(this.receivedAt)
+                .receivedResponseAtMillis(this.receivedAt)
+                .build();
+        }
+
+        private static Set<String> varyNames(Headers responseHeaders) {
+            final Set<String> names = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+
+            for (final String vary : responseHeaders.values("Vary")) {
+                for (final String name : vary.split(",")) {
+                    final String trimmed = name.trim();
+
+                    if (!trimmed.isEmpty()) {
+                        names.add(trimmed);
+                    }
+                }
+            }
+
+            return names;
+        }
+
+        private static Headers varyValues(Set<String> varyNames, Headers requestHeaders) {
+            final Headers.Builder builder = new Headers.Builder();
+
+            for (final String name : varyNames) {
+                for (final String value : requestHeaders.values(name)) {
+                    builder.add(name, value);
+                }
+            }
+
+            return builder.build();
+        }
+    }
+}
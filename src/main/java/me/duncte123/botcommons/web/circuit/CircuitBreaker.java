@@ -0,0 +1,145 @@
+/*
+ *    Copyright 2026 Duncan "duncte123" Sterken
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package me.duncte123.botcommons.web.circuit;
+
+import javax.annotation.Nullable;
+
+/**
+ * The circuit breaker of a single host, the outcomes of the recent requests are kept in a ring buffer
+ */
+class CircuitBreaker {
+    static final long ALLOWED = -1L;
+    static final long ALLOWED_AFTER_HALF_OPEN = -2L;
+
+    private final CircuitBreakerConfig config;
+    private final boolean[] failed;
+    private int index = 0;
+    private int count = 0;
+    private int failures = 0;
+    private CircuitState state = CircuitState.CLOSED;
+    private long openedAt = 0L;
+    private int trialsStarted = 0;
+    private int trialsSucceeded = 0;
+
+    CircuitBreaker(CircuitBreakerConfig config) {
+        this.config = config;
+        this.failed = new boolean[config.getWindowSize()];
+    }
+
+    synchronized CircuitState getState() {
+        return this.state;
+    }
+
+    /**
+     * Checks if a request may be sent
+     *
+     * @return {@link #ALLOWED} if the request may be sent, {@link #ALLOWED_AFTER_HALF_OPEN} if the breaker just
+     * became half-open for this request, otherwise the time in milliseconds until trial requests are allowed
+     */
+    synchronized long tryAcquire(long now) {
+        boolean halfOpened = false;
+
+        if (this.state == CircuitState.OPEN) {
+            final long remaining = this.openedAt + this.config.getOpenDurationMillis() - now;
+
+            if (remaining > 0L) {
+                return remaining;
+            }
+
+            this.state = CircuitState.HALF_OPEN;
+            this.trialsStarted = 0;
+            this.trialsSucceeded = 0;
+            halfOpened = true;
+        }
+
+        if (this.state == CircuitState.HALF_OPEN) {
+            if (this.trialsStarted >= this.config.getHalfOpenRequests()) {
+                return 0L;
+            }
+
+            this.trialsStarted++;
+        }
+
+        return halfOpened ? ALLOWED_AFTER_HALF_OPEN : ALLOWED;
+    }
+
+    /**
+     * Records the outcome of a request
+     *
+     * @return the state before the change, or {@code null} when the state did not change
+     */
+    @Nullable
+    synchronized CircuitState onResult(boolean success, long now) {
+        final CircuitState previous = this.state;
+
+        if (this.state == CircuitState.HALF_OPEN) {
+            if (!success) {
+                this.open(now);
+            } else if (++this.trialsSucceeded >= this.config.getHalfOpenRequests()) {
+                this.close();
+            }
+        } else if (this.state == CircuitState.CLOSED) {
+            this.record(!success);
+
+            if (this.count >= this.config.getMinimumRequests() &&
+                this.failures * 100 >= this.config.getFailureRateThreshold() * this.count) {
+                this.open(now);
+            }
+        }
+
+        return previous == this.state ? null : previous;
+    }
+
+    /**
+     * Gives back the trial permit of a request that had no outcome, for example because it was cancelled
+     */
+    synchronized void onIgnored() {
+        if (this.state == CircuitState.HALF_OPEN && this.trialsStarted > 0) {
+            this.trialsStarted--;
+        }
+    }
+
+    private void record(boolean failure) {
+        if (this.count == this.failed.length) {
+            if (this.failed[this.index]) {
+                this.failures--;
+            }
+        } else {
+            this.count++;
+        }
+
+        this.failed[this.index] = failure;
+
+        if (failure) {
+            this.failures++;
+        }
+
+        this.index = (this.index + 1) % this.failed.length;
+    }
+
+    private void open(long now) {
+        this.state = CircuitState.OPEN;
+        this.openedAt = now;
+    }
+
+    private void close() {
+        this.state = CircuitState.CLOSED;
+        this.index = 0;
+        this.count = 0;
+        this.failures = 0;
+    }
+}
@@ -0,0 +1,212 @@
+/*
+ *    Copyright 2026 Duncan "duncte123" Sterken
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package me.duncte123.botcommons.web.circuit;
+
+import javax.annotation.Nonnull;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Configuration for the circuit breakers of {@link CircuitBreakerInterceptor}.<br/>
+ * The breaker of a host opens when at least {@code failureRateThreshold} percent of the last {@code windowSize}
+ * requests failed, connection failures and {@code 5xx} responses count as failures.
+ */
+public final class CircuitBreakerConfig {
+    /**
+     * Opens when half of the last 20 requests failed (with at least 10 requests), stays open for 30 seconds and then
+     * lets 3 trial requests through
+     */
+    public static final CircuitBreakerConfig DEFAULT = builder().build();
+
+    private final int windowSize;
+    private final int minimumRequests;
+    private final int failureRateThreshold;
+    private final long openDurationMillis;
+    private final int halfOpenRequests;
+
+    private CircuitBreakerConfig(Builder builder) {
+        this.windowSize = builder.windowSize;
+        this.minimumRequests = Math.min(builder.minimumRequests, builder.windowSize);
+        this.failureRateThreshold = builder.failureRateThreshold;
+        this.openDurationMillis = builder.openDurationMillis;
+        this.halfOpenRequests = builder.halfOpenRequests;
+    }
+
+    /**
+     * Creates a builder for a new config, the defaults are the same as {@link #DEFAULT}
+     *
+     * @return a new builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Returns the amount of recent requests that the failure rate is calculated over
+     *
+     * @return the size of the window
+     */
+    public int getWindowSize() {
+        return this.windowSize;
+    }
+
+    /**
+     * Returns the amount of requests that is needed before the breaker can open
+     *
+     * @return the minimum amount of requests
+     */
+    public int getMinimumRequests() {
+        return this.minimumRequests;
+    }
+
+    /**
+     * Returns the percentage of failed requests at which the breaker opens
+     *
+     * @return the failure rate in percent
+     */
+    public int getFailureRateThreshold() {
+        return this.failureRateThreshold;
+    }
+
+    /**
+     * Returns how long the breaker stays open before trial requests are sent
+     *
+     * @return the open duration in milliseconds
+     */
+    public long getOpenDurationMillis() {
+        return this.openDurationMillis;
+    }
+
+    /**
+     * Returns the amount of trial requests in the half-open state
+     *
+     * @return the amount of trial requests
+     */
+    public int getHalfOpenRequests() {
+        return this.halfOpenRequests;
+    }
+
+    /**
+     * Builder for {@link CircuitBreakerConfig}
+     */
+    public static class Builder {
+        private int windowSize = 20;
+        private int minimumRequests = 10;
+        private int failureRateThreshold = 50;
+        private long openDurationMillis = TimeUnit.SECONDS.toMillis(30L);
+        private int halfOpenRequests = 3;
+
+        private Builder() {}
+
+        /**
+         * Sets the amount of recent requests that the failure rate is calculated over, defaults to 20
+         *
+         * @param windowSize
+         *     the amount of requests in the window
+         *
+         * @return The builder instance, useful for chaining
+         */
+        public Builder setWindowSize(int windowSize) {
+            if (windowSize < 1) {
+                throw new IllegalArgumentException("windowSize must be positive");
+            }
+
+            this.windowSize = windowSize;
+            return this;
+        }
+
+        /**
+         * Sets the amount of requests that is needed before the breaker can open, defaults to 10
+         *
+         * @param minimumRequests
+         *     the minimum amount of requests, capped to the window size
+         *
+         * @return The builder instance, useful for chaining
+         */
+        public Builder setMinimumRequests(int minimumRequests) {
+            if (minimumRequests < 1) {
+                throw new IllegalArgumentException("minimumRequests must be positive");
+            }
+
+            this.minimumRequests = minimumRequests;
+            return this;
+        }
+
+        /**
+         * Sets the percentage of failed requests at which the breaker opens, defaults to 50
+         *
+         * @param failureRateThreshold
+         *     the failure rate in percent, between 1 and 100
+         *
+         * @return The builder instance, useful for chaining
+         */
+        public Builder setFailureRateThreshold(int failureRateThreshold) {
+            if (failureRateThreshold < 1 || failureRateThreshold > 100) {
+                throw new IllegalArgumentException("failureRateThreshold must be between 1 and 100");
+            }
+
+            this.failureRateThreshold = failureRateThreshold;
+            return this;
+        }
+
+        /**
+         * Sets how long the breaker stays open before trial requests are sent, defaults to 30 seconds
+         *
+         * @param duration
+         *     the time the breaker stays open
+         * @param unit
+         *     the unit of the duration
+         *
+         * @return The builder instance, useful for chaining
+         */
+        public Builder setOpenDuration(long duration, @Nonnull TimeUnit unit) {
+            if (duration < 0L) {
+                throw new IllegalArgumentException("duration may not be negative");
+            }
+
+            this.openDurationMillis = unit.toMillis(duration);
+            return this;
+        }
+
+        /**
+         * Sets the amount of trial requests in the half-open state, the breaker closes when all of them succeed and
+         * opens again when one of them fails. Defaults to 3
+         *
+         * @param halfOpenRequests
+         *     the amount of trial requests
+         *
+         * @return The builder instance, useful for chaining
+         */
+        public Builder setHalfOpenRequests(int halfOpenRequests) {
+            if (halfOpenRequests < 1) {
+                throw new IllegalArgumentException("halfOpenRequests must be positive");
+            }
+
+            this.halfOpenRequests = halfOpenRequests;
+            return this;
+        }
+
+        /**
+         * Builds the config
+         *
+         * @return a new circuit breaker config
+         */
+        @Nonnull
+        public CircuitBreakerConfig build() {
+            return new CircuitBreakerConfig(this);
+        }
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ *    Copyright 2026 Duncan "duncte123" Sterken
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package me.duncte123.botcommons.web.circuit;
+
+import me.duncte123.botcommons.web.ratelimit.RateLimitExceededException;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.jetbrains.annotations.NotNull;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Application interceptor that keeps a circuit breaker per host, does nothing while no config is set.<br/>
+ * When the breaker of a host is open requests fail right away with a {@link CircuitBreakerOpenException} instead of
+ * waiting for the connect and read timeouts of a host that is down.
+ */
+public class CircuitBreakerInterceptor implements Interceptor {
+    private final ConcurrentMap<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+    private final List<CircuitBreakerListener> listeners = new CopyOnWriteArrayList<>();
+    private volatile CircuitBreakerConfig config;
+
+    /**
+     * Returns the config of the circuit breakers
+     *
+     * @return the current config or {@code null} when the circuit breakers are disabled
+     */
+    @Nullable
+    public CircuitBreakerConfig getConfig() {
+        return this.config;
+    }
+
+    /**
+     * Sets the config of the circuit breakers, changing the config resets all breakers
+     *
+     * @param config
+     *     the config to use, or {@code null} to disable the circuit breakers
+     */
+    public void setConfig(@Nullable CircuitBreakerConfig config) {
+        this.config = config;
+        this.breakers.clear();
+    }
+
+    /**
+     * Adds a listener that is called when a circuit breaker changes state
+     *
+     * @param listener
+     *     the listener to add
+     */
+    public void addListener(@Nonnull CircuitBreakerListener listener) {
+        this.listeners.add(listener);
+    }
+
+    /**
+     * Removes a listener
+     *
+     * @param listener
+     *     the listener to remove
+     */
+    public void removeListener(@Nonnull CircuitBreakerListener listener) {
+        this.listeners.remove(listener);
+    }
+
+    /**
+     * Returns the state of the circuit breaker of a host
+     *
+     * @param host
+     *     the host to check
+     *
+     * @return the state of the breaker, {@link CircuitState#CLOSED} for hosts without requests
+     */
+    @Nonnull
+    public CircuitState getState(@Nonnull String host) {
+        final CircuitBreaker breaker = this.breakers.get(host);
+
+        return breaker == null ? CircuitState.CLOSED : breaker.getState();
+    }
+
+    @NotNull
+    @Override
+    public Response intercept(@NotNull Chain chain) throws IOException {
+        final CircuitBreakerConfig config = this.config;
+        final Request request = chain.request();
+
+        if (config == null) {
+            return chain.proceed(request);
+        }
+
+        final String host = request.url().host();
+        final CircuitBreaker breaker = this.breakers.computeIfAbsent(host, (key) -> new CircuitBreaker(config));
+        final long retryAfter = breaker.tryAcquire(System.currentTimeMillis());
+
+        if (retryAfter == CircuitBreaker.ALLOWED_AFTER_HALF_OPEN) {
+            this.notifyListeners(host, CircuitState.OPEN, CircuitState.HALF_OPEN);
+        } else if (retryAfter != CircuitBreaker.ALLOWED) {
+            throw new CircuitBreakerOpenException(host, retryAfter);
+        }
+
+        final Response response;
+
+        try {
+            response = chain.proceed(request);
+        } catch (IOException e) {
+            // a client side rate limit rejection never reached the host
+            if (chain.call().isCanceled() || e instanceof RateLimitExceededException) {
+                breaker.onIgnored();
+            } else {
+                this.onResult(host, breaker, false);
+            }
+
+            throw e;
+        } catch (RuntimeException e) {
+            breaker.onIgnored();
+            throw e;
+        }
+
+        this.onResult(host, breaker, response.code() < 500);
+
+        return response;
+    }
+
+    private void onResult(String host, CircuitBreaker breaker, boolean success) {
+        final CircuitState previous = breaker.onResult(success, System.currentTimeMillis());
+
+        if (previous != null) {
+            this.notifyListeners(host, previous, breaker.getState());
+        }
+    }
+
+    private void notifyListeners(String host, CircuitState from, CircuitState to) {
+        for (final CircuitBreakerListener listener : this.listeners) {
+            try {
+                listener.onStateChange(host, from, to);
+            } catch (RuntimeException ignored) {
+                // a broken listener should not fail the request
+            }
+        }
+    }
+}
@@ -0,0 +1,38 @@
+/*
+ *    Copyright 2026 Duncan "duncte123" Sterken
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package me.duncte123.botcommons.web.circuit;
+
+/**
+ * Listener for state changes of the circuit breakers
+ *
+ * @see CircuitBreakerInterceptor#addListener(CircuitBreakerListener)
+ */
+@FunctionalInterface
+public interface CircuitBreakerListener {
+    /**
+     * Called when the circuit breaker of a host changes state, this is called on the thread of the request that
+     * caused the change so it should return quickly
+     *
+     * @param host
+     *     the host of the circuit breaker
+     * @param from
+     *     the previous state
+     * @param to
+     *     the new state
+     */
+    void onStateChange(String host, CircuitState from, CircuitState to);
+}
@@ -0,0 +1,54 @@
+/*
+ *    Copyright 2026 Duncan "duncte123" Sterken
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package me.duncte123.botcommons.web.circuit;
+
+import java.io.IOException;
+
+/**
+ * Thrown when a request is not sent because the circuit breaker of its host is open, the request failed right away
+ * instead of waiting for a host that is most likely down
+ */
+public class CircuitBreakerOpenException extends IOException {
+    private static final long serialVersionUID = 1L;
+
+    private final String host;
+    private final long retryAfterMillis;
+
+    public CircuitBreakerOpenException(String host, long retryAfterMillis) {
+        super("Circuit breaker for " + host + " is open, trying again in " + retryAfterMillis + "ms");
+        this.host = host;
+        this.retryAfterMillis = retryAfterMillis;
+    }
+
+    /**
+     * Returns the host that the request was for
+     *
+     * @return the host of the open circuit breaker
+     */
+    public String getHost() {
+        return this.host;
+    }
+
+    /**
+     * Returns how long it takes before the circuit breaker lets trial requests through
+     *
+     * @return the time in milliseconds until the breaker becomes half-open
+     */
+    public long getRetryAfterMillis() {
+        return this.retryAfterMillis;
+    }
+}
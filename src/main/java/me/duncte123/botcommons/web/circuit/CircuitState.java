@@ -0,0 +1,35 @@
+/*
+ *    Copyright 2026 Duncan "duncte123" Sterken
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package me.duncte123.botcommons.web.circuit;
+
+/**
+ * The states of a circuit breaker
+ */
+public enum CircuitState {
+    /**
+     * Requests are sent and their results are recorded
+     */
+    CLOSED,
+    /**
+     * Too many requests failed, requests fail right away with a {@link CircuitBreakerOpenException}
+     */
+    OPEN,
+    /**
+     * The open duration passed, a few trial requests are sent to check if the host recovered
+     */
+    HALF_OPEN
+}
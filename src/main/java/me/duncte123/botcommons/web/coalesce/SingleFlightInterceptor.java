@@ -0,0 +1,248 @@
+/*
+ *    Copyright 2026 Duncan "duncte123" Sterken
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package me.duncte123.botcommons.web.coalesce;
+
+import okhttp3.*;
+import okio.BufferedSource;
+import okio.ByteString;
+import org.jetbrains.annotations.NotNull;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Application interceptor that lets identical GET and HEAD requests that are in-flight at the same time share a
+ * single network call.<br/>
+ * The first request goes to the server, requests that come in while it is running wait for its response and get a
+ * copy of it. Bodies that are larger than the configured limit are not shared, the waiting requests will then do
+ * their own call. Range and conditional requests are never coalesced unless they have a custom {@link SingleFlightKey}.
+ *
+ * @see SingleFlightKey
+ * @see me.duncte123.botcommons.web.WebUtils#setRequestCoalescing(boolean)
+ */
+public class SingleFlightInterceptor implements Interceptor {
+    private static final String[] KEY_HEADERS = {"Accept", "Authorization", "Cookie"};
+    // the response to these depends on what the caller already has, a 206 or 304 can't be shared with a plain request
+    private static final String[] UNSHARED_HEADERS = {
+        "Range", "If-Range", "If-None-Match", "If-Modified-Since", "If-Match", "If-Unmodified-Since"
+    };
+
+    private final ConcurrentMap<String, CompletableFuture<SharedResponse>> flights = new ConcurrentHashMap<>();
+    private final LongAdder coalescedCount = new LongAdder();
+    private final long maxBodySize;
+    private volatile boolean enabled = false;
+
+    /**
+     * Creates a new interceptor that shares bodies up to 1MB
+     */
+    public SingleFlightInterceptor() {
+        this(1024 * 1024);
+    }
+
+    /**
+     * Creates a new interceptor
+     *
+     * @param maxBodySize
+     *     The maximum size of a body that will be shared between requests
+     */
+    public SingleFlightInterceptor(long maxBodySize) {
+        this.maxBodySize = maxBodySize;
+    }
+
+    /**
+     * Returns true when requests are being coalesced
+     *
+     * @return true when requests are being coalesced
+     */
+    public boolean isEnabled() {
+        return this.enabled;
+    }
+
+    /**
+     * Enables or disables the coalescing of requests, disabled by default
+     *
+     * @param enabled
+     *     true to enable request coalescing
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Returns the amount of requests that were served with the response of another in-flight request
+     *
+     * @return the amount of requests that did not need their own network call
+     */
+    public long getCoalescedCount() {
+        return this.coalescedCount.sum();
+    }
+
+    /**
+     * Returns the amount of requests that are currently in-flight and can be joined
+     *
+     * @return the amount of in-flight requests
+     */
+    public int getInFlightCount() {
+        return this.flights.size();
+    }
+
+    @NotNull
+    @Override
+    public Response intercept(@NotNull Chain chain) throws IOException {
+        final Request request = chain.request();
+        final String key = this.enabled ? keyFor(request) : null;
+
+        if (key == null) {
+            return chain.proceed(request);
+        }
+
+        final CompletableFuture<SharedResponse> flight = new CompletableFuture<>();
+        final CompletableFuture<SharedResponse> existing = this.flights.putIfAbsent(key, flight);
+
+        if (existing != null) {
+            final SharedResponse shared = await(existing, chain.call());
+
+            // the leader could not share its response, do our own call
+            if (shared == null) {
+                return chain.proceed(request);
+            }
+
+            this.coalescedCount.increment();
+            return shared.toResponse(request);
+        }
+
+        try {
+            final Response response = chain.proceed(request);
+            final SharedResponse shared = SharedResponse.buffer(response, this.maxBodySize);
+
+            flight.complete(shared);
+
+            return shared == null ? response : shared.toResponse(request);
+        } catch (IOException | RuntimeException e) {
+            if (chain.call().isCanceled()) {
+                // only this call was canceled, the others can still try on their own
+                flight.complete(null);
+            } else {
+                flight.completeExceptionally(e);
+            }
+
+            throw e;
+        } finally {
+            this.flights.remove(key, flight);
+        }
+    }
+
+    @Nullable
+    private static String keyFor(Request request) {
+        final SingleFlightKey tagged = request.tag(SingleFlightKey.class);
+
+        if (tagged != null) {
+            return tagged.getKey();
+        }
+
+        final String method = request.method();
+
+        if (!"GET".equals(method) && !"HEAD".equals(method)) {
+            return null;
+        }
+
+        for (final String header : UNSHARED_HEADERS) {
+            if (request.header(header) != null) {
+                return null;
+            }
+        }
+
+        final StringBuilder builder = new StringBuilder(method).append(' ').append(request.url());
+
+        for (final String header : KEY_HEADERS) {
+            for (final String value : request.headers(header)) {
+                builder.append('\n').append(header).append(": ").append(value);
+            }
+        }
+
+        return builder.toString();
+    }
+
+    @Nullable
+    private static SharedResponse await(CompletableFuture<SharedResponse> flight, Call call) throws IOException {
+        while (true) {
+            if (call.isCanceled()) {
+                throw new IOException("Canceled");
+            }
+
+            try {
+                return flight.get(100L, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException ignored) {
+                // check if we got canceled in the meantime
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for an identical request");
+            } catch (ExecutionException e) {
+                throw new IOException("Identical in-flight request failed: " + e.getCause().getMessage(), e.getCause());
+            }
+        }
+    }
+
+    private static final class SharedResponse {
+        private final Response response;
+        private final ByteString body;
+        private final MediaType contentType;
+
+        private SharedResponse(Response response, ByteString body, MediaType contentType) {
+            this.response = response;
+            this.body = body;
+            this.contentType = contentType;
+        }
+
+        Response toResponse(Request request) {
+            return this.response.newBuilder()
+                .request(request)
+                .body(ResponseBody.create(this.body, this.contentType))
+                .build();
+        }
+
+        @Nullable
+        static SharedResponse buffer(Response response, long maxBodySize) throws IOException {
+            final ResponseBody body = response.body();
+
+            if (body == null) {
+                return null;
+            }
+
+            if (body.contentLength() > maxBodySize) {
+                return null;
+            }
+
+            final BufferedSource source = body.source();
+
+            // buffers without consuming, the response is still readable when it turns out to be too big
+            if (source.request(maxBodySize + 1)) {
+                return null;
+            }
+
+            final ByteString bytes = source.readByteString();
+            final MediaType contentType = body.contentType();
+
+            response.close();
+
+            return new SharedResponse(response.newBuilder().body(null).build(), bytes, contentType);
+        }
+    }
+}
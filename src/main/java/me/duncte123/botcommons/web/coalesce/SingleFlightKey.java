@@ -0,0 +1,71 @@
+/*
+ *    Copyright 2026 Duncan "duncte123" Sterken
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package me.duncte123.botcommons.web.coalesce;
+
+import me.duncte123.botcommons.web.RequestBuilderFunction;
+import okhttp3.Request;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Objects;
+
+/**
+ * The key that decides which in-flight requests are identical and can share a response.<br/>
+ * Pass a key as {@link RequestBuilderFunction} to the getters in {@link me.duncte123.botcommons.web.WebUtils
+ * WebUtils} to override the default key (method, url and the {@code Accept}, {@code Authorization} and {@code Cookie}
+ * headers), or pass {@link #NONE} to never share the response of that request.
+ *
+ * @see SingleFlightInterceptor
+ */
+public final class SingleFlightKey implements RequestBuilderFunction {
+    /**
+     * Disables request coalescing for a single request
+     */
+    public static final SingleFlightKey NONE = new SingleFlightKey(null);
+
+    private final String key;
+
+    private SingleFlightKey(String key) {
+        this.key = key;
+    }
+
+    /**
+     * Creates a custom key, requests with the same key share a response while one of them is in-flight
+     *
+     * @param key
+     *     the key that identifies the request
+     *
+     * @return a key that can be applied to a request
+     */
+    public static SingleFlightKey of(@NotNull String key) {
+        return new SingleFlightKey(Objects.requireNonNull(key, "key"));
+    }
+
+    String getKey() {
+        return this.key;
+    }
+
+    @NotNull
+    @Override
+    public Request.Builder apply(@NotNull Request.Builder builder) {
+        return builder.tag(SingleFlightKey.class, this);
+    }
+
+    @Override
+    public String toString() {
+        return "SingleFlightKey(" + this.key + ')';
+    }
+}
@@ -0,0 +1,41 @@
+/*
+ *    Copyright 2026 Duncan "duncte123" Sterken
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package me.duncte123.botcommons.web.encoding;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Decodes a response body that was sent with a {@code Content-Encoding}
+ *
+ * @see ContentDecoders#register(String, ContentDecoder)
+ */
+@FunctionalInterface
+public interface ContentDecoder {
+    /**
+     * Wraps the encoded stream in a stream that decodes it
+     *
+     * @param input
+     *     the encoded body
+     *
+     * @return a stream that returns the decoded body
+     *
+     * @throws IOException
+     *     when the start of the body is not valid for this encoding
+     */
+    InputStream decode(InputStream input) throws IOException;
+}
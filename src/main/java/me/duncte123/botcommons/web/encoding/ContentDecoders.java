@@ -0,0 +1,266 @@
+/*
+ *    Copyright 2026 Duncan "duncte123" Sterken
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package me.duncte123.botcommons.web.encoding;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Registry of the content encodings that {@link me.duncte123.botcommons.web.WebUtils WebUtils} can decode, the
+ * registered encodings are advertised in the {@code Accept-Encoding} header of every request.<br/>
+ * {@code gzip} and {@code deflate} are always available. {@code br} is available when brotli4j (native) or
+ * {@code org.brotli:dec} (pure java) is on the classpath, {@code zstd} when zstd-jni (native) or aircompressor (pure
+ * java) is on the classpath. The native libraries are preferred when they can be loaded.
+ */
+public final class ContentDecoders {
+    // insertion order is the order in the Accept-Encoding header
+    private static final Map<String, ContentDecoder> DECODERS = new LinkedHashMap<>();
+    private static volatile String acceptEncoding;
+
+    static {
+        final ContentDecoder brotli = findBrotliDecoder();
+        final ContentDecoder zstd = findZstdDecoder();
+
+        if (brotli != null) {
+            DECODERS.put("br", brotli);
+        }
+
+        if (zstd != null) {
+            DECODERS.put("zstd", zstd);
+        }
+
+        DECODERS.put("gzip", GZIPInputStream::new);
+        DECODERS.put("deflate", InflaterInputStream::new);
+        updateAcceptEncoding();
+    }
+
+    private ContentDecoders() {}
+
+    /**
+     * Registers a decoder for an encoding, replaces the existing decoder when the encoding is already registered
+     *
+     * @param encoding
+     *     the name of the encoding as used in the {@code Content-Encoding} header
+     * @param decoder
+     *     the decoder for the encoding
+     */
+    public static void register(@Nonnull String encoding, @Nonnull ContentDecoder decoder) {
+        if (encoding == null || decoder == null) {
+            throw new IllegalArgumentException("encoding and decoder may not be null");
+        }
+
+        synchronized (DECODERS) {
+            DECODERS.put(normalize(encoding), decoder);
+            updateAcceptEncoding();
+        }
+    }
+
+    /**
+     * Removes the decoder for an encoding, the encoding will no longer be advertised
+     *
+     * @param encoding
+     *     the name of the encoding
+     */
+    public static void unregister(@Nonnull String encoding) {
+        synchronized (DECODERS) {
+            DECODERS.remove(normalize(encoding));
+            updateAcceptEncoding();
+        }
+    }
+
+    /**
+     * Returns the decoder for an encoding
+     *
+     * @param encoding
+     *     the name of the encoding
+     *
+     * @return the decoder or {@code null} when the encoding is not supported
+     */
+    @Nullable
+    public static ContentDecoder get(@Nonnull String encoding) {
+        synchronized (DECODERS) {
+            return DECODERS.get(normalize(encoding));
+        }
+    }
+
+    /**
+     * Returns the value for the {@code Accept-Encoding} header
+     *
+     * @return the registered encodings, for example {@code br, zstd, gzip, deflate}
+     */
+    @Nonnull
+    public static String getAcceptEncoding() {
+        return acceptEncoding;
+    }
+
+    /**
+     * Checks if every encoding in a {@code Content-Encoding} header can be decoded
+     *
+     * @param contentEncoding
+     *     the value of the {@code Content-Encoding} header, may contain multiple encodings
+     *
+     * @return true if all encodings are supported
+     */
+    public static boolean canDecode(@Nonnull String contentEncoding) {
+        for (final String encoding : contentEncoding.split(",")) {
+            if (!isIdentity(encoding) && get(encoding) == null) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Decodes a body that was sent with the given {@code Content-Encoding}, stacked encodings like {@code gzip, br}
+     * are decoded in reverse order
+     *
+     * @param contentEncoding
+     *     the value of the {@code Content-Encoding} header
+     * @param input
+     *     the encoded body
+     *
+     * @return a stream that returns the decoded body
+     *
+     * @throws IOException
+     *     when an encoding is not supported or the body is not valid for the encoding
+     */
+    @Nonnull
+    public static InputStream decode(@Nonnull String contentEncoding, @Nonnull InputStream input) throws IOException {
+        final String[] encodings = contentEncoding.split(",");
+        InputStream stream = input;
+
+        for (int i = encodings.length - 1; i >= 0; i--) {
+            if (isIdentity(encodings[i])) {
+                continue;
+            }
+
+            final ContentDecoder decoder = get(encodings[i]);
+
+            if (decoder == null) {
+                throw new IOException("Unsupported Content-Encoding: " + encodings[i].trim());
+            }
+
+            stream = decoder.decode(stream);
+        }
+
+        return stream;
+    }
+
+    private static boolean isIdentity(String encoding) {
+        final String normalized = normalize(encoding);
+
+        return normalized.isEmpty() || "identity".equals(normalized);
+    }
+
+    private static String normalize(String encoding) {
+        return encoding.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static void updateAcceptEncoding() {
+        acceptEncoding = String.join(", ", DECODERS.keySet());
+    }
+
+    @Nullable
+    private static ContentDecoder findBrotliDecoder() {
+        try {
+            if (isPresent("com.aayushatharva.brotli4j.Brotli4jLoader") && NativeBrotli.isAvailable()) {
+                return NativeBrotli::decode;
+            }
+        } catch (LinkageError ignored) {
+            // broken native library, try the java decoder
+        }
+
+        if (isPresent("org.brotli.dec.BrotliInputStream")) {
+            return JavaBrotli::decode;
+        }
+
+        return null;
+    }
+
+    @Nullable
+    private static ContentDecoder findZstdDecoder() {
+        try {
+            if (isPresent("com.github.luben.zstd.ZstdInputStream") && NativeZstd.isAvailable()) {
+                return NativeZstd::decode;
+            }
+        } catch (LinkageError ignored) {
+            // broken native library, try the java decoder
+        }
+
+        if (isPresent("io.airlift.compress.zstd.ZstdInputStream")) {
+            return JavaZstd::decode;
+        }
+
+        return null;
+    }
+
+    private static boolean isPresent(String className) {
+        try {
+            Class.forName(className, false, ContentDecoders.class.getClassLoader());
+            return true;
+        } catch (ClassNotFoundException | LinkageError ignored) {
+            return false;
+        }
+    }
+
+    // The optional libraries are only referenced from these classes so they are only loaded when they are present
+
+    private static final class NativeBrotli {
+        static boolean isAvailable() {
+            return com.aayushatharva.brotli4j.Brotli4jLoader.isAvailable();
+        }
+
+        static InputStream decode(InputStream input) throws IOException {
+            return new com.aayushatharva.brotli4j.decoder.BrotliInputStream(input);
+        }
+    }
+
+    private static final class JavaBrotli {
+        static InputStream decode(InputStream input) throws IOException {
+            return new org.brotli.dec.BrotliInputStream(input);
+        }
+    }
+
+    private static final class NativeZstd {
+        static boolean isAvailable() {
+            try {
+                com.github.luben.zstd.util.Native.load();
+                return true;
+            } catch (RuntimeException ignored) {
+                return false;
+            }
+        }
+
+        static InputStream decode(InputStream input) throws IOException {
+            return new com.github.luben.zstd.ZstdInputStream(input);
+        }
+    }
+
+    private static final class JavaZstd {
+        static InputStream decode(InputStream input) {
+            return new io.airlift.compress.zstd.ZstdInputStream(input);
+        }
+    }
+}
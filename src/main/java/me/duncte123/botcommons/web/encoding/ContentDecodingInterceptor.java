@@ -0,0 +1,109 @@
+/*
+ *    Copyright 2026 Duncan "duncte123" Sterken
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package me.duncte123.botcommons.web.encoding;
+
+import me.duncte123.botcommons.web.metrics.WebMetrics;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Okio;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Application interceptor that advertises the encodings of {@link ContentDecoders} and decodes the responses, the
+ * {@code Content-Encoding} header is removed from decoded responses.<br/>
+ * Requests that already have an {@code Accept-Encoding} or {@code Range} header are not changed, but their responses
+ * are still decoded when the encoding is supported.
+ */
+public class ContentDecodingInterceptor implements Interceptor {
+    @NotNull
+    @Override
+    public Response intercept(@NotNull Chain chain) throws IOException {
+        Request request = chain.request();
+
+        // ranges of an encoded body can't be decoded on their own
+        if (request.header("Accept-Encoding") == null && request.header("Range") == null) {
+            request = request.newBuilder()
+                .header("Accept-Encoding", ContentDecoders.getAcceptEncoding())
+                .build();
+        }
+
+        final Response response = chain.proceed(request);
+        final String encoding = response.header("Content-Encoding");
+        final ResponseBody body = response.body();
+
+        if (encoding == null || body == null || !hasBody(response) || !ContentDecoders.canDecode(encoding)) {
+            return response;
+        }
+
+        final ResponseBody decoded;
+
+        try {
+            decoded = ResponseBody.create(
+                Okio.buffer(Okio.source(decode(request, encoding, body.byteStream()))),
+                body.contentType(),
+                -1L
+            );
+        } catch (IOException e) {
+            response.close();
+            throw e;
+        }
+
+        return response.newBuilder()
+            .removeHeader("Content-Encoding")
+            .removeHeader("Content-Length")
+            .body(decoded)
+            .build();
+    }
+
+    private static InputStream decode(Request request, String encoding, InputStream raw) throws IOException {
+        final WebMetrics metrics = WebMetrics.of(request);
+
+        if (metrics == null) {
+            return ContentDecoders.decode(encoding, raw);
+        }
+
+        // the time spent in the raw stream is network time, the rest of the decoded reads is spent decoding
+        final TimedInputStream timedRaw = new TimedInputStream(raw);
+
+        return new TimedInputStream(ContentDecoders.decode(encoding, timedRaw)) {
+            private boolean recorded = false;
+
+            @Override
+            public void close() throws IOException {
+                try {
+                    super.close();
+                } finally {
+                    if (!this.recorded) {
+                        this.recorded = true;
+                        metrics.recordDecode(request, encoding, this.getNanos() - timedRaw.getNanos());
+                    }
+                }
+            }
+        };
+    }
+
+    private static boolean hasBody(Response response) {
+        final int code = response.code();
+
+        return !"HEAD".equals(response.request().method()) && code >= 200 && code != 204 && code != 304;
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ *    Copyright 2026 Duncan "duncte123" Sterken
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package me.duncte123.botcommons.web.encoding;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Adds up the time spent in the reads of the wrapped stream
+ */
+class TimedInputStream extends FilterInputStream {
+    private long nanos = 0L;
+
+    TimedInputStream(InputStream in) {
+        super(in);
+    }
+
+    long getNanos() {
+        return this.nanos;
+    }
+
+    @Override
+    public int read() throws IOException {
+        final long start = System.nanoTime();
+
+        try {
+            return super.read();
+        } finally {
+            this.nanos += System.nanoTime() - start;
+        }
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        final long start = System.nanoTime();
+
+        try {
+            return super.read(buffer, offset, length);
+        } finally {
+            this.nanos += System.nanoTime() - start;
+        }
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        final long start = System.nanoTime();
+
+        try {
+            return super.skip(n);
+        } finally {
+            this.nanos += System.nanoTime() - start;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ *    Copyright 2026 Duncan "duncte123" Sterken
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package me.duncte123.botcommons.web.hedge;
+
+import me.duncte123.botcommons.web.RequestBuilderFunction;
+import okhttp3.Request;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Overrides if a single request is hedged, pass it as {@link RequestBuilderFunction} to the getters in {@link
+ * me.duncte123.botcommons.web.WebUtils WebUtils}
+ *
+ * @see HedgingInterceptor
+ */
+public enum HedgeMode implements RequestBuilderFunction {
+    /**
+     * Hedge the request, even when hedging is disabled for the instance
+     */
+    ENABLED,
+    /**
+     * Never hedge the request, use this for upstreams that are not replicated
+     */
+    DISABLED;
+
+    @NotNull
+    @Override
+    public Request.Builder apply(@NotNull Request.Builder builder) {
+        return builder.tag(HedgeMode.class, this);
+    }
+}
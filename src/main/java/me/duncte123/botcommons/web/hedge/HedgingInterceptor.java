@@ -0,0 +1,397 @@
+/*
+ *    Copyright 2026 Duncan "duncte123" Sterken
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package me.duncte123.botcommons.web.hedge;
+
+import me.duncte123.botcommons.web.Route;
+import me.duncte123.botcommons.web.ratelimit.ClientRateLimiter;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.Interceptor;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.jetbrains.annotations.NotNull;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Application interceptor that hedges GET and HEAD requests: when the response takes longer than the configured
+ * percentile of the recent latencies of the host a second, identical, request is sent and the response that arrives
+ * first is used while the other request is cancelled.<br/>
+ * Hedging needs {@link #getMinSamples()} successful requests to a host before it starts, until then requests are
+ * only timed. Both requests are sent by a copy of the client without application interceptors: the first one on the
+ * thread of the call, the hedge is enqueued on the dispatcher of the client so it counts towards its request limits.
+ * A hedge is only sent when the {@link #setRateLimiter(ClientRateLimiter) rate limiter} has a free slot right away.
+ */
+public class HedgingInterceptor implements Interceptor {
+    private static final int WINDOW_SIZE = 128;
+    private static final long POLL_NANOS = TimeUnit.MILLISECONDS.toNanos(50L);
+    // only starts hedges and checks for cancellation, the requests themselves run on the dispatcher
+    private static final ScheduledExecutorService SCHEDULER = Executors.newSingleThreadScheduledExecutor((runnable) -> {
+        final Thread thread = new Thread(runnable, "botcommons-hedge");
+
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final ConcurrentMap<String, LatencyTracker> trackers = new ConcurrentHashMap<>();
+    private final LongAdder hedgesFired = new LongAdder();
+    private final LongAdder hedgesWon = new LongAdder();
+    private volatile OkHttpClient client;
+    private volatile ClientRateLimiter rateLimiter;
+    private volatile boolean enabled = false;
+    private volatile double percentile = 0.95D;
+    private volatile int minSamples = 20;
+
+    /**
+     * Sets the client that sends the requests, this must be a client without this interceptor
+     *
+     * @param client
+     *     the client that sends the requests, hedging is not possible while this is {@code null}
+     */
+    public void setClient(@Nullable OkHttpClient client) {
+        this.client = client;
+    }
+
+    /**
+     * Sets the rate limiter that hedges need a slot of, hedges are skipped when the limiter has no free slot
+     *
+     * @param rateLimiter
+     *     the rate limiter of the client, or {@code null} when the client has no client side limits
+     */
+    public void setRateLimiter(@Nullable ClientRateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+
+    /**
+     * Returns if requests without a {@link HedgeMode} are hedged
+     *
+     * @return true if hedging is enabled
+     */
+    public boolean isEnabled() {
+        return this.enabled;
+    }
+
+    /**
+     * Enables or disables hedging for requests without a {@link HedgeMode}, disabled by default
+     *
+     * @param enabled
+     *     true to hedge requests
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Returns the percentile of the recent latencies after which a hedge is sent
+     *
+     * @return the percentile between 0 and 1
+     */
+    public double getPercentile() {
+        return this.percentile;
+    }
+
+    /**
+     * Sets the percentile of the recent latencies of a host after which a hedge is sent, defaults to {@code 0.95}.
+     * Lower values lower the tail latency but send more requests, at {@code 0.95} about 5% of the requests are hedged
+     *
+     * @param percentile
+     *     the percentile between 0 (exclusive) and 1 (inclusive)
+     */
+    public void setPercentile(double percentile) {
+        if (percentile <= 0D || percentile > 1D) {
+            throw new IllegalArgumentException("percentile must be between 0 (exclusive) and 1 (inclusive)");
+        }
+
+        this.percentile = percentile;
+    }
+
+    /**
+     * Returns the amount of successful requests to a host that is needed before requests to it are hedged
+     *
+     * @return the minimum amount of samples
+     */
+    public int getMinSamples() {
+        return this.minSamples;
+    }
+
+    /**
+     * Sets the amount of successful requests to a host that is needed before requests to it are hedged, defaults to
+     * 20
+     *
+     * @param minSamples
+     *     the minimum amount of samples, at most 128
+     */
+    public void setMinSamples(int minSamples) {
+        if (minSamples < 1 || minSamples > WINDOW_SIZE) {
+            throw new IllegalArgumentException("minSamples must be between 1 and " + WINDOW_SIZE);
+        }
+
+        this.minSamples = minSamples;
+    }
+
+    /**
+     * Returns the amount of hedged requests that were sent
+     *
+     * @return the amount of hedges
+     */
+    public long getHedgesFired() {
+        return this.hedgesFired.sum();
+    }
+
+    /**
+     * Returns the amount of hedged requests that were faster than the original request
+     *
+     * @return the amount of hedges that won
+     */
+    public long getHedgesWon() {
+        return this.hedgesWon.sum();
+    }
+
+    @NotNull
+    @Override
+    public Response intercept(@NotNull Chain chain) throws IOException {
+        final Request request = chain.request();
+        final OkHttpClient client = this.client;
+
+        if (client == null || !this.shouldHedge(request)) {
+            return chain.proceed(request);
+        }
+
+        final LatencyTracker tracker = this.trackers.computeIfAbsent(
+            request.url().host(),
+            (host) -> new LatencyTracker(WINDOW_SIZE)
+        );
+        final long delay = tracker.getPercentile(this.percentile, this.minSamples);
+
+        // not enough samples yet, only measure the latency
+        if (delay < 0L) {
+            final long start = System.nanoTime();
+            final Response response = chain.proceed(request);
+
+            if (response.isSuccessful()) {
+                tracker.record(System.nanoTime() - start);
+            }
+
+            return response;
+        }
+
+        final Race race = new Race(tracker);
+        final Call primary = client.newCall(request);
+        final ScheduledFuture<?> hedge = SCHEDULER.schedule(() -> {
+            if (this.hasRateLimitSlot(request) && race.start(client.newCall(request))) {
+                this.hedgesFired.increment();
+            }
+        }, delay, TimeUnit.NANOSECONDS);
+        final ScheduledFuture<?> watchdog = SCHEDULER.scheduleWithFixedDelay(() -> {
+            if (chain.call().isCanceled()) {
+                race.abort();
+            }
+        }, POLL_NANOS, POLL_NANOS, TimeUnit.NANOSECONDS);
+
+        try {
+            race.run(primary);
+        } finally {
+            hedge.cancel(false);
+            watchdog.cancel(false);
+        }
+
+        // the first request lost or failed, the result is already there or the hedge is still running
+        final Race.Result result = race.await(chain);
+
+        if (result.hedge) {
+            this.hedgesWon.increment();
+        }
+
+        return result.response;
+    }
+
+    private boolean shouldHedge(Request request) {
+        if (!"GET".equals(request.method()) && !"HEAD".equals(request.method())) {
+            return false;
+        }
+
+        final HedgeMode mode = request.tag(HedgeMode.class);
+
+        return mode == null ? this.enabled : mode == HedgeMode.ENABLED;
+    }
+
+    private boolean hasRateLimitSlot(Request request) {
+        final ClientRateLimiter limiter = this.rateLimiter;
+
+        return limiter == null || limiter.tryReserve(request.url().host(), request.tag(Route.class));
+    }
+
+    private static final class Race {
+        private final CompletableFuture<Result> result = new CompletableFuture<>();
+        private final List<Call> calls = new ArrayList<>();
+        private final AtomicInteger pending = new AtomicInteger();
+        private final LatencyTracker tracker;
+
+        private Race(LatencyTracker tracker) {
+            this.tracker = tracker;
+        }
+
+        private boolean register(Call call) {
+            synchronized (this.calls) {
+                if (this.result.isDone()) {
+                    return false;
+                }
+
+                this.calls.add(call);
+            }
+
+            this.pending.incrementAndGet();
+            return true;
+        }
+
+        /**
+         * Sends the first request on the current thread
+         */
+        void run(Call call) {
+            if (!this.register(call)) {
+                return;
+            }
+
+            final long start = System.nanoTime();
+
+            try {
+                this.complete(call, call.execute(), start, false);
+            } catch (IOException e) {
+                this.fail(e);
+            } catch (RuntimeException e) {
+                this.result.completeExceptionally(e);
+                this.cancelOthers(call);
+            }
+        }
+
+        /**
+         * Enqueues the hedge on the dispatcher of the client
+         *
+         * @return false when the race was already decided
+         */
+        boolean start(Call call) {
+            if (!this.register(call)) {
+                return false;
+            }
+
+            final long start = System.nanoTime();
+
+            call.enqueue(new Callback() {
+                @Override
+                public void onResponse(@NotNull Call call, @NotNull Response response) {
+                    Race.this.complete(call, response, start, true);
+                }
+
+                @Override
+                public void onFailure(@NotNull Call call, @NotNull IOException e) {
+                    Race.this.fail(e);
+                }
+            });
+
+            return true;
+        }
+
+        private void complete(Call call, Response response, long start, boolean hedge) {
+            if (response.isSuccessful()) {
+                this.tracker.record(System.nanoTime() - start);
+            }
+
+            if (this.result.complete(new Result(response, hedge))) {
+                this.cancelOthers(call);
+            } else {
+                response.close();
+            }
+        }
+
+        private void fail(IOException e) {
+            // only fail when no other request can still succeed
+            if (this.pending.decrementAndGet() == 0) {
+                this.result.completeExceptionally(e);
+            }
+        }
+
+        /**
+         * Waits for the first response
+         *
+         * @return the first response
+         */
+        Result await(Chain chain) throws IOException {
+            while (true) {
+                try {
+                    return this.result.get(POLL_NANOS, TimeUnit.NANOSECONDS);
+                } catch (TimeoutException ignored) {
+                    if (chain.call().isCanceled()) {
+                        this.abort();
+                        throw new IOException("Canceled");
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    this.abort();
+                    throw new InterruptedIOException("Interrupted while waiting for a response");
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof IOException) {
+                        throw (IOException) e.getCause();
+                    }
+
+                    throw new IOException(e.getCause());
+                }
+            }
+        }
+
+        void abort() {
+            // responses that still arrive are closed because the result is already completed
+            this.result.completeExceptionally(new IOException("Canceled"));
+            this.cancelOthers(null);
+        }
+
+        private void cancelOthers(@Nullable Call winner) {
+            synchronized (this.calls) {
+                for (final Call call : this.calls) {
+                    if (call != winner) {
+                        call.cancel();
+                    }
+                }
+            }
+        }
+
+        private static final class Result {
+            private final Response response;
+            private final boolean hedge;
+
+            private Result(Response response, boolean hedge) {
+                this.response = response;
+                this.hedge = hedge;
+            }
+        }
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ *    Copyright 2026 Duncan "duncte123" Sterken
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package me.duncte123.botcommons.web.hedge;
+
+import java.util.Arrays;
+
+/**
+ * Keeps the most recent latencies of a host in a ring buffer
+ */
+class LatencyTracker {
+    private final long[] samples;
+    private int index = 0;
+    private int count = 0;
+
+    LatencyTracker(int size) {
+        this.samples = new long[size];
+    }
+
+    synchronized void record(long latencyNanos) {
+        this.samples[this.index] = latencyNanos;
+        this.index = (this.index + 1) % this.samples.length;
+        this.count = Math.min(this.count + 1, this.samples.length);
+    }
+
+    /**
+     * Returns the latency at the given percentile
+     *
+     * @param percentile
+     *     the percentile between 0 and 1
+     * @param minSamples
+     *     the minimum amount of samples that is needed
+     *
+     * @return the latency in nanoseconds or {@code -1} when there are not enough samples
+     */
+    long getPercentile(double percentile, int minSamples) {
+        final long[] copy;
+
+        synchronized (this) {
+            if (this.count < Math.max(minSamples, 1)) {
+                return -1L;
+            }
+
+            copy = Arrays.copyOf(this.samples, this.count);
+        }
+
+        Arrays.sort(copy);
+
+        final int position = (int) Math.ceil(percentile * copy.length) - 1;
+
+        return copy[Math.max(0, Math.min(position, copy.length - 1))];
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ *    Copyright 2026 Duncan "duncte123" Sterken
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package me.duncte123.botcommons.web.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock free histogram with log-linear buckets in the style of HdrHistogram, every power of two is split in 32
+ * buckets so recorded values are kept with a precision of about 3% over the full range of a {@code long}.<br/>
+ * Recording is a single atomic increment, reads are not a consistent snapshot while values are being recorded.
+ */
+public final class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    // values below 2 * SUB_BUCKETS have their own bucket
+    private static final int LINEAR_LIMIT = SUB_BUCKETS * 2;
+    private static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Records a value, negative values are recorded as {@code 0}
+     *
+     * @param value
+     *     the value to record, usually a duration in nanoseconds
+     */
+    public void record(long value) {
+        final long positive = Math.max(value, 0L);
+
+        this.counts.incrementAndGet(indexOf(positive));
+        this.count.incrementAndGet();
+        this.sum.addAndGet(positive);
+
+        long current;
+
+        while (positive > (current = this.max.get()) && !this.max.compareAndSet(current, positive)) {
+            // retry until the max is at least this value
+        }
+    }
+
+    /**
+     * Returns the amount of recorded values
+     *
+     * @return the amount of recorded values
+     */
+    public long getCount() {
+        return this.count.get();
+    }
+
+    /**
+     * Returns the highest recorded value
+     *
+     * @return the highest recorded value, {@code 0} when nothing was recorded
+     */
+    public long getMax() {
+        return this.max.get();
+    }
+
+    /**
+     * Returns the mean of the recorded values
+     *
+     * @return the mean of the recorded values, {@code 0} when nothing was recorded
+     */
+    public double getMean() {
+        final long count = this.count.get();
+
+        return count == 0L ? 0D : (double) this.sum.get() / count;
+    }
+
+    /**
+     * Returns the value at a percentile, the value is the upper bound of the bucket the percentile falls in
+     *
+     * @param percentile
+     *     the percentile between {@code 0} and {@code 100}, like {@code 99.9}
+     *
+     * @return the value at the percentile, {@code 0} when nothing was recorded
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (percentile < 0D || percentile > 100D) {
+            throw new IllegalArgumentException("percentile must be between 0 and 100");
+        }
+
+        final long count = this.count.get();
+
+        if (count == 0L) {
+            return 0L;
+        }
+
+        final long target = Math.max(1L, (long) Math.ceil(percentile / 100D * count));
+        long seen = 0L;
+
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += this.counts.get(i);
+
+            if (seen >= target) {
+                return Math.min(upperBoundOf(i), this.max.get());
+            }
+        }
+
+        return this.max.get();
+    }
+
+    /**
+     * Returns the value at a percentile in another unit, assuming the values are nanoseconds
+     *
+     * @param percentile
+     *     the percentile between {@code 0} and {@code 100}
+     * @param unit
+     *     the unit to convert the value to
+     *
+     * @return the value at the percentile in the given unit
+     */
+    public long getValueAtPercentile(double percentile, TimeUnit unit) {
+        return unit.convert(this.getValueAtPercentile(percentile), TimeUnit.NANOSECONDS);
+    }
+
+    static int indexOf(long value) {
+        if (value < LINEAR_LIMIT) {
+            return (int) value;
+        }
+
+        // shift the value until only the top SUB_BUCKET_BITS + 1 bits remain
+        final int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+
+        return (shift << SUB_BUCKET_BITS) + (int) (value >>> shift);
+    }
+
+    static long upperBoundOf(int index) {
+        if (index < LINEAR_LIMIT) {
+            return index;
+        }
+
+        final int shift = (index >>> SUB_BUCKET_BITS) - 1;
+        final long subBucket = (index & (SUB_BUCKETS - 1)) + SUB_BUCKETS;
+
+        return ((subBucket + 1L) << shift) - 1L;
+    }
+}
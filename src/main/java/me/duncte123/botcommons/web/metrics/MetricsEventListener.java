@@ -0,0 +1,192 @@
+/*
+ *    Copyright 2026 Duncan "duncte123" Sterken
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package me.duncte123.botcommons.web.metrics;
+
+import me.duncte123.botcommons.web.Route;
+import okhttp3.Call;
+import okhttp3.EventListener;
+import okhttp3.Request;
+import org.jetbrains.annotations.NotNull;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Collects the measurements of one call, retries within the call add up. Requests that an interceptor sends for the
+ * call, like hedged requests, add their bytes to the call and the call is recorded when the last of them finished.
+ */
+class MetricsEventListener extends EventListener {
+    private final WebMetrics owner;
+    private final MetricsRecorder recorder;
+    // the call itself and every attempt that is still running
+    private final AtomicInteger openParts = new AtomicInteger(1);
+    private final AtomicBoolean finished = new AtomicBoolean();
+    private volatile Call call;
+    private volatile long callStart;
+    private volatile long dispatched;
+    private volatile int status = -1;
+    private volatile IOException failure;
+    private final AtomicLong bytesSent = new AtomicLong();
+    private final AtomicLong bytesReceived = new AtomicLong();
+
+    MetricsEventListener(WebMetrics owner, MetricsRecorder recorder) {
+        this.owner = owner;
+        this.recorder = recorder;
+    }
+
+    void onDispatched() {
+        if (this.dispatched == 0L) {
+            this.dispatched = System.nanoTime();
+        }
+    }
+
+    void onResponse(int status) {
+        this.status = status;
+    }
+
+    /**
+     * Creates the listener of a request that an interceptor sends on behalf of this call
+     */
+    EventListener forAttempt() {
+        return new AttemptListener(this);
+    }
+
+    @Override
+    public void callStart(@NotNull Call call) {
+        this.call = call;
+        this.callStart = System.nanoTime();
+        this.owner.register(call, this);
+    }
+
+    @Override
+    public void requestBodyEnd(@NotNull Call call, long byteCount) {
+        this.bytesSent.addAndGet(byteCount);
+    }
+
+    @Override
+    public void responseBodyEnd(@NotNull Call call, long byteCount) {
+        this.bytesReceived.addAndGet(byteCount);
+    }
+
+    @Override
+    public void callEnd(@NotNull Call call) {
+        this.finish(call, null);
+    }
+
+    @Override
+    public void callFailed(@NotNull Call call, @NotNull IOException ioe) {
+        this.finish(call, ioe);
+    }
+
+    @Override
+    public void canceled(@NotNull Call call) {
+        this.owner.unregister(call, this);
+    }
+
+    private void finish(Call call, @Nullable IOException failure) {
+        // calls that fail before they are dispatched never reach the interceptor
+        this.owner.unregister(call, this);
+
+        if (!this.finished.compareAndSet(false, true)) {
+            return;
+        }
+
+        this.failure = failure;
+        this.partDone();
+    }
+
+    private boolean join() {
+        while (true) {
+            final int parts = this.openParts.get();
+
+            // the call was already recorded
+            if (parts == 0) {
+                return false;
+            }
+
+            if (this.openParts.compareAndSet(parts, parts + 1)) {
+                return true;
+            }
+        }
+    }
+
+    private void partDone() {
+        if (this.openParts.decrementAndGet() != 0) {
+            return;
+        }
+
+        final long end = System.nanoTime();
+        final long dispatched = this.dispatched;
+        final Request request = this.call.request();
+        final Route route = request.tag(Route.class);
+
+        this.recorder.recordRequest(new RequestMetrics(
+            request.url().host(),
+            route == null ? null : route.getTemplate(),
+            request.method(),
+            this.status,
+            this.failure,
+            end - this.callStart,
+            dispatched == 0L ? 0L : dispatched - this.callStart,
+            this.bytesSent.get(),
+            this.bytesReceived.get()
+        ));
+    }
+
+    private static final class AttemptListener extends EventListener {
+        private final MetricsEventListener parent;
+        private final AtomicBoolean joined = new AtomicBoolean();
+
+        private AttemptListener(MetricsEventListener parent) {
+            this.parent = parent;
+        }
+
+        @Override
+        public void callStart(@NotNull Call call) {
+            this.joined.set(this.parent.join());
+        }
+
+        @Override
+        public void requestBodyEnd(@NotNull Call call, long byteCount) {
+            this.parent.bytesSent.addAndGet(byteCount);
+        }
+
+        @Override
+        public void responseBodyEnd(@NotNull Call call, long byteCount) {
+            this.parent.bytesReceived.addAndGet(byteCount);
+        }
+
+        @Override
+        public void callEnd(@NotNull Call call) {
+            this.finish();
+        }
+
+        @Override
+        public void callFailed(@NotNull Call call, @NotNull IOException ioe) {
+            this.finish();
+        }
+
+        private void finish() {
+            if (this.joined.compareAndSet(true, false)) {
+                this.parent.partDone();
+            }
+        }
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ *    Copyright 2026 Duncan "duncte123" Sterken
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package me.duncte123.botcommons.web.metrics;
+
+import okhttp3.Interceptor;
+import okhttp3.Response;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+
+/**
+ * Application interceptor that measures the queue wait of a call and tags the request with its {@link WebMetrics},
+ * so the decoding and parsing further down can be measured. Does nothing for calls that are not measured.
+ */
+public class MetricsInterceptor implements Interceptor {
+    private final WebMetrics metrics;
+
+    public MetricsInterceptor(WebMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @NotNull
+    @Override
+    public Response intercept(@NotNull Chain chain) throws IOException {
+        final MetricsEventListener listener = this.metrics.takeListener(chain.call());
+
+        if (listener == null) {
+            return chain.proceed(chain.request());
+        }
+
+        listener.onDispatched();
+
+        final Response response = chain.proceed(
+            chain.request().newBuilder()
+                .tag(WebMetrics.class, this.metrics)
+                .tag(MetricsEventListener.class, listener)
+                .build()
+        );
+
+        listener.onResponse(response.code());
+
+        return response;
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ *    Copyright 2026 Duncan "duncte123" Sterken
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package me.duncte123.botcommons.web.metrics;
+
+import javax.annotation.Nullable;
+
+/**
+ * Receives the measurements of {@link me.duncte123.botcommons.web.WebUtils}, set it with
+ * {@link me.duncte123.botcommons.web.WebUtils#setMetricsRecorder(MetricsRecorder)}.<br/>
+ * The methods are called on the threads of OkHttp and should return quickly.
+ *
+ * @see SimpleMetricsRecorder
+ * @see MicrometerMetricsRecorder
+ */
+public interface MetricsRecorder {
+    /**
+     * Records nothing, no measurements are taken while this recorder is set
+     */
+    MetricsRecorder NO_OP = (metrics) -> {};
+
+    /**
+     * Called once for every finished or failed call
+     *
+     * @param metrics
+     *     the measurements of the call
+     */
+    void recordRequest(RequestMetrics metrics);
+
+    /**
+     * Called when a {@code Content-Encoding} was decoded, the time does not include waiting for the network
+     *
+     * @param host
+     *     the host of the request
+     * @param route
+     *     the template of the {@link me.duncte123.botcommons.web.Route} of the request, if any
+     * @param encoding
+     *     the decoded encoding, like {@code gzip}
+     * @param nanos
+     *     the time spent decoding in nanoseconds
+     */
+    default void recordDecode(String host, @Nullable String route, String encoding, long nanos) {
+        // not recorded by default
+    }
+
+    /**
+     * Called when a body was parsed by {@link me.duncte123.botcommons.web.WebParserUtils}, the time includes reading
+     * the body
+     *
+     * @param host
+     *     the host of the request
+     * @param route
+     *     the template of the {@link me.duncte123.botcommons.web.Route} of the request, if any
+     * @param format
+     *     the format that was parsed, {@code json} or {@code html}
+     * @param nanos
+     *     the time spent parsing in nanoseconds
+     */
+    default void recordParse(String host, @Nullable String route, String format, long nanos) {
+        // not recorded by default
+    }
+
+    /**
+     * Called before a request is retried by the {@link me.duncte123.botcommons.web.retry.RetryInterceptor}, the
+     * retried call is still recorded once by {@link #recordRequest(RequestMetrics)}
+     *
+     * @param host
+     *     the host of the request
+     * @param route
+     *     the template of the {@link me.duncte123.botcommons.web.Route} of the request, if any
+     * @param cause
+     *     the status code of the failed attempt, or the simple name of its exception
+     * @param delayMillis
+     *     the time waited before the retry in milliseconds
+     */
+    default void recordRetry(String host, @Nullable String route, String cause, long delayMillis) {
+        // not recorded by default
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ *    Copyright 2026 Duncan "duncte123" Sterken
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package me.duncte123.botcommons.web.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import javax.annotation.Nullable;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Binds the measurements to a Micrometer {@link MeterRegistry}, micrometer-core has to be provided by the bot.<br/>
+ * The meters are named {@code <prefix>.requests}, {@code <prefix>.queue}, {@code <prefix>.bytes.sent},
+ * {@code <prefix>.bytes.received}, {@code <prefix>.decode}, {@code <prefix>.parse} and {@code <prefix>.retries} (the
+ * retry delays) and are tagged with the {@code host} and {@code route}. Percentiles and histograms can be configured
+ * on the registry with a {@link io.micrometer.core.instrument.config.MeterFilter}.
+ */
+public class MicrometerMetricsRecorder implements MetricsRecorder {
+    private static final String NONE = "none";
+
+    private final MeterRegistry registry;
+    private final String prefix;
+
+    /**
+     * Creates a recorder that uses {@code botcommons.http.client} as prefix
+     *
+     * @param registry
+     *     the registry to register the meters on
+     */
+    public MicrometerMetricsRecorder(MeterRegistry registry) {
+        this(registry, "botcommons.http.client");
+    }
+
+    /**
+     * Creates a recorder
+     *
+     * @param registry
+     *     the registry to register the meters on
+     * @param prefix
+     *     the prefix of the meter names
+     */
+    public MicrometerMetricsRecorder(MeterRegistry registry, String prefix) {
+        if (registry == null) {
+            throw new IllegalArgumentException("registry may not be null");
+        }
+
+        if (prefix == null || prefix.isEmpty()) {
+            throw new IllegalArgumentException("prefix may not be empty");
+        }
+
+        this.registry = registry;
+        this.prefix = prefix;
+    }
+
+    @Override
+    public void recordRequest(RequestMetrics metrics) {
+        final String host = metrics.getHost();
+        final String route = orNone(metrics.getRoute());
+
+        Timer.builder(this.prefix + ".requests")
+            .tag("host", host)
+            .tag("route", route)
+            .tag("method", metrics.getMethod())
+            .tag("status", metrics.getFailure() == null ? String.valueOf(metrics.getStatus()) : "IO_ERROR")
+            .tag("exception", metrics.getFailure() == null ? NONE : metrics.getFailure().getClass().getSimpleName())
+            .register(this.registry)
+            .record(metrics.getDurationNanos(), TimeUnit.NANOSECONDS);
+
+        Timer.builder(this.prefix + ".queue")
+            .tag("host", host)
+            .tag("route", route)
+            .register(this.registry)
+            .record(metrics.getQueueNanos(), TimeUnit.NANOSECONDS);
+
+        DistributionSummary.builder(this.prefix + ".bytes.sent")
+            .baseUnit("bytes")
+            .tag("host", host)
+            .tag("route", route)
+            .register(this.registry)
+            .record(metrics.getBytesSent());
+
+        DistributionSummary.builder(this.prefix + ".bytes.received")
+            .baseUnit("bytes")
+            .tag("host", host)
+            .tag("route", route)
+            .register(this.registry)
+            .record(metrics.getBytesReceived());
+    }
+
+    @Override
+    public void recordDecode(String host, @Nullable String route, String encoding, long nanos) {
+        Timer.builder(this.prefix + ".decode")
+            .tag("host", host)
+            .tag("route", orNone(route))
+            .tag("encoding", encoding)
+            .register(this.registry)
+            .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void recordParse(String host, @Nullable String route, String format, long nanos) {
+        Timer.builder(this.prefix + ".parse")
+            .tag("host", host)
+            .tag("route", orNone(route))
+            .tag("format", format)
+            .register(this.registry)
+            .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void recordRetry(String host, @Nullable String route, String cause, long delayMillis) {
+        Timer.builder(this.prefix + ".retries")
+            .tag("host", host)
+            .tag("route", orNone(route))
+            .tag("cause", cause)
+            .register(this.registry)
+            .record(delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private static String orNone(@Nullable String value) {
+        return value == null ? NONE : value;
+    }
+}
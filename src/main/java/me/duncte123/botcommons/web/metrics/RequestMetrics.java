@@ -0,0 +1,138 @@
+/*
+ *    Copyright 2026 Duncan "duncte123" Sterken
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package me.duncte123.botcommons.web.metrics;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+
+/**
+ * The measurements of a single call
+ */
+public final class RequestMetrics {
+    private final String host;
+    private final String route;
+    private final String method;
+    private final int status;
+    private final IOException failure;
+    private final long durationNanos;
+    private final long queueNanos;
+    private final long bytesSent;
+    private final long bytesReceived;
+
+    RequestMetrics(String host, @Nullable String route, String method, int status, @Nullable IOException failure,
+                   long durationNanos, long queueNanos, long bytesSent, long bytesReceived) {
+        this.host = host;
+        this.route = route;
+        this.method = method;
+        this.status = status;
+        this.failure = failure;
+        this.durationNanos = durationNanos;
+        this.queueNanos = queueNanos;
+        this.bytesSent = bytesSent;
+        this.bytesReceived = bytesReceived;
+    }
+
+    /**
+     * Returns the host of the request
+     *
+     * @return the host of the request
+     */
+    public String getHost() {
+        return this.host;
+    }
+
+    /**
+     * Returns the template of the {@link me.duncte123.botcommons.web.Route} of the request
+     *
+     * @return the template of the route, or {@code null} when the request has no route
+     */
+    @Nullable
+    public String getRoute() {
+        return this.route;
+    }
+
+    /**
+     * Returns the method of the request
+     *
+     * @return the method of the request
+     */
+    public String getMethod() {
+        return this.method;
+    }
+
+    /**
+     * Returns the status code of the response, after retries
+     *
+     * @return the status code, or {@code -1} when no response was received
+     */
+    public int getStatus() {
+        return this.status;
+    }
+
+    /**
+     * Returns why the call failed
+     *
+     * @return the exception that failed the call, or {@code null} when the call succeeded
+     */
+    @Nullable
+    public IOException getFailure() {
+        return this.failure;
+    }
+
+    /**
+     * Returns the time from enqueueing the call until the body was closed
+     *
+     * @return the duration of the call in nanoseconds
+     */
+    public long getDurationNanos() {
+        return this.durationNanos;
+    }
+
+    /**
+     * Returns the time the call spent in the queue of the dispatcher before it started to run
+     *
+     * @return the queue wait in nanoseconds
+     */
+    public long getQueueNanos() {
+        return this.queueNanos;
+    }
+
+    /**
+     * Returns the amount of request body bytes written to the network
+     *
+     * @return the amount of bytes sent
+     */
+    public long getBytesSent() {
+        return this.bytesSent;
+    }
+
+    /**
+     * Returns the amount of response body bytes read from the network, before decompression
+     *
+     * @return the amount of bytes received
+     */
+    public long getBytesReceived() {
+        return this.bytesReceived;
+    }
+
+    @Override
+    public String toString() {
+        return "RequestMetrics(" + this.method + ' ' + this.host + (this.route == null ? "" : " [" + this.route + ']') +
+            ", status=" + this.status + ", duration=" + this.durationNanos + "ns, queue=" + this.queueNanos +
+            "ns, sent=" + this.bytesSent + ", received=" + this.bytesReceived + ')';
+    }
+}
@@ -0,0 +1,201 @@
+/*
+ *    Copyright 2026 Duncan "duncte123" Sterken
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package me.duncte123.botcommons.web.metrics;
+
+import javax.annotation.Nullable;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps the measurements in memory, for bots that don't use a metrics library.<br/>
+ * Latencies are kept per host and per route in a {@link LatencyHistogram}, all times are in nanoseconds.
+ */
+public class SimpleMetricsRecorder implements MetricsRecorder {
+    private final Map<String, LatencyHistogram> hostLatency = new ConcurrentHashMap<>();
+    private final Map<String, LatencyHistogram> routeLatency = new ConcurrentHashMap<>();
+    private final Map<Integer, AtomicLong> statuses = new ConcurrentHashMap<>();
+    private final Map<String, LatencyHistogram> decodeTimes = new ConcurrentHashMap<>();
+    private final Map<String, LatencyHistogram> parseTimes = new ConcurrentHashMap<>();
+    private final LatencyHistogram queueWait = new LatencyHistogram();
+    private final Map<String, AtomicLong> retries = new ConcurrentHashMap<>();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong bytesSent = new AtomicLong();
+    private final AtomicLong bytesReceived = new AtomicLong();
+
+    @Override
+    public void recordRequest(RequestMetrics metrics) {
+        this.hostLatency.computeIfAbsent(metrics.getHost(), (k) -> new LatencyHistogram())
+            .record(metrics.getDurationNanos());
+
+        if (metrics.getRoute() != null) {
+            this.routeLatency.computeIfAbsent(metrics.getRoute(), (k) -> new LatencyHistogram())
+                .record(metrics.getDurationNanos());
+        }
+
+        if (metrics.getFailure() == null) {
+            this.statuses.computeIfAbsent(metrics.getStatus(), (k) -> new AtomicLong()).incrementAndGet();
+        } else {
+            this.failures.incrementAndGet();
+        }
+
+        this.queueWait.record(metrics.getQueueNanos());
+        this.bytesSent.addAndGet(metrics.getBytesSent());
+        this.bytesReceived.addAndGet(metrics.getBytesReceived());
+    }
+
+    @Override
+    public void recordDecode(String host, @Nullable String route, String encoding, long nanos) {
+        this.decodeTimes.computeIfAbsent(encoding, (k) -> new LatencyHistogram()).record(nanos);
+    }
+
+    @Override
+    public void recordParse(String host, @Nullable String route, String format, long nanos) {
+        this.parseTimes.computeIfAbsent(format, (k) -> new LatencyHistogram()).record(nanos);
+    }
+
+    @Override
+    public void recordRetry(String host, @Nullable String route, String cause, long delayMillis) {
+        this.retries.computeIfAbsent(host, (k) -> new AtomicLong()).incrementAndGet();
+    }
+
+    /**
+     * Returns the latencies of all requests to a host
+     *
+     * @param host
+     *     the host, like {@code api.example.com}
+     *
+     * @return the latencies of the host, or {@code null} when no request to the host finished yet
+     */
+    @Nullable
+    public LatencyHistogram getHostLatency(String host) {
+        return this.hostLatency.get(host);
+    }
+
+    /**
+     * Returns the latencies of all requests with a {@link me.duncte123.botcommons.web.Route}
+     *
+     * @param route
+     *     the template of the route
+     *
+     * @return the latencies of the route, or {@code null} when no request of the route finished yet
+     */
+    @Nullable
+    public LatencyHistogram getRouteLatency(String route) {
+        return this.routeLatency.get(route);
+    }
+
+    /**
+     * Returns the time spent decoding bodies with an encoding
+     *
+     * @param encoding
+     *     the encoding, like {@code gzip}
+     *
+     * @return the decode times, or {@code null} when nothing was decoded with the encoding yet
+     */
+    @Nullable
+    public LatencyHistogram getDecodeTime(String encoding) {
+        return this.decodeTimes.get(encoding);
+    }
+
+    /**
+     * Returns the time spent parsing bodies of a format
+     *
+     * @param format
+     *     the format, {@code json} or {@code html}
+     *
+     * @return the parse times, or {@code null} when nothing was parsed in the format yet
+     */
+    @Nullable
+    public LatencyHistogram getParseTime(String format) {
+        return this.parseTimes.get(format);
+    }
+
+    /**
+     * Returns the time calls waited in the queue of the dispatcher
+     *
+     * @return the queue wait of all calls
+     */
+    public LatencyHistogram getQueueWait() {
+        return this.queueWait;
+    }
+
+    /**
+     * Returns how many responses had a status code
+     *
+     * @param status
+     *     the status code
+     *
+     * @return the amount of responses with the status code
+     */
+    public long getStatusCount(int status) {
+        final AtomicLong count = this.statuses.get(status);
+
+        return count == null ? 0L : count.get();
+    }
+
+    /**
+     * Returns the amount of responses per status code
+     *
+     * @return an unmodifiable view of the status counts
+     */
+    public Map<Integer, AtomicLong> getStatusCounts() {
+        return Collections.unmodifiableMap(this.statuses);
+    }
+
+    /**
+     * Returns how many times requests to a host were retried
+     *
+     * @param host
+     *     the host, like {@code api.example.com}
+     *
+     * @return the amount of retries to the host
+     */
+    public long getRetryCount(String host) {
+        final AtomicLong count = this.retries.get(host);
+
+        return count == null ? 0L : count.get();
+    }
+
+    /**
+     * Returns the amount of calls that failed without a response
+     *
+     * @return the amount of failed calls
+     */
+    public long getFailureCount() {
+        return this.failures.get();
+    }
+
+    /**
+     * Returns the total amount of request body bytes sent
+     *
+     * @return the amount of bytes sent
+     */
+    public long getBytesSent() {
+        return this.bytesSent.get();
+    }
+
+    /**
+     * Returns the total amount of response body bytes received, before decompression
+     *
+     * @return the amount of bytes received
+     */
+    public long getBytesReceived() {
+        return this.bytesReceived.get();
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ *    Copyright 2026 Duncan "duncte123" Sterken
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package me.duncte123.botcommons.web.metrics;
+
+import me.duncte123.botcommons.web.Route;
+import okhttp3.Call;
+import okhttp3.EventListener;
+import okhttp3.Request;
+import org.jetbrains.annotations.NotNull;
+
+import javax.annotation.Nullable;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Creates the {@link EventListener} for every call of a client and passes the measurements to the
+ * {@link MetricsRecorder}.<br/>
+ * No listener is created while the recorder is {@link MetricsRecorder#NO_OP}, so an unused instance costs nothing.
+ */
+public final class WebMetrics implements EventListener.Factory {
+    private final Map<Call, MetricsEventListener> running = new ConcurrentHashMap<>();
+    private volatile MetricsRecorder recorder = MetricsRecorder.NO_OP;
+
+    /**
+     * Returns the metrics of the request, the request must have passed the {@link MetricsInterceptor}
+     *
+     * @param request
+     *     the request to get the metrics for
+     *
+     * @return the metrics of the request, or {@code null} when the request is not measured
+     */
+    @Nullable
+    public static WebMetrics of(Request request) {
+        final WebMetrics metrics = request.tag(WebMetrics.class);
+
+        return metrics == null || metrics.recorder == MetricsRecorder.NO_OP ? null : metrics;
+    }
+
+    /**
+     * Returns the recorder that is currently used
+     *
+     * @return the current recorder
+     */
+    public MetricsRecorder getRecorder() {
+        return this.recorder;
+    }
+
+    /**
+     * Sets the recorder, calls that already started report to the previous recorder
+     *
+     * @param recorder
+     *     the recorder to use, {@link MetricsRecorder#NO_OP} to stop measuring
+     */
+    public void setRecorder(MetricsRecorder recorder) {
+        if (recorder == null) {
+            throw new IllegalArgumentException("recorder may not be null, use MetricsRecorder.NO_OP instead");
+        }
+
+        this.recorder = recorder;
+    }
+
+    /**
+     * Records the time spent decoding a response body of the request
+     *
+     * @param request
+     *     the request of the response
+     * @param encoding
+     *     the decoded encoding
+     * @param nanos
+     *     the time spent decoding in nanoseconds
+     */
+    public void recordDecode(Request request, String encoding, long nanos) {
+        this.recorder.recordDecode(request.url().host(), getRoute(request), encoding, nanos);
+    }
+
+    /**
+     * Records a retry of the request
+     *
+     * @param request
+     *     the request that is retried
+     * @param cause
+     *     the status code of the failed attempt, or the simple name of its exception
+     * @param delayMillis
+     *     the time waited before the retry in milliseconds
+     */
+    public void recordRetry(Request request, String cause, long delayMillis) {
+        this.recorder.recordRetry(request.url().host(), getRoute(request), cause, delayMillis);
+    }
+
+    /**
+     * Records the time spent parsing a response body of the request
+     *
+     * @param request
+     *     the request of the response
+     * @param format
+     *     the parsed format
+     * @param nanos
+     *     the time spent parsing in nanoseconds
+     */
+    public void recordParse(Request request, String format, long nanos) {
+        this.recorder.recordParse(request.url().host(), getRoute(request), format, nanos);
+    }
+
+    @NotNull
+    @Override
+    public EventListener create(@NotNull Call call) {
+        final MetricsRecorder recorder = this.recorder;
+        final MetricsEventListener parent = call.request().tag(MetricsEventListener.class);
+
+        // requests that carry a listener are sent by an interceptor of a measured call, like hedged requests
+        if (parent != null) {
+            return parent.forAttempt();
+        }
+
+        if (recorder == MetricsRecorder.NO_OP || call.request().tag(WebMetrics.class) != null) {
+            return EventListener.NONE;
+        }
+
+        return new MetricsEventListener(this, recorder);
+    }
+
+    /**
+     * Hands the listener of a call to the {@link MetricsInterceptor}, the call is only kept here until then so calls
+     * whose response is never closed are not kept forever
+     */
+    @Nullable
+    MetricsEventListener takeListener(Call call) {
+        return this.running.remove(call);
+    }
+
+    void register(Call call, MetricsEventListener listener) {
+        this.running.put(call, listener);
+    }
+
+    void unregister(Call call, MetricsEventListener listener) {
+        this.running.remove(call, listener);
+    }
+
+    @Nullable
+    private static String getRoute(Request request) {
+        final Route route = request.tag(Route.class);
+
+        return route == null ? null : route.getTemplate();
+    }
+}
@@ -0,0 +1,261 @@
+/*
+ *    Copyright 2026 Duncan "duncte123" Sterken
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package me.duncte123.botcommons.web.ratelimit;
+
+import me.duncte123.botcommons.web.Route;
+import okhttp3.HttpUrl;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Proactive client side rate limits per host and per {@link Route}, requests wait for a free slot before they are
+ * sent instead of being rejected with a {@code 429} by the server.<br/>
+ * Requests that are sent with {@code execute()} or {@code async()} wait on the thread that sends them, use {@link
+ * #acquire(String, Route)} to wait without blocking a thread:
+ *
+ * <pre>{@code
+ * limiter.acquire(url, route).thenCompose((permit) ->
+ *     RequestFutures.toFuture((handle) -> WebUtils.ins.getByteStream(url, null, handle.andThen(route).andThen(permit)))
+ * );
+ * }</pre>
+ */
+public class ClientRateLimiter {
+    private static final ScheduledExecutorService SCHEDULER = Executors.newSingleThreadScheduledExecutor((runnable) -> {
+        final Thread thread = new Thread(runnable, "botcommons-rate-limiter");
+
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final ConcurrentMap<String, RateLimit> hostLimits = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, RateLimit> routeLimits = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final AtomicInteger queueDepth = new AtomicInteger();
+    private volatile RateLimit defaultHostLimit = null;
+    private volatile long maxWaitNanos = TimeUnit.SECONDS.toNanos(30L);
+
+    /**
+     * Sets the limit of a host
+     *
+     * @param host
+     *     the host, for example {@code api.example.com}
+     * @param limit
+     *     the limit of the host, or {@code null} to remove the limit
+     *
+     * @return The limiter instance, useful for chaining
+     */
+    public ClientRateLimiter setHostLimit(@Nonnull String host, @Nullable RateLimit limit) {
+        return this.setLimit(this.hostLimits, "host:", host, limit);
+    }
+
+    /**
+     * Sets the limit of a route, only requests that are tagged with a {@link Route} with the same template use this
+     * limit. The limit of the host also applies to these requests
+     *
+     * @param template
+     *     the template of the route, for example {@code GET /images/{id}}
+     * @param limit
+     *     the limit of the route, or {@code null} to remove the limit
+     *
+     * @return The limiter instance, useful for chaining
+     */
+    public ClientRateLimiter setRouteLimit(@Nonnull String template, @Nullable RateLimit limit) {
+        return this.setLimit(this.routeLimits, "route:", template, limit);
+    }
+
+    /**
+     * Sets the limit for every host that has no limit of its own, every host gets its own bucket
+     *
+     * @param limit
+     *     the default limit, or {@code null} for no limit (the default)
+     *
+     * @return The limiter instance, useful for chaining
+     */
+    public ClientRateLimiter setDefaultHostLimit(@Nullable RateLimit limit) {
+        this.defaultHostLimit = limit;
+        this.buckets.keySet().removeIf((key) -> key.startsWith("host:") && !this.hostLimits.containsKey(key.substring(5)));
+        return this;
+    }
+
+    /**
+     * Sets the longest time that a request waits for a slot, requests that would wait longer fail with a {@link
+     * RateLimitExceededException}. Defaults to 30 seconds
+     *
+     * @param maxWait
+     *     the maximum wait
+     * @param unit
+     *     the unit of the wait
+     *
+     * @return The limiter instance, useful for chaining
+     */
+    public ClientRateLimiter setMaxWait(long maxWait, @Nonnull TimeUnit unit) {
+        if (maxWait < 0L) {
+            throw new IllegalArgumentException("maxWait may not be negative");
+        }
+
+        this.maxWaitNanos = unit.toNanos(maxWait);
+        return this;
+    }
+
+    /**
+     * Returns the amount of requests that are waiting for a slot
+     *
+     * @return the amount of waiting requests
+     */
+    public int getQueueDepth() {
+        return this.queueDepth.get();
+    }
+
+    /**
+     * Reserves a slot for a request without blocking, the future completes when the request may be sent
+     *
+     * @param url
+     *     the url of the request
+     * @param route
+     *     the route of the request, or {@code null} when it has no route
+     *
+     * @return a future with a permit that must be passed to the request, fails with a {@link
+     * RateLimitExceededException} when the wait would be longer than the maximum wait
+     */
+    @Nonnull
+    public CompletableFuture<RateLimitPermit> acquire(@Nonnull String url, @Nullable Route route) {
+        final CompletableFuture<RateLimitPermit> future = new CompletableFuture<>();
+        final long wait;
+
+        try {
+            wait = this.reserve(HttpUrl.get(url).host(), route);
+        } catch (RateLimitExceededException | IllegalArgumentException e) {
+            future.completeExceptionally(e);
+            return future;
+        }
+
+        if (wait <= 0L) {
+            future.complete(new RateLimitPermit());
+            return future;
+        }
+
+        this.queueDepth.incrementAndGet();
+
+        SCHEDULER.schedule(() -> {
+            this.queueDepth.decrementAndGet();
+            future.complete(new RateLimitPermit());
+        }, wait, TimeUnit.NANOSECONDS);
+
+        return future;
+    }
+
+    /**
+     * Reserves a slot only when the request may be sent right away, for requests that are skipped rather than
+     * delayed, like hedged requests
+     *
+     * @param host
+     *     the host of the request
+     * @param route
+     *     the route of the request, or {@code null} when it has no route
+     *
+     * @return true when a slot was reserved
+     */
+    public boolean tryReserve(@Nonnull String host, @Nullable Route route) {
+        try {
+            return this.reserve(host, route, 0L) == 0L;
+        } catch (RateLimitExceededException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Reserves a slot in the buckets of the host and route, nothing is reserved when one of them is full
+     *
+     * @return the time in nanoseconds to wait before the request may be sent
+     */
+    long reserve(String host, @Nullable Route route) throws RateLimitExceededException {
+        return this.reserve(host, route, this.maxWaitNanos);
+    }
+
+    private long reserve(String host, @Nullable Route route, long maxWait) throws RateLimitExceededException {
+        final String hostKey = "host:" + host;
+        final RateLimit hostLimit = this.hostLimits.getOrDefault(host, this.defaultHostLimit);
+        final TokenBucket hostBucket = hostLimit == null ? null : this.getBucket(hostKey, hostLimit);
+        final String routeKey = route == null ? null : "route:" + route.getTemplate();
+        final RateLimit routeLimit = route == null ? null : this.routeLimits.get(route.getTemplate());
+        final TokenBucket routeBucket = routeLimit == null ? null : this.getBucket(routeKey, routeLimit);
+        // taken after the buckets are created, a new bucket starts at its creation time
+        final long now = System.nanoTime();
+        long wait = 0L;
+
+        if (hostBucket != null) {
+            wait = reserve(hostBucket, hostKey, now, maxWait);
+        }
+
+        if (routeBucket != null) {
+            try {
+                wait = Math.max(wait, reserve(routeBucket, routeKey, now, maxWait));
+            } catch (RateLimitExceededException e) {
+                // the request is not sent, so it may not use up the slot of the host either
+                if (hostBucket != null) {
+                    hostBucket.refund();
+                }
+
+                throw e;
+            }
+        }
+
+        return wait;
+    }
+
+    void enterQueue() {
+        this.queueDepth.incrementAndGet();
+    }
+
+    void leaveQueue() {
+        this.queueDepth.decrementAndGet();
+    }
+
+    private TokenBucket getBucket(String key, RateLimit limit) {
+        return this.buckets.computeIfAbsent(key, (k) -> new TokenBucket(limit));
+    }
+
+    private static long reserve(TokenBucket bucket, String key, long now, long maxWait) throws RateLimitExceededException {
+        final long wait = bucket.reserve(now, maxWait);
+
+        if (wait < 0L) {
+            throw new RateLimitExceededException(key);
+        }
+
+        return wait;
+    }
+
+    private ClientRateLimiter setLimit(ConcurrentMap<String, RateLimit> limits, String prefix, String key, @Nullable RateLimit limit) {
+        if (limit == null) {
+            limits.remove(key);
+        } else {
+            limits.put(key, limit);
+        }
+
+        // the bucket is created again with the new limit
+        this.buckets.remove(prefix + key);
+        return this;
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ *    Copyright 2026 Duncan "duncte123" Sterken
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package me.duncte123.botcommons.web.ratelimit;
+
+import javax.annotation.Nonnull;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A rate limit of a number of requests per period, with an optional burst of requests that may be sent at once
+ */
+public final class RateLimit {
+    private final int permits;
+    private final long periodNanos;
+    private final int burst;
+
+    private RateLimit(int permits, long periodNanos, int burst) {
+        this.permits = permits;
+        this.periodNanos = periodNanos;
+        this.burst = burst;
+    }
+
+    /**
+     * Creates a limit of a number of requests per second, the requests are spread evenly over the second
+     *
+     * @param permits
+     *     the amount of requests per second
+     *
+     * @return a new rate limit
+     */
+    public static RateLimit perSecond(int permits) {
+        return of(permits, 1L, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Creates a limit of a number of requests per period, the requests are spread evenly over the period
+     *
+     * @param permits
+     *     the amount of requests per period
+     * @param period
+     *     the length of the period
+     * @param unit
+     *     the unit of the period
+     *
+     * @return a new rate limit
+     */
+    public static RateLimit of(int permits, long period, @Nonnull TimeUnit unit) {
+        if (permits < 1 || period < 1L) {
+            throw new IllegalArgumentException("permits and period must be positive");
+        }
+
+        return new RateLimit(permits, unit.toNanos(period), 1);
+    }
+
+    /**
+     * Returns a copy of this limit that allows a burst of requests to be sent at once after a quiet period, the
+     * average rate stays the same
+     *
+     * @param burst
+     *     the amount of requests that may be sent at once, defaults to 1
+     *
+     * @return a new rate limit with the burst
+     */
+    public RateLimit withBurst(int burst) {
+        if (burst < 1) {
+            throw new IllegalArgumentException("burst must be positive");
+        }
+
+        return new RateLimit(this.permits, this.periodNanos, burst);
+    }
+
+    /**
+     * Returns the time between two requests
+     *
+     * @return the interval between requests in nanoseconds
+     */
+    public long getIntervalNanos() {
+        return Math.max(1L, this.periodNanos / this.permits);
+    }
+
+    /**
+     * Returns the amount of requests that may be sent at once
+     *
+     * @return the size of the burst
+     */
+    public int getBurst() {
+        return this.burst;
+    }
+
+    @Override
+    public String toString() {
+        return "RateLimit(" + this.permits + " per " + TimeUnit.NANOSECONDS.toMillis(this.periodNanos) + "ms, burst " + this.burst + ')';
+    }
+}
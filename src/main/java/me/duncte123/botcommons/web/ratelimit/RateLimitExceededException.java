@@ -0,0 +1,43 @@
+/*
+ *    Copyright 2026 Duncan "duncte123" Sterken
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package me.duncte123.botcommons.web.ratelimit;
+
+import java.io.IOException;
+
+/**
+ * Thrown when a request would have to wait longer than {@link ClientRateLimiter#setMaxWait(long,
+ * java.util.concurrent.TimeUnit) the maximum wait} for a slot
+ */
+public class RateLimitExceededException extends IOException {
+    private static final long serialVersionUID = 1L;
+
+    private final String key;
+
+    public RateLimitExceededException(String key) {
+        super("Rate limit of " + key + " is exhausted for longer than the maximum wait");
+        this.key = key;
+    }
+
+    /**
+     * Returns the host or route of the limit that was exhausted
+     *
+     * @return the key of the limit, like {@code host:example.com} or {@code route:GET /images}
+     */
+    public String getKey() {
+        return this.key;
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ *    Copyright 2026 Duncan "duncte123" Sterken
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package me.duncte123.botcommons.web.ratelimit;
+
+import me.duncte123.botcommons.web.Route;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.jetbrains.annotations.NotNull;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Application interceptor that makes requests wait for a slot of the {@link ClientRateLimiter}, does nothing while
+ * no limiter is set or when the request has an unused {@link RateLimitPermit}
+ */
+public class RateLimitInterceptor implements Interceptor {
+    private static final long POLL_NANOS = TimeUnit.MILLISECONDS.toNanos(100L);
+
+    private volatile ClientRateLimiter limiter;
+
+    /**
+     * Returns the limiter that is currently used
+     *
+     * @return the current limiter or {@code null} when there are no client side limits
+     */
+    @Nullable
+    public ClientRateLimiter getLimiter() {
+        return this.limiter;
+    }
+
+    /**
+     * Sets the limiter to use
+     *
+     * @param limiter
+     *     the limiter to use, or {@code null} to disable the client side limits
+     */
+    public void setLimiter(@Nullable ClientRateLimiter limiter) {
+        this.limiter = limiter;
+    }
+
+    @NotNull
+    @Override
+    public Response intercept(@NotNull Chain chain) throws IOException {
+        final ClientRateLimiter limiter = this.limiter;
+        final Request request = chain.request();
+        final RateLimitPermit permit = request.tag(RateLimitPermit.class);
+
+        if (limiter == null || (permit != null && permit.consume())) {
+            return chain.proceed(request);
+        }
+
+        final long wait = limiter.reserve(request.url().host(), request.tag(Route.class));
+
+        if (wait > 0L) {
+            limiter.enterQueue();
+
+            try {
+                waitFor(chain, wait);
+            } finally {
+                limiter.leaveQueue();
+            }
+        }
+
+        return chain.proceed(request);
+    }
+
+    private static void waitFor(Chain chain, long nanos) throws IOException {
+        final long deadline = System.nanoTime() + nanos;
+        long remaining = nanos;
+
+        try {
+            while (remaining > 0L) {
+                TimeUnit.NANOSECONDS.sleep(Math.min(remaining, POLL_NANOS));
+
+                if (chain.call().isCanceled()) {
+                    throw new IOException("Canceled");
+                }
+
+                remaining = deadline - System.nanoTime();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the rate limit");
+        }
+    }
+}
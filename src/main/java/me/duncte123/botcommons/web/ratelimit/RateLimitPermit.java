@@ -0,0 +1,44 @@
+/*
+ *    Copyright 2026 Duncan "duncte123" Sterken
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package me.duncte123.botcommons.web.ratelimit;
+
+import me.duncte123.botcommons.web.RequestBuilderFunction;
+import okhttp3.Request;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A slot that was already reserved with {@link ClientRateLimiter#acquire(String, me.duncte123.botcommons.web.Route)},
+ * pass it as {@link RequestBuilderFunction} to the getter so the request does not wait a second time.<br/>
+ * A permit is only valid for a single attempt, retries of the request wait for their own slot.
+ */
+public final class RateLimitPermit implements RequestBuilderFunction {
+    private final AtomicBoolean used = new AtomicBoolean();
+
+    RateLimitPermit() {}
+
+    boolean consume() {
+        return this.used.compareAndSet(false, true);
+    }
+
+    @NotNull
+    @Override
+    public Request.Builder apply(@NotNull Request.Builder builder) {
+        return builder.tag(RateLimitPermit.class, this);
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ *    Copyright 2026 Duncan "duncte123" Sterken
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package me.duncte123.botcommons.web.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A lock-free token bucket that uses the generic cell rate algorithm (GCRA): instead of counting tokens it keeps the
+ * time at which the next request would be on schedule, every request moves that time one interval forward.
+ */
+class TokenBucket {
+    private final long intervalNanos;
+    private final long toleranceNanos;
+    private final AtomicLong theoreticalArrival;
+
+    TokenBucket(RateLimit limit) {
+        this.intervalNanos = limit.getIntervalNanos();
+        this.toleranceNanos = this.intervalNanos * (limit.getBurst() - 1L);
+        this.theoreticalArrival = new AtomicLong(System.nanoTime());
+    }
+
+    /**
+     * Reserves the next free slot
+     *
+     * @param now
+     *     the current time from {@link System#nanoTime()}
+     * @param maxWaitNanos
+     *     the longest that the caller is willing to wait
+     *
+     * @return the time in nanoseconds to wait before the request may be sent, or {@code -1} when that would be longer
+     * than the maximum wait (nothing is reserved in that case)
+     */
+    long reserve(long now, long maxWaitNanos) {
+        while (true) {
+            final long current = this.theoreticalArrival.get();
+            final long base = Math.max(current, now);
+            final long wait = Math.max(0L, base - now - this.toleranceNanos);
+
+            if (wait > maxWaitNanos) {
+                return -1L;
+            }
+
+            if (this.theoreticalArrival.compareAndSet(current, base + this.intervalNanos)) {
+                return wait;
+            }
+        }
+    }
+
+    /**
+     * Gives back a slot that was reserved but will not be used
+     */
+    void refund() {
+        this.theoreticalArrival.addAndGet(-this.intervalNanos);
+    }
+}
@@ -18,7 +18,6 @@ package me.duncte123.botcommons.web.requests;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import me.duncte123.botcommons.JSONHelper;
 import me.duncte123.botcommons.web.ContentType;
 import net.dv8tion.jda.api.utils.data.DataArray;
@@ -53,13 +52,12 @@ public class JSONRequestBody implements IRequestBody {
     }
 
     public static JSONRequestBody fromJackson(@NotNull JsonNode jsonNode) throws JsonProcessingException {
-        return new JSONRequestBody(JSONHelper.createObjectMapper().writeValueAsBytes(jsonNode));
+        return new JSONRequestBody(JSONHelper.getWriter().writeValueAsBytes(jsonNode));
     }
 
     public static JSONRequestBody fromString(@NotNull String json) throws IOException {
-        final ObjectMapper mapper = JSONHelper.createObjectMapper();
-
-        return new JSONRequestBody(mapper.writeValueAsBytes(mapper.readTree(json)));
+        // parse and write it again to validate the json and strip comments and whitespace
+        return new JSONRequestBody(JSONHelper.getWriter().writeValueAsBytes(JSONHelper.getTreeReader().readTree(json)));
     }
 
     @Override
@@ -0,0 +1,94 @@
+/*
+ *    Copyright 2026 Duncan "duncte123" Sterken
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package me.duncte123.botcommons.web.retry;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limits retries to a ratio of the requests so a failing upstream doesn't get hit with a retry storm.<br/>
+ * Every request adds {@code ratio} tokens to the budget and every retry costs one token, the budget holds at most
+ * {@code maxTokens} tokens and starts full.
+ */
+public class RetryBudget {
+    // tokens are stored as thousandths so the ratio can be added without floating point state
+    private static final long SCALE = 1000L;
+
+    private final AtomicLong balance;
+    private final long deposit;
+    private final long maxBalance;
+
+    /**
+     * Creates a budget that allows retrying 10% of the requests with a reserve of 10 retries
+     */
+    public RetryBudget() {
+        this(0.1D, 10);
+    }
+
+    /**
+     * Creates a new budget
+     *
+     * @param ratio
+     *     the amount of retries that every request earns, {@code 0.1} allows one retry per 10 requests
+     * @param maxTokens
+     *     the maximum amount of retries that can be saved up, this is also the amount of retries that is available
+     *     right away
+     */
+    public RetryBudget(double ratio, int maxTokens) {
+        if (ratio < 0D || maxTokens < 0) {
+            throw new IllegalArgumentException("ratio and maxTokens may not be negative");
+        }
+
+        this.deposit = Math.round(ratio * SCALE);
+        this.maxBalance = maxTokens * SCALE;
+        this.balance = new AtomicLong(this.maxBalance);
+    }
+
+    /**
+     * Adds the tokens of a request to the budget
+     */
+    public void deposit() {
+        this.balance.accumulateAndGet(this.deposit, (current, add) -> Math.min(this.maxBalance, current + add));
+    }
+
+    /**
+     * Takes the token for a single retry from the budget
+     *
+     * @return true if the retry is allowed, false when the budget is used up
+     */
+    public boolean tryWithdraw() {
+        long current;
+
+        do {
+            current = this.balance.get();
+
+            if (current < SCALE) {
+                return false;
+            }
+        } while (!this.balance.compareAndSet(current, current - SCALE));
+
+        return true;
+    }
+
+    /**
+     * Returns the amount of retries that can be done right now
+     *
+     * @return the amount of available retries
+     */
+    public long getAvailableRetries() {
+        return this.balance.get() / SCALE;
+    }
+}
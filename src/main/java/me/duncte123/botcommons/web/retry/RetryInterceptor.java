@@ -0,0 +1,258 @@
+/*
+ *    Copyright 2026 Duncan "duncte123" Sterken
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package me.duncte123.botcommons.web.retry;
+
+import me.duncte123.botcommons.web.metrics.WebMetrics;
+import me.duncte123.botcommons.web.ratelimit.RateLimitExceededException;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.jetbrains.annotations.NotNull;
+
+import javax.annotation.Nullable;
+import javax.net.ssl.SSLPeerUnverifiedException;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.UnknownHostException;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Application interceptor that retries failed requests according to a {@link RetryPolicy}, does nothing while no
+ * policy is set.<br/>
+ * The delay between retries uses exponential backoff with full jitter, a {@code Retry-After} header on the response
+ * takes priority over the backoff. All retries of one interceptor share a {@link RetryBudget}.<br/>
+ * <b>The backoff sleeps on the thread that sends the request</b>, for async requests that is a thread of the
+ * dispatcher. A request is not retried when the delay would go past its call timeout, and the retries are reported to
+ * the {@link me.duncte123.botcommons.web.metrics.MetricsRecorder MetricsRecorder} of the client.
+ */
+public class RetryInterceptor implements Interceptor {
+    private static final long POLL_MILLIS = 100L;
+
+    private final RetryBudget budget;
+    private final LongAdder retryCount = new LongAdder();
+    private final LongAdder exhaustedCount = new LongAdder();
+    private final LongAdder budgetExhaustedCount = new LongAdder();
+    private volatile RetryPolicy policy;
+
+    /**
+     * Creates a new interceptor with the default {@link RetryBudget}
+     */
+    public RetryInterceptor() {
+        this(new RetryBudget());
+    }
+
+    /**
+     * Creates a new interceptor
+     *
+     * @param budget
+     *     the budget that limits the retries of all requests
+     */
+    public RetryInterceptor(RetryBudget budget) {
+        this.budget = budget;
+    }
+
+    /**
+     * Returns the policy that is used for requests without their own policy
+     *
+     * @return the default policy or {@code null} when retries are disabled
+     */
+    @Nullable
+    public RetryPolicy getPolicy() {
+        return this.policy;
+    }
+
+    /**
+     * Sets the policy that is used for requests without their own policy
+     *
+     * @param policy
+     *     the default policy, or {@code null} to only retry requests that have a policy
+     */
+    public void setPolicy(@Nullable RetryPolicy policy) {
+        this.policy = policy;
+    }
+
+    /**
+     * Returns the budget that limits the retries
+     *
+     * @return the retry budget
+     */
+    public RetryBudget getBudget() {
+        return this.budget;
+    }
+
+    /**
+     * Returns the amount of retries that were sent
+     *
+     * @return the amount of retries
+     */
+    public long getRetryCount() {
+        return this.retryCount.sum();
+    }
+
+    /**
+     * Returns the amount of requests that still failed after using all the retries of their policy
+     *
+     * @return the amount of requests that ran out of retries
+     */
+    public long getExhaustedCount() {
+        return this.exhaustedCount.sum();
+    }
+
+    /**
+     * Returns the amount of retries that were skipped because the {@link RetryBudget} was used up, a rising value
+     * means that an upstream is failing a lot of requests
+     *
+     * @return the amount of skipped retries
+     */
+    public long getBudgetExhaustedCount() {
+        return this.budgetExhaustedCount.sum();
+    }
+
+    @NotNull
+    @Override
+    public Response intercept(@NotNull Chain chain) throws IOException {
+        final Request request = chain.request();
+        final RetryPolicy tagged = request.tag(RetryPolicy.class);
+        final RetryPolicy policy = tagged == null ? this.policy : tagged;
+
+        if (policy == null || !policy.canRetry(request)) {
+            return chain.proceed(request);
+        }
+
+        this.budget.deposit();
+
+        final long timeoutNanos = chain.call().timeout().timeoutNanos();
+        // the call timeout started just before the application interceptors
+        final long deadline = timeoutNanos == 0L ? Long.MAX_VALUE : System.nanoTime() + timeoutNanos;
+        final WebMetrics metrics = WebMetrics.of(request);
+
+        for (int retries = 0; ; retries++) {
+            Response response = null;
+            IOException failure = null;
+
+            try {
+                response = chain.proceed(request);
+            } catch (IOException e) {
+                if (chain.call().isCanceled() || !policy.isRetryConnectionFailures() || !isRetryable(e)) {
+                    throw e;
+                }
+
+                failure = e;
+            }
+
+            if (response != null && !policy.isRetryableStatus(response.code())) {
+                return response;
+            }
+
+            if (retries >= policy.getMaxRetries()) {
+                this.exhaustedCount.increment();
+                return giveUp(response, failure);
+            }
+
+            final long retryAfter = response == null ? -1L : getRetryAfterMillis(response);
+
+            // the server wants us to wait longer than we are willing to
+            if (retryAfter > policy.getMaxDelayMillis()) {
+                return giveUp(response, failure);
+            }
+
+            final long delay = retryAfter > -1L ? retryAfter : policy.getBackoffMillis(retries + 1);
+
+            // the retry would time out anyway, don't spend the budget on it
+            if (deadline - System.nanoTime() <= TimeUnit.MILLISECONDS.toNanos(delay)) {
+                this.exhaustedCount.increment();
+                return giveUp(response, failure);
+            }
+
+            if (!this.budget.tryWithdraw()) {
+                this.budgetExhaustedCount.increment();
+                return giveUp(response, failure);
+            }
+
+            if (response != null) {
+                response.close();
+            }
+
+            if (metrics != null) {
+                final String cause = response == null ? failure.getClass().getSimpleName() : String.valueOf(response.code());
+
+                metrics.recordRetry(request, cause, delay);
+            }
+
+            sleep(chain, delay);
+            this.retryCount.increment();
+        }
+    }
+
+    private static Response giveUp(@Nullable Response response, @Nullable IOException failure) throws IOException {
+        if (response == null) {
+            throw failure;
+        }
+
+        return response;
+    }
+
+    private static boolean isRetryable(IOException e) {
+        // these won't go away by trying again, the rate limiter already waited as long as it is allowed to
+        return !(e instanceof UnknownHostException) && !(e instanceof SSLPeerUnverifiedException) &&
+            !(e instanceof RateLimitExceededException);
+    }
+
+    private static long getRetryAfterMillis(Response response) {
+        final String header = response.header("Retry-After");
+
+        if (header == null) {
+            return -1L;
+        }
+
+        try {
+            return TimeUnit.SECONDS.toMillis(Math.max(0L, Long.parseLong(header.trim())));
+        } catch (NumberFormatException ignored) {
+            // not a number of seconds, try the date format
+        }
+
+        final Date date = response.headers().getDate("Retry-After");
+
+        return date == null ? -1L : Math.max(0L, date.getTime() - System.currentTimeMillis());
+    }
+
+    private static void sleep(Chain chain, long millis) throws IOException {
+        final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis);
+        long remaining = millis;
+
+        try {
+            while (remaining > 0L) {
+                Thread.sleep(Math.min(remaining, POLL_MILLIS));
+
+                if (chain.call().isCanceled()) {
+                    throw new IOException("Canceled");
+                }
+
+                remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting to retry");
+        }
+
+        if (chain.call().isCanceled()) {
+            throw new IOException("Canceled");
+        }
+    }
+}
@@ -0,0 +1,304 @@
+/*
+ *    Copyright 2026 Duncan "duncte123" Sterken
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package me.duncte123.botcommons.web.retry;
+
+import me.duncte123.botcommons.web.RequestBuilderFunction;
+import okhttp3.Request;
+import org.jetbrains.annotations.NotNull;
+
+import javax.annotation.Nonnull;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decides which failed requests are retried and how long to wait between attempts.<br/>
+ * A policy is also a {@link RequestBuilderFunction} so it can be passed to the getters in {@link
+ * me.duncte123.botcommons.web.WebUtils WebUtils} to override the default policy for a single request, pass {@link
+ * #NONE} to never retry a request.
+ *
+ * @see RetryInterceptor
+ */
+public final class RetryPolicy implements RequestBuilderFunction {
+    private static final Set<String> IDEMPOTENT_METHODS = Collections.unmodifiableSet(new HashSet<>(
+        Arrays.asList("GET", "HEAD", "OPTIONS", "PUT", "DELETE", "TRACE")
+    ));
+
+    /**
+     * Retries idempotent requests twice on connection failures and {@code 502}, {@code 503} and {@code 504}, starting
+     * with a delay of up to 100ms and waiting at most 5 seconds
+     */
+    public static final RetryPolicy DEFAULT = builder().build();
+
+    /**
+     * Never retries
+     */
+    public static final RetryPolicy NONE = builder().setMaxRetries(0).build();
+
+    private final int maxRetries;
+    private final long baseDelayMillis;
+    private final long maxDelayMillis;
+    private final Set<Integer> retryableStatusCodes;
+    private final boolean retryConnectionFailures;
+    private final boolean retryNonIdempotent;
+
+    private RetryPolicy(Builder builder) {
+        this.maxRetries = builder.maxRetries;
+        this.baseDelayMillis = builder.baseDelayMillis;
+        this.maxDelayMillis = builder.maxDelayMillis;
+        this.retryableStatusCodes = Collections.unmodifiableSet(new HashSet<>(builder.retryableStatusCodes));
+        this.retryConnectionFailures = builder.retryConnectionFailures;
+        this.retryNonIdempotent = builder.retryNonIdempotent;
+    }
+
+    /**
+     * Creates a builder for a new policy, the defaults are the same as {@link #DEFAULT}
+     *
+     * @return a new builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Returns the maximum amount of retries, a request is sent at most this amount plus one times
+     *
+     * @return the maximum amount of retries
+     */
+    public int getMaxRetries() {
+        return this.maxRetries;
+    }
+
+    /**
+     * Returns the maximum time to wait before a retry, a {@code Retry-After} header that asks for a longer wait stops
+     * the retries
+     *
+     * @return the maximum delay in milliseconds
+     */
+    public long getMaxDelayMillis() {
+        return this.maxDelayMillis;
+    }
+
+    /**
+     * Returns the status codes that are retried
+     *
+     * @return the retryable status codes
+     */
+    public Set<Integer> getRetryableStatusCodes() {
+        return this.retryableStatusCodes;
+    }
+
+    /**
+     * Checks if a request can be retried at all by this policy
+     *
+     * @param request
+     *     the request to check
+     *
+     * @return true if the method of the request may be retried and its body can be sent again
+     */
+    public boolean canRetry(@Nonnull Request request) {
+        if (this.maxRetries < 1) {
+            return false;
+        }
+
+        if (request.body() != null && request.body().isOneShot()) {
+            return false;
+        }
+
+        return this.retryNonIdempotent || IDEMPOTENT_METHODS.contains(request.method().toUpperCase(Locale.ROOT));
+    }
+
+    /**
+     * Checks if a response with the given status code should be retried
+     *
+     * @param code
+     *     the status code of the response
+     *
+     * @return true if the status code is retryable
+     */
+    public boolean isRetryableStatus(int code) {
+        return this.retryableStatusCodes.contains(code);
+    }
+
+    /**
+     * Checks if requests that failed without a response are retried
+     *
+     * @return true if connection failures are retried
+     */
+    public boolean isRetryConnectionFailures() {
+        return this.retryConnectionFailures;
+    }
+
+    /**
+     * Calculates the delay before a retry with "full jitter", a random delay between 0 and the exponential backoff
+     * so clients that failed at the same time don't retry at the same time
+     *
+     * @param retry
+     *     the number of the retry, starting at 1
+     *
+     * @return the delay in milliseconds
+     */
+    public long getBackoffMillis(int retry) {
+        final int shift = Math.min(Math.max(retry - 1, 0), 30);
+        // compare before shifting so the backoff can't overflow
+        final long backoff = this.baseDelayMillis > (this.maxDelayMillis >> shift) ?
+            this.maxDelayMillis : this.baseDelayMillis << shift;
+
+        return backoff < 1L ? 0L : ThreadLocalRandom.current().nextLong(backoff + 1L);
+    }
+
+    @NotNull
+    @Override
+    public Request.Builder apply(@NotNull Request.Builder builder) {
+        return builder.tag(RetryPolicy.class, this);
+    }
+
+    @Override
+    public String toString() {
+        return "RetryPolicy(maxRetries=" + this.maxRetries + ", statusCodes=" + this.retryableStatusCodes + ')';
+    }
+
+    /**
+     * Builder for {@link RetryPolicy}
+     */
+    public static class Builder {
+        private int maxRetries = 2;
+        private long baseDelayMillis = 100L;
+        private long maxDelayMillis = TimeUnit.SECONDS.toMillis(5L);
+        private Set<Integer> retryableStatusCodes = new HashSet<>(Arrays.asList(502, 503, 504));
+        private boolean retryConnectionFailures = true;
+        private boolean retryNonIdempotent = false;
+
+        private Builder() {}
+
+        /**
+         * Sets the maximum amount of retries, defaults to 2
+         *
+         * @param maxRetries
+         *     the maximum amount of retries, {@code 0} to disable retries
+         *
+         * @return The builder instance, useful for chaining
+         */
+        public Builder setMaxRetries(int maxRetries) {
+            if (maxRetries < 0) {
+                throw new IllegalArgumentException("maxRetries may not be negative");
+            }
+
+            this.maxRetries = maxRetries;
+            return this;
+        }
+
+        /**
+         * Sets the delay of the first retry, every retry doubles the delay. Defaults to 100ms
+         *
+         * @param delay
+         *     the delay of the first retry
+         * @param unit
+         *     the unit of the delay
+         *
+         * @return The builder instance, useful for chaining
+         */
+        public Builder setBaseDelay(long delay, @Nonnull TimeUnit unit) {
+            if (delay < 0L) {
+                throw new IllegalArgumentException("delay may not be negative");
+            }
+
+            this.baseDelayMillis = unit.toMillis(delay);
+            return this;
+        }
+
+        /**
+         * Sets the maximum delay between retries, defaults to 5 seconds.<br/>
+         * Responses with a {@code Retry-After} header that asks for a longer wait are not retried.
+         *
+         * @param delay
+         *     the maximum delay
+         * @param unit
+         *     the unit of the delay
+         *
+         * @return The builder instance, useful for chaining
+         */
+        public Builder setMaxDelay(long delay, @Nonnull TimeUnit unit) {
+            if (delay < 0L) {
+                throw new IllegalArgumentException("delay may not be negative");
+            }
+
+            this.maxDelayMillis = unit.toMillis(delay);
+            return this;
+        }
+
+        /**
+         * Sets the status codes that are retried, defaults to {@code 502}, {@code 503} and {@code 504}
+         *
+         * @param statusCodes
+         *     the status codes to retry, for example {@code 429} to also retry when being rate limited
+         *
+         * @return The builder instance, useful for chaining
+         */
+        public Builder setRetryableStatusCodes(int... statusCodes) {
+            this.retryableStatusCodes = new HashSet<>();
+
+            for (final int code : statusCodes) {
+                this.retryableStatusCodes.add(code);
+            }
+
+            return this;
+        }
+
+        /**
+         * Sets if requests that failed without a response, like connection resets and timeouts, are retried. Enabled
+         * by default
+         *
+         * @param retryConnectionFailures
+         *     true to retry connection failures
+         *
+         * @return The builder instance, useful for chaining
+         */
+        public Builder setRetryConnectionFailures(boolean retryConnectionFailures) {
+            this.retryConnectionFailures = retryConnectionFailures;
+            return this;
+        }
+
+        /**
+         * Sets if requests with methods that are not idempotent, like {@code POST} and {@code PATCH}, are retried.
+         * Disabled by default because a retry could execute the action twice
+         *
+         * @param retryNonIdempotent
+         *     true to retry all methods
+         *
+         * @return The builder instance, useful for chaining
+         */
+        public Builder setRetryNonIdempotent(boolean retryNonIdempotent) {
+            this.retryNonIdempotent = retryNonIdempotent;
+            return this;
+        }
+
+        /**
+         * Builds the policy
+         *
+         * @return a new retry policy
+         */
+        @Nonnull
+        public RetryPolicy build() {
+            return new RetryPolicy(this);
+        }
+    }
+}
@@ -17,20 +17,82 @@
 package me.duncte123.botcommons;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.github.natanbc.reliqua.request.PendingRequest;
+import com.github.natanbc.reliqua.request.RequestException;
 import com.github.natanbc.reliqua.util.StatusCodeValidator;
+import io.airlift.compress.zstd.ZstdCompressor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import me.duncte123.botcommons.obj.TestConfig;
+import me.duncte123.botcommons.web.DownloadOptions;
+import me.duncte123.botcommons.web.DownloadResult;
+import me.duncte123.botcommons.web.ErrorMapper;
+import me.duncte123.botcommons.web.HttpStatusException;
+import me.duncte123.botcommons.web.JSONArrayIterator;
+import me.duncte123.botcommons.web.RequestBuilderFunction;
+import me.duncte123.botcommons.web.Route;
+import me.duncte123.botcommons.web.ScrapeOptions;
+import me.duncte123.botcommons.web.VirtualThreads;
+import me.duncte123.botcommons.web.WebParserUtils;
 import me.duncte123.botcommons.web.WebUtils;
+import me.duncte123.botcommons.web.async.CallHandle;
+import me.duncte123.botcommons.web.async.RequestFutures;
+import me.duncte123.botcommons.web.async.RequestPublisher;
+import me.duncte123.botcommons.web.cache.CachePolicy;
+import me.duncte123.botcommons.web.cache.ResponseCache;
+import me.duncte123.botcommons.web.circuit.CircuitBreakerConfig;
+import me.duncte123.botcommons.web.circuit.CircuitBreakerOpenException;
+import me.duncte123.botcommons.web.circuit.CircuitState;
+import me.duncte123.botcommons.web.encoding.ContentDecoders;
+import me.duncte123.botcommons.web.metrics.LatencyHistogram;
+import me.duncte123.botcommons.web.metrics.MicrometerMetricsRecorder;
+import me.duncte123.botcommons.web.metrics.SimpleMetricsRecorder;
+import me.duncte123.botcommons.web.ratelimit.ClientRateLimiter;
+import me.duncte123.botcommons.web.ratelimit.RateLimit;
+import me.duncte123.botcommons.web.ratelimit.RateLimitExceededException;
+import me.duncte123.botcommons.web.ratelimit.RateLimitPermit;
+import me.duncte123.botcommons.web.requests.JSONRequestBody;
+import me.duncte123.botcommons.web.retry.RetryPolicy;
+import okhttp3.ConnectionPool;
 import okhttp3.HttpUrl;
+import okhttp3.Protocol;
 import okhttp3.mockwebserver.MockResponse;
 import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okio.Buffer;
+import okio.ByteString;
+import org.jsoup.nodes.Document;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
 
-import static org.junit.Assert.assertEquals;
-import static org.junit.Assert.assertNotNull;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.Assert.*;
 
 public class WebTest {
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
 
     @Test
     public void testWebUtilsCanSetUserAgentAndWillSendCorrectUserAgent() throws JsonProcessingException {
@@ -86,6 +148,817 @@ public class WebTest {
         System.out.println("After");
     }
 
+    @Test
+    public void testGetJSONBindsToTypes() {
+        MockWebServer server = new MockWebServer();
+        server.enqueue(new MockResponse()
+            .addHeader("Content-Type", "application/json; charset=utf-8")
+            .setBody("{\"val1\": \"hello\", \"val2\": \"world\", \"unknown\": true}")
+        );
+        server.enqueue(new MockResponse()
+            .addHeader("Content-Type", "application/json; charset=utf-8")
+            .setBody("[{\"val1\": \"one\"}, {\"val1\": \"two\"}]")
+        );
+
+        HttpUrl url = server.url("/typed");
+        TestConfig config = WebUtils.ins.getJSON(url.toString(), TestConfig.class).execute();
+
+        assertEquals("hello", config.val1);
+        assertEquals("world", config.val2);
+
+        List<TestConfig> configs = WebUtils.ins.getJSON(url.toString(), new TypeReference<List<TestConfig>>() {}).execute();
+
+        assertEquals(2, configs.size());
+        assertEquals("two", configs.get(1).val1);
+    }
+
+    @Test
+    public void testStreamJSONArrayReadsElementsAndCanStopEarly() throws IOException {
+        MockWebServer server = new MockWebServer();
+        String body = "[{\"val1\": \"one\"}, {\"val1\": \"two\"}, {\"val1\": \"three\"}]";
+
+        server.enqueue(new MockResponse().setBody(body));
+        server.enqueue(new MockResponse().setBody(body));
+
+        HttpUrl url = server.url("/stream");
+
+        try (JSONArrayIterator<TestConfig> iterator = WebUtils.ins.streamJSONArray(url.toString(), TestConfig.class).execute()) {
+            List<String> values = iterator.stream().map((config) -> config.val1).collect(Collectors.toList());
+
+            assertEquals(Arrays.asList("one", "two", "three"), values);
+            assertTrue(iterator.isClosed());
+        }
+
+        JSONArrayIterator<TestConfig> iterator = WebUtils.ins.streamJSONArray(url.toString(), TestConfig.class).execute();
+
+        assertEquals("one", iterator.next().val1);
+        iterator.close();
+        assertFalse(iterator.hasNext());
+    }
+
+    @Test
+    public void testResponseCacheRevalidatesWithETag() throws InterruptedException {
+        MockWebServer server = new MockWebServer();
+        server.enqueue(new MockResponse()
+            .addHeader("ETag", "\"v1\"")
+            .setBody("cached body")
+        );
+        server.enqueue(new MockResponse().setResponseCode(304));
+
+        ResponseCache cache = new ResponseCache(1024 * 1024);
+        HttpUrl url = server.url("/cached");
+
+        WebUtils.ins.setResponseCache(cache);
+
+        try {
+            assertEquals("cached body", WebUtils.ins.getText(url.toString()).execute());
+            assertEquals("cached body", WebUtils.ins.getText(url.toString()).execute());
+            // served without a request at all
+            assertEquals("cached body", WebUtils.ins.getText(url.toString(), null, CachePolicy.CACHE_ONLY).execute());
+        } finally {
+            WebUtils.ins.setResponseCache(null);
+        }
+
+        assertNull(server.takeRequest().getHeader("If-None-Match"));
+        assertEquals("\"v1\"", server.takeRequest().getHeader("If-None-Match"));
+        assertEquals(2, server.getRequestCount());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(1, cache.getConditionalHitCount());
+        assertEquals(1, cache.getHitCount());
+    }
+
+    @Test
+    public void testResponseCacheSeparatesCredentials() throws InterruptedException {
+        MockWebServer server = new MockWebServer();
+        server.enqueue(new MockResponse()
+            .addHeader("Cache-Control", "max-age=60")
+            .setBody("body for a")
+        );
+        server.enqueue(new MockResponse()
+            .addHeader("Cache-Control", "max-age=60")
+            .setBody("body for b")
+        );
+
+        ResponseCache cache = new ResponseCache(1024 * 1024);
+        HttpUrl url = server.url("/private");
+
+        WebUtils.ins.setResponseCache(cache);
+
+        try {
+            assertEquals("body for a", WebUtils.ins.getText(url.toString(), null,
+                (builder) -> CachePolicy.PREFER_CACHE.apply(builder.header("Authorization", "a"))).execute());
+            assertEquals("body for b", WebUtils.ins.getText(url.toString(), null,
+                (builder) -> CachePolicy.PREFER_CACHE.apply(builder.header("Authorization", "b"))).execute());
+            assertEquals("body for a", WebUtils.ins.getText(url.toString(), null,
+                (builder) -> CachePolicy.CACHE_ONLY.apply(builder.header("Authorization", "a"))).execute());
+
+            try {
+                WebUtils.ins.getText(url.toString(), null, CachePolicy.CACHE_ONLY).execute();
+                fail("A request without credentials should not get a cached private response");
+            } catch (RuntimeException ignored) {
+                // 504 from the cache
+            }
+
+            cache.invalidate(url.toString());
+            assertEquals(0, cache.getSize());
+        } finally {
+            WebUtils.ins.setResponseCache(null);
+        }
+
+        assertEquals("a", server.takeRequest().getHeader("Authorization"));
+        assertEquals("b", server.takeRequest().getHeader("Authorization"));
+        assertEquals(2, server.getRequestCount());
+    }
+
+    @Test
+    public void testRequestCoalescingSharesOneCall() throws InterruptedException {
+        MockWebServer server = new MockWebServer();
+        server.enqueue(new MockResponse()
+            .setHeadersDelay(500L, TimeUnit.MILLISECONDS)
+            .setBody("shared body")
+        );
+
+        HttpUrl url = server.url("/coalesced");
+        List<String> results = new CopyOnWriteArrayList<>();
+        CountDownLatch latch = new CountDownLatch(4);
+
+        WebUtils.ins.setRequestCoalescing(true);
+
+        try {
+            for (int i = 0; i < 4; i++) {
+                WebUtils.ins.getText(url.toString()).async((text) -> {
+                    results.add(text);
+                    latch.countDown();
+                });
+            }
+
+            assertTrue(latch.await(5L, TimeUnit.SECONDS));
+        } finally {
+            WebUtils.ins.setRequestCoalescing(false);
+        }
+
+        assertEquals(Collections.nCopies(4, "shared body"), results);
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    public void testRangeRequestsAreNotCoalesced() throws InterruptedException {
+        MockWebServer server = new MockWebServer();
+        server.enqueue(new MockResponse()
+            .setHeadersDelay(500L, TimeUnit.MILLISECONDS)
+            .setBody("full body")
+        );
+        server.enqueue(new MockResponse()
+            .setHeadersDelay(500L, TimeUnit.MILLISECONDS)
+            .setBody("full body")
+        );
+
+        HttpUrl url = server.url("/ranged");
+        List<String> results = new CopyOnWriteArrayList<>();
+        CountDownLatch latch = new CountDownLatch(2);
+
+        WebUtils.ins.setRequestCoalescing(true);
+
+        try {
+            WebUtils.ins.getText(url.toString()).async((text) -> {
+                results.add(text);
+                latch.countDown();
+            });
+            WebUtils.ins.getText(url.toString(), null, (builder) -> builder.header("Range", "bytes=5-")).async((text) -> {
+                results.add(text);
+                latch.countDown();
+            });
+
+            assertTrue(latch.await(5L, TimeUnit.SECONDS));
+        } finally {
+            WebUtils.ins.setRequestCoalescing(false);
+        }
+
+        assertEquals(2, results.size());
+        assertEquals(2, server.getRequestCount());
+    }
+
+    @Test
+    public void testBuilderCreatesIndependentInstances() {
+        MockWebServer server = new MockWebServer();
+        server.enqueue(new MockResponse().setBody("from a custom instance"));
+
+        final WebUtils custom = WebUtils.builder()
+            .setConnectTimeout(5L, TimeUnit.SECONDS)
+            .setReadTimeout(5L, TimeUnit.SECONDS)
+            .setMaxRequestsPerHost(2)
+            .setRequestCoalescing(true)
+            .build();
+
+        try {
+            assertNotSame(WebUtils.ins.getClient(), custom.getClient());
+            assertEquals(2, custom.getClient().dispatcher().getMaxRequestsPerHost());
+            assertTrue(custom.isRequestCoalescing());
+            assertFalse(WebUtils.ins.isRequestCoalescing());
+            assertEquals("from a custom instance", custom.getText(server.url("/custom").toString()).execute());
+        } finally {
+            custom.shutdown();
+        }
+    }
+
+    @Test
+    public void testVirtualThreadsOnlyWhenSupported() throws Exception {
+        final WebUtils.Builder builder = WebUtils.builder().setVirtualThreads(true);
+
+        if (!VirtualThreads.isAvailable()) {
+            try {
+                builder.build();
+                fail("Virtual threads should not be available");
+            } catch (IllegalStateException ignored) {
+                // expected on Java 20 and older
+            }
+
+            return;
+        }
+
+        MockWebServer server = new MockWebServer();
+        server.enqueue(new MockResponse().setBody("virtual"));
+
+        final WebUtils virtual = builder.build();
+
+        try {
+            final CompletableFuture<String> result = new CompletableFuture<>();
+
+            virtual.getText(server.url("/virtual").toString()).async(result::complete, result::completeExceptionally);
+
+            assertEquals("virtual", result.get(5L, TimeUnit.SECONDS));
+        } finally {
+            virtual.shutdown();
+        }
+    }
+
+    @Test
+    public void testFutureCancellationCancelsTheCall() throws Exception {
+        MockWebServer server = new MockWebServer();
+        server.enqueue(new MockResponse().setBody("first"));
+        server.enqueue(new MockResponse().setHeadersDelay(10L, TimeUnit.SECONDS).setBody("too slow"));
+
+        final String url = server.url("/future").toString();
+
+        assertEquals("first", RequestFutures.toFuture((handle) -> WebUtils.ins.getText(url, null, handle))
+            .get(5L, TimeUnit.SECONDS));
+        assertNotNull(server.takeRequest(5L, TimeUnit.SECONDS));
+
+        final AtomicReference<RequestBuilderFunction> handleRef = new AtomicReference<>();
+        final CompletableFuture<String> slow = RequestFutures.toFuture((handle) -> {
+            handleRef.set(handle);
+            return WebUtils.ins.getText(url, null, handle);
+        });
+
+        assertNotNull(server.takeRequest(5L, TimeUnit.SECONDS));
+        assertTrue(slow.cancel(true));
+
+        final CallHandle handle = (CallHandle) handleRef.get();
+
+        assertTrue(handle.isCancelled());
+        assertTrue(handle.getCall().isCanceled());
+    }
+
+    @Test
+    public void testRequestPublisherEmitsResult() throws Exception {
+        MockWebServer server = new MockWebServer();
+        server.enqueue(new MockResponse().setBody("published"));
+
+        final String url = server.url("/publisher").toString();
+        final CompletableFuture<List<String>> result = new CompletableFuture<>();
+
+        RequestPublisher.of((handle) -> WebUtils.ins.getText(url, null, handle)).subscribe(new Subscriber<String>() {
+            private final List<String> items = new CopyOnWriteArrayList<>();
+
+            @Override
+            public void onSubscribe(Subscription subscription) {
+                subscription.request(1L);
+            }
+
+            @Override
+            public void onNext(String item) {
+                this.items.add(item);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                result.completeExceptionally(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                result.complete(this.items);
+            }
+        });
+
+        assertEquals(Collections.singletonList("published"), result.get(5L, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testDownloadToResumesAndEnforcesMaxSize() throws Exception {
+        MockWebServer server = new MockWebServer();
+        final String url = server.url("/download").toString();
+        final Path target = temporaryFolder.getRoot().toPath().resolve("download.txt");
+
+        server.enqueue(new MockResponse().setBody("Hello"));
+
+        final DownloadResult first = WebUtils.ins.downloadTo(url, target).execute();
+
+        assertEquals(5L, first.getBytesWritten());
+        assertFalse(first.isResumed());
+        assertEquals("Hello", new String(Files.readAllBytes(target), StandardCharsets.UTF_8));
+        server.takeRequest();
+
+        server.enqueue(new MockResponse()
+            .setResponseCode(206)
+            .addHeader("Content-Range", "bytes 5-10/11")
+            .setBody(" world")
+        );
+
+        final DownloadResult resumed = WebUtils.ins.downloadTo(url, target, new DownloadOptions().setResume(true)).execute();
+
+        assertEquals("bytes=5-", server.takeRequest().getHeader("Range"));
+        assertTrue(resumed.isResumed());
+        assertEquals(6L, resumed.getBytesWritten());
+        assertEquals(11L, resumed.getSize());
+        assertEquals("Hello world", new String(Files.readAllBytes(target), StandardCharsets.UTF_8));
+
+        server.enqueue(new MockResponse().setBody("This body is too large"));
+
+        try {
+            WebUtils.ins.downloadTo(url, target, new DownloadOptions().setMaxSize(10L)).execute();
+            fail("The download should fail because of the max size");
+        } catch (RequestException ignored) {
+            // expected
+        }
+
+        // the Content-Length was already too large, so the existing file was never touched
+        assertEquals("Hello world", new String(Files.readAllBytes(target), StandardCharsets.UTF_8));
+
+        // without Content-Length the limit is only found while writing
+        server.enqueue(new MockResponse().setChunkedBody("This body is too large", 4));
+
+        try {
+            WebUtils.ins.downloadTo(url, target, new DownloadOptions().setMaxSize(10L)).execute();
+            fail("The download should fail because of the max size");
+        } catch (RequestException ignored) {
+            // expected
+        }
+
+        assertFalse(Files.exists(target));
+
+        // a resumed download that grows too large keeps the part that was already downloaded
+        Files.write(target, "Hello".getBytes(StandardCharsets.UTF_8));
+        server.enqueue(new MockResponse()
+            .setResponseCode(206)
+            .addHeader("Content-Range", "bytes 5-10/11")
+            .setChunkedBody(" world", 2)
+        );
+
+        try {
+            WebUtils.ins.downloadTo(url, target, new DownloadOptions().setResume(true).setMaxSize(8L)).execute();
+            fail("The download should fail because of the max size");
+        } catch (RequestException ignored) {
+            // expected
+        }
+
+        assertEquals("Hello", new String(Files.readAllBytes(target), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testByteReadersReturnTheFullBody() throws Exception {
+        MockWebServer server = new MockWebServer();
+        final String url = server.url("/bytes").toString();
+        final byte[] expected = new byte[100_000];
+
+        new Random(42L).nextBytes(expected);
+
+        server.enqueue(new MockResponse().setBody(new Buffer().write(expected)));
+        assertArrayEquals(expected, WebUtils.ins.getByteStream(url).execute());
+
+        server.enqueue(new MockResponse().setChunkedBody(new Buffer().write(expected), 4096));
+        assertEquals(ByteString.of(expected), WebUtils.ins.getByteString(url).execute());
+
+        server.enqueue(new MockResponse().setBody(new Buffer().write(expected)));
+        assertEquals(ByteBuffer.wrap(expected), WebUtils.ins.getByteBuffer(url).execute());
+    }
+
+    @Test
+    public void testStackedContentEncodingsAreDecoded() throws Exception {
+        MockWebServer server = new MockWebServer();
+        final String text = String.join(" ", Collections.nCopies(100, "compressed"));
+        final ByteArrayOutputStream gzipped = new ByteArrayOutputStream();
+
+        try (GZIPOutputStream out = new GZIPOutputStream(gzipped)) {
+            out.write(text.getBytes(StandardCharsets.UTF_8));
+        }
+
+        final ZstdCompressor compressor = new ZstdCompressor();
+        final byte[] input = gzipped.toByteArray();
+        final byte[] output = new byte[compressor.maxCompressedLength(input.length)];
+        final int length = compressor.compress(input, 0, input.length, output, 0, output.length);
+
+        // gzip was applied first, so it is decoded last
+        server.enqueue(new MockResponse()
+            .addHeader("Content-Encoding", "gzip, zstd")
+            .setBody(new Buffer().write(output, 0, length))
+        );
+
+        assertEquals(text, WebUtils.ins.getText(server.url("/encoded").toString()).execute());
+        assertEquals(ContentDecoders.getAcceptEncoding(), server.takeRequest().getHeader("Accept-Encoding"));
+        assertTrue(ContentDecoders.getAcceptEncoding().contains("zstd"));
+    }
+
+    @Test
+    public void testRetriesIdempotentRequestsOnly() throws Exception {
+        MockWebServer server = new MockWebServer();
+        final String url = server.url("/retry").toString();
+        final RetryPolicy policy = RetryPolicy.builder()
+            .setBaseDelay(1L, TimeUnit.MILLISECONDS)
+            .build();
+        final long retriesBefore = WebUtils.ins.getRetryInterceptor().getRetryCount();
+
+        server.enqueue(new MockResponse().setResponseCode(503));
+        server.enqueue(new MockResponse().setResponseCode(502));
+        server.enqueue(new MockResponse().setBody("third time's the charm"));
+
+        assertEquals("third time's the charm", WebUtils.ins.getText(url, null, policy).execute());
+        assertEquals(3, server.getRequestCount());
+        assertEquals(2L, WebUtils.ins.getRetryInterceptor().getRetryCount() - retriesBefore);
+
+        server.enqueue(new MockResponse().setResponseCode(503));
+
+        try {
+            WebUtils.ins.postRequest(url, JSONRequestBody.fromString("{}"), policy).build((res) -> res.code(), WebParserUtils::handleError).execute();
+            fail("POST requests should not be retried");
+        } catch (RequestException ignored) {
+            // expected
+        }
+
+        assertEquals(4, server.getRequestCount());
+    }
+
+    @Test
+    public void testRetriesStayWithinTheCallTimeout() {
+        MockWebServer server = new MockWebServer();
+        final String url = server.url("/retry-timeout").toString();
+        final SimpleMetricsRecorder recorder = new SimpleMetricsRecorder();
+        final WebUtils limited = WebUtils.builder()
+            .setCallTimeout(2L, TimeUnit.SECONDS)
+            .setRetryPolicy(RetryPolicy.builder()
+                .setBaseDelay(1L, TimeUnit.MILLISECONDS)
+                .setMaxDelay(10L, TimeUnit.SECONDS)
+                .build())
+            .setMetricsRecorder(recorder)
+            .build();
+
+        try {
+            server.enqueue(new MockResponse().setResponseCode(503));
+            server.enqueue(new MockResponse().setBody("retried"));
+            assertEquals("retried", limited.getText(url).execute());
+            assertEquals(1L, recorder.getRetryCount(server.getHostName()));
+
+            // waiting 5 seconds would go past the call timeout, so the 503 is returned right away
+            server.enqueue(new MockResponse().setResponseCode(503).addHeader("Retry-After", "5"));
+
+            final long start = System.currentTimeMillis();
+
+            try {
+                limited.getText(url).execute();
+                fail("Expected the 503 to fail the request");
+            } catch (HttpStatusException e) {
+                assertEquals(503, e.getStatus());
+            }
+
+            assertTrue(System.currentTimeMillis() - start < 1500L);
+            assertEquals(3, server.getRequestCount());
+            assertEquals(1L, recorder.getRetryCount(server.getHostName()));
+        } finally {
+            limited.shutdown();
+        }
+    }
+
+    @Test
+    public void testHedgedRequestWinsFromSlowRequest() {
+        MockWebServer server = new MockWebServer();
+        final String url = server.url("/hedge").toString();
+        final SimpleMetricsRecorder recorder = new SimpleMetricsRecorder();
+        final WebUtils hedged = WebUtils.builder().setHedging(true).setMetricsRecorder(recorder).build();
+
+        hedged.getHedgingInterceptor().setMinSamples(1);
+
+        try {
+            server.enqueue(new MockResponse().setBody("learning"));
+            assertEquals("learning", hedged.getText(url).execute());
+
+            server.enqueue(new MockResponse().setHeadersDelay(5L, TimeUnit.SECONDS).setBody("slow"));
+            server.enqueue(new MockResponse().setBody("fast"));
+
+            final long start = System.currentTimeMillis();
+
+            assertEquals("fast", hedged.getText(url).execute());
+            assertTrue(System.currentTimeMillis() - start < 4000L);
+            assertEquals(1L, hedged.getHedgingInterceptor().getHedgesFired());
+            assertEquals(1L, hedged.getHedgingInterceptor().getHedgesWon());
+            // the bytes of the winning hedge count for the call
+            assertEquals("learning".length() + "fast".length(), recorder.getBytesReceived());
+            assertEquals(2L, recorder.getStatusCount(200));
+        } finally {
+            hedged.shutdown();
+        }
+    }
+
+    @Test
+    public void testCircuitBreakerOpensAndFailsFast() {
+        MockWebServer server = new MockWebServer();
+        final String url = server.url("/breaker").toString();
+        final List<CircuitState> transitions = new CopyOnWriteArrayList<>();
+        final WebUtils guarded = WebUtils.builder()
+            .setCircuitBreaker(CircuitBreakerConfig.builder()
+                .setWindowSize(4)
+                .setMinimumRequests(2)
+                .setOpenDuration(1L, TimeUnit.MINUTES)
+                .build())
+            .build();
+
+        guarded.getCircuitBreakerInterceptor().addListener((host, from, to) -> transitions.add(to));
+
+        try {
+            for (int i = 0; i < 2; i++) {
+                server.enqueue(new MockResponse().setResponseCode(500));
+
+                try {
+                    guarded.getText(url).execute();
+                    fail("The request should fail with status 500");
+                } catch (RequestException ignored) {
+                    // expected
+                }
+            }
+
+            assertEquals(CircuitState.OPEN, guarded.getCircuitBreakerInterceptor().getState(server.getHostName()));
+            assertEquals(Collections.singletonList(CircuitState.OPEN), transitions);
+
+            try {
+                guarded.getText(url).execute();
+                fail("The circuit breaker should be open");
+            } catch (RequestException e) {
+                assertTrue(e.getCause() instanceof CircuitBreakerOpenException);
+            }
+
+            assertEquals(2, server.getRequestCount());
+        } finally {
+            guarded.shutdown();
+        }
+    }
+
+    @Test
+    public void testOpenCircuitBreakerStillServesCachedResponses() {
+        MockWebServer server = new MockWebServer();
+        final String cachedUrl = server.url("/cached").toString();
+        final String brokenUrl = server.url("/broken").toString();
+        final WebUtils guarded = WebUtils.builder()
+            .setCircuitBreaker(CircuitBreakerConfig.builder()
+                .setWindowSize(4)
+                .setMinimumRequests(3)
+                .setOpenDuration(1L, TimeUnit.MINUTES)
+                .build())
+            .build();
+
+        guarded.setResponseCache(new ResponseCache(1024 * 1024));
+
+        try {
+            server.enqueue(new MockResponse()
+                .addHeader("Cache-Control", "max-age=60")
+                .setBody("cached body"));
+            assertEquals("cached body", guarded.getText(cachedUrl).execute());
+
+            for (int i = 0; i < 2; i++) {
+                server.enqueue(new MockResponse().setResponseCode(500));
+
+                try {
+                    guarded.getText(brokenUrl).execute();
+                    fail("The request should fail with status 500");
+                } catch (RequestException ignored) {
+                    // expected
+                }
+            }
+
+            assertEquals(CircuitState.OPEN, guarded.getCircuitBreakerInterceptor().getState(server.getHostName()));
+            // a fresh response does not need the host
+            assertEquals("cached body", guarded.getText(cachedUrl, null, CachePolicy.PREFER_CACHE).execute());
+            assertEquals(3, server.getRequestCount());
+        } finally {
+            guarded.shutdown();
+        }
+    }
+
+    @Test
+    public void testPrewarmOpensReusableH2cConnection() throws Exception {
+        MockWebServer server = new MockWebServer();
+        server.setProtocols(Collections.singletonList(Protocol.H2_PRIOR_KNOWLEDGE));
+        server.enqueue(new MockResponse());
+        server.enqueue(new MockResponse().setBody("over h2c"));
+
+        final String url = server.url("/h2c").toString();
+        final WebUtils h2c = WebUtils.builder()
+            .setProtocols(Protocol.H2_PRIOR_KNOWLEDGE)
+            .build();
+
+        try {
+            h2c.prewarm(url).get(5L, TimeUnit.SECONDS);
+
+            assertEquals(1, h2c.getClient().connectionPool().connectionCount());
+            assertEquals("over h2c", h2c.getText(url).execute());
+            assertEquals(1, h2c.getClient().connectionPool().connectionCount());
+
+            final RecordedRequest prewarm = server.takeRequest();
+            final RecordedRequest request = server.takeRequest();
+
+            assertEquals("HEAD", prewarm.getMethod());
+            // the second request on the same connection
+            assertEquals(1, request.getSequenceNumber());
+        } finally {
+            h2c.shutdown();
+        }
+    }
+
+    @Test
+    public void testPrewarmSendsEveryRequest() throws Exception {
+        MockWebServer server = new MockWebServer();
+        server.enqueue(new MockResponse().setResponseCode(503));
+        server.enqueue(new MockResponse().setResponseCode(503));
+        server.start();
+
+        final String url = server.url("/warm").toString();
+
+        WebUtils.ins.prewarm(url, url).get(5L, TimeUnit.SECONDS);
+
+        assertEquals(2, server.getRequestCount());
+
+        server.shutdown();
+    }
+
+    @Test
+    public void testScrapeWebPageStreamsWithLimits() throws Exception {
+        MockWebServer server = new MockWebServer();
+        final String page = "<html><head><title>Caf\u00e9</title><meta property=\"og:title\" content=\"Preview\"></HEAD>" +
+            "<body><a href=\"/next\">next</a><p>" + String.join("", Collections.nCopies(200, "filler ")) + "</p></body></html>";
+
+        for (int i = 0; i < 3; i++) {
+            server.enqueue(new MockResponse()
+                .setHeader("Content-Type", "text/html; charset=ISO-8859-1")
+                .setBody(new Buffer().writeString(page, StandardCharsets.ISO_8859_1)));
+        }
+
+        final String url = server.url("/page").toString();
+
+        final Document full = WebUtils.ins.scrapeWebPage(url).execute();
+
+        assertEquals("Caf\u00e9", full.title());
+        assertEquals(server.url("/next").toString(), full.selectFirst("a").absUrl("href"));
+
+        final Document head = WebUtils.ins.scrapeWebPage(url, new ScrapeOptions().setHeadOnly(true)).execute();
+
+        assertEquals("Preview", head.selectFirst("meta[property=og:title]").attr("content"));
+        assertTrue(head.body().children().isEmpty());
+
+        final Document limited = WebUtils.ins.scrapeWebPage(url, new ScrapeOptions().setMaxBodySize(200L)).execute();
+
+        assertEquals("next", limited.selectFirst("a").text());
+        assertTrue(limited.body().text().length() < 200);
+    }
+
+    @Test
+    public void testMetricsRecorderReceivesCallMeasurements() throws Exception {
+        MockWebServer server = new MockWebServer();
+        final ByteArrayOutputStream gzipped = new ByteArrayOutputStream();
+
+        try (GZIPOutputStream out = new GZIPOutputStream(gzipped)) {
+            out.write("{\"measured\":true}".getBytes(StandardCharsets.UTF_8));
+        }
+
+        server.enqueue(new MockResponse()
+            .addHeader("Content-Encoding", "gzip")
+            .setBody(new Buffer().write(gzipped.toByteArray())));
+        server.enqueue(new MockResponse().setResponseCode(404).setBody("gone"));
+
+        final SimpleMetricsRecorder recorder = new SimpleMetricsRecorder();
+        final WebUtils measured = WebUtils.builder().setMetricsRecorder(recorder).build();
+        final Route route = Route.of("GET /metrics/{id}");
+
+        try {
+            final ObjectNode json = measured.getJSONObject(server.url("/metrics/1").toString(), null, route).execute();
+
+            assertTrue(json.get("measured").asBoolean());
+            assertEquals(1L, recorder.getStatusCount(200));
+            assertEquals(1L, recorder.getHostLatency(server.getHostName()).getCount());
+            assertEquals(1L, recorder.getRouteLatency(route.getTemplate()).getCount());
+            assertEquals(gzipped.size(), recorder.getBytesReceived());
+            assertEquals(1L, recorder.getDecodeTime("gzip").getCount());
+            assertEquals(1L, recorder.getParseTime("json").getCount());
+            assertEquals(1L, recorder.getQueueWait().getCount());
+
+            final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+            measured.setMetricsRecorder(new MicrometerMetricsRecorder(registry));
+
+            try {
+                measured.getText(server.url("/missing").toString()).execute();
+                fail("Expected the 404 to fail the request");
+            } catch (RequestException ignored) {
+            }
+
+            assertEquals(1L, registry.get("botcommons.http.client.requests").tag("status", "404").timer().count());
+            assertEquals(1L, recorder.getStatusCount(200));
+        } finally {
+            measured.shutdown();
+        }
+    }
+
+    @Test
+    public void testLatencyHistogramPercentiles() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+
+        for (long i = 1; i <= 1000; i++) {
+            histogram.record(TimeUnit.MILLISECONDS.toNanos(i));
+        }
+
+        assertEquals(1000L, histogram.getCount());
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(1000L), histogram.getMax());
+        // buckets are within about 3% of the value
+        assertEquals(500D, histogram.getValueAtPercentile(50D, TimeUnit.MICROSECONDS) / 1000D, 500D * 0.04D);
+        assertEquals(990D, histogram.getValueAtPercentile(99D, TimeUnit.MICROSECONDS) / 1000D, 990D * 0.04D);
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(1000L), histogram.getValueAtPercentile(100D));
+    }
+
+    @Test
+    public void testErrorsAreMappedWithBoundedBody() throws Exception {
+        MockWebServer server = new MockWebServer();
+        server.enqueue(new MockResponse()
+            .setResponseCode(503)
+            .setHeader("Content-Type", "application/json")
+            .setHeader("X-Request-Id", "abc")
+            .setBody("{\"message\":\"down for maintenance\"}"));
+        server.enqueue(new MockResponse().setResponseCode(500).setBody(String.join("", Collections.nCopies(1000, "error "))));
+        server.enqueue(new MockResponse().setResponseCode(404).setBody("{\"code\":10003}"));
+
+        final String url = server.url("/error").toString();
+        final WebUtils noRetries = WebUtils.builder().setRetryPolicy(RetryPolicy.NONE).build();
+
+        try {
+            try {
+                noRetries.getJSONObject(url).execute();
+                fail("Expected the 503 to fail the request");
+            } catch (HttpStatusException e) {
+                assertEquals(503, e.getStatus());
+                assertEquals("abc", e.getError().getHeader("X-Request-Id"));
+                assertFalse(e.getError().isBodyTruncated());
+                assertEquals("down for maintenance", e.getError().getJson().get("message").asText());
+            }
+
+            try {
+                noRetries.getText(url, null, ErrorMapper.forRequest(ErrorMapper.DEFAULT, 64)).execute();
+                fail("Expected the 500 to fail the request");
+            } catch (HttpStatusException e) {
+                assertEquals(64, e.getError().getBodyBytes().size());
+                assertTrue(e.getError().isBodyTruncated());
+                assertNull(e.getError().getJson());
+            }
+
+            try {
+                noRetries.getJSONObject(url, null, ErrorMapper.forRequest(
+                    (error, callStack) -> new RequestException("Unknown channel " + error.getJson().get("code"), callStack)
+                )).execute();
+                fail("Expected the 404 to fail the request");
+            } catch (RequestException e) {
+                assertFalse(e instanceof HttpStatusException);
+                assertEquals("Unknown channel 10003", e.getMessage());
+            }
+        } finally {
+            noRetries.shutdown();
+        }
+    }
+
+    @Test
+    public void testLargeErrorBodiesReleaseTheConnection() {
+        MockWebServer server = new MockWebServer();
+        server.enqueue(new MockResponse().setResponseCode(500).setBody(String.join("", Collections.nCopies(64 * 1024, "e"))));
+
+        final WebUtils noRetries = WebUtils.builder().setRetryPolicy(RetryPolicy.NONE).build();
+        final ConnectionPool pool = noRetries.getClient().connectionPool();
+
+        try {
+            noRetries.getText(server.url("/large-error").toString(), null, ErrorMapper.forRequest(ErrorMapper.DEFAULT, 64)).execute();
+            fail("Expected the 500 to fail the request");
+        } catch (HttpStatusException e) {
+            assertTrue(e.getError().isBodyTruncated());
+            // a leaked response keeps its connection in use
+            assertEquals(pool.idleConnectionCount(), pool.connectionCount());
+        } finally {
+            noRetries.shutdown();
+        }
+    }
+
     @Test
     public void testPendingRequestFunction() { // Not that I expect it to go wrong
         final PendingRequest<ObjectNode> pendingRequest = WebUtils.ins.getJSONObject("https://example.com/",
@@ -95,6 +968,89 @@ public class WebTest {
         assertEquals(StatusCodeValidator.ACCEPT_2XX, pendingRequest.getStatusCodeValidator());
     }
 
+    @Test
+    public void testClientRateLimiterSpacesRequests() throws Exception {
+        MockWebServer server = new MockWebServer();
+        final String url = server.url("/limited/1").toString();
+        final Route route = Route.of("GET /limited/{id}");
+        final ClientRateLimiter limiter = new ClientRateLimiter().setRouteLimit(route.getTemplate(), RateLimit.perSecond(10));
+        final WebUtils limited = WebUtils.builder().setClientRateLimiter(limiter).build();
+
+        try {
+            for (int i = 0; i < 4; i++) {
+                server.enqueue(new MockResponse().setBody("ok"));
+            }
+
+            final long start = System.nanoTime();
+
+            for (int i = 0; i < 3; i++) {
+                assertEquals("ok", limited.getText(url, null, route).execute());
+            }
+
+            // the first request goes right away, the others wait 100ms each
+            assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 190L);
+
+            final RateLimitPermit permit = limiter.acquire(url, route).get(1L, TimeUnit.SECONDS);
+
+            assertEquals("ok", limited.getText(url, null, route.andThen(permit)).execute());
+            assertEquals(0, limiter.getQueueDepth());
+        } finally {
+            limited.shutdown();
+        }
+    }
+
+    @Test
+    public void testRejectedRouteDoesNotUseHostSlot() {
+        final String url = "https://limited.example.com/items/1";
+        final Route route = Route.of("GET /items/{id}");
+        final ClientRateLimiter limiter = new ClientRateLimiter()
+            .setHostLimit("limited.example.com", RateLimit.perSecond(1).withBurst(2))
+            .setRouteLimit(route.getTemplate(), RateLimit.perSecond(1))
+            .setMaxWait(0L, TimeUnit.SECONDS);
+
+        assertFalse(limiter.acquire(url, route).isCompletedExceptionally());
+        // the route is full, the host still has a slot
+        assertTrue(limiter.acquire(url, route).isCompletedExceptionally());
+        assertFalse(limiter.acquire(url, null).isCompletedExceptionally());
+        assertTrue(limiter.acquire(url, null).isCompletedExceptionally());
+    }
+
+    @Test
+    public void testRateLimitRejectionsAreNotHostFailures() {
+        MockWebServer server = new MockWebServer();
+        final String url = server.url("/limited").toString();
+        final WebUtils guarded = WebUtils.builder()
+            .setCircuitBreaker(CircuitBreakerConfig.builder()
+                .setWindowSize(4)
+                .setMinimumRequests(2)
+                .setOpenDuration(1L, TimeUnit.MINUTES)
+                .build())
+            .setClientRateLimiter(new ClientRateLimiter()
+                .setHostLimit(server.getHostName(), RateLimit.of(1, 1L, TimeUnit.MINUTES))
+                .setMaxWait(0L, TimeUnit.SECONDS))
+            .build();
+
+        try {
+            server.enqueue(new MockResponse().setBody("ok"));
+            assertEquals("ok", guarded.getText(url).execute());
+
+            for (int i = 0; i < 3; i++) {
+                try {
+                    guarded.getText(url).execute();
+                    fail("The rate limit should reject the request");
+                } catch (RequestException e) {
+                    assertTrue(e.getCause() instanceof RateLimitExceededException);
+                }
+            }
+
+            assertEquals(CircuitState.CLOSED, guarded.getCircuitBreakerInterceptor().getState(server.getHostName()));
+            assertEquals(0L, guarded.getRetryInterceptor().getRetryCount());
+            assertEquals(1, server.getRequestCount());
+        } finally {
+            guarded.shutdown();
+        }
+    }
+
     @Test
     public void testRateLimiting() {
         MockWebServer server = new MockWebServer();
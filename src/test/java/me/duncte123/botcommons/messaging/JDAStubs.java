@@ -0,0 +1,136 @@
+/*
+ *    Copyright 2026 Duncan "duncte123" Sterken
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package me.duncte123.botcommons.messaging;
+
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.entities.channel.middleman.MessageChannel;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Minimal proxy based stand-ins for the JDA entities that the messaging tests and benchmarks touch, these never make
+ * a request
+ */
+final class JDAStubs {
+    private JDAStubs() {}
+
+    /**
+     * Creates a private channel like {@link MessageChannel} that can always talk, sending to this channel queues
+     * nothing
+     *
+     * @return a stubbed message channel
+     */
+    static MessageChannel messageChannel() {
+        final Map<String, Answer> jdaAnswers = new HashMap<>();
+        final JDA jda = stub(JDA.class, jdaAnswers);
+        final Map<String, Answer> channelAnswers = new HashMap<>();
+
+        channelAnswers.put("getJDA", (proxy, args) -> jda);
+        channelAnswers.put("getIdLong", (proxy, args) -> 1L);
+        channelAnswers.put("getId", (proxy, args) -> "1");
+        channelAnswers.put("canTalk", (proxy, args) -> true);
+
+        final MessageChannel channel = stub(MessageChannel.class, channelAnswers);
+
+        jdaAnswers.put("getChannelById", (proxy, args) -> channel);
+
+        return channel;
+    }
+
+    /**
+     * Creates a proxy of the given interface that answers per method name.<br/>
+     * Methods without an answer return the proxy itself when the types allow it (for fluent rest actions) or the
+     * default value for the return type.
+     */
+    static <T> T stub(Class<T> type, Map<String, Answer> answers) {
+        return create(type, answers, false);
+    }
+
+    /**
+     * Creates a proxy of the given interface that answers per method name, methods without an answer throw an
+     * {@link UnsupportedOperationException}
+     */
+    static <T> T strictStub(Class<T> type, Map<String, Answer> answers) {
+        return create(type, answers, true);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T create(Class<T> type, Map<String, Answer> answers, boolean strict) {
+        return (T) Proxy.newProxyInstance(
+            JDAStubs.class.getClassLoader(),
+            new Class<?>[]{type},
+            (proxy, method, args) -> answer(type, proxy, method, args, answers, strict)
+        );
+    }
+
+    private static Object answer(Class<?> type, Object proxy, Method method, Object[] args,
+                                 Map<String, Answer> answers, boolean strict) throws Throwable {
+        final String name = method.getName();
+        final Answer answer = answers.get(name);
+
+        if (answer != null) {
+            return answer.answer(proxy, args);
+        }
+
+        switch (name) {
+            case "toString":
+                return "Stub(" + type.getSimpleName() + ')';
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "equals":
+                return proxy == args[0];
+        }
+
+        if (strict) {
+            throw new UnsupportedOperationException(type.getSimpleName() + '#' + name);
+        }
+
+        final Class<?> returnType = method.getReturnType();
+
+        if (returnType.isInstance(proxy)) {
+            return proxy;
+        }
+
+        if (returnType == boolean.class) {
+            return false;
+        }
+
+        if (returnType == int.class) {
+            return 0;
+        }
+
+        if (returnType == long.class) {
+            return 0L;
+        }
+
+        if (returnType.isInterface() && returnType.getName().startsWith("net.dv8tion.jda.api.requests")) {
+            return stub(returnType, answers);
+        }
+
+        return null;
+    }
+
+    /**
+     * The answer of a stub to a call of one of its methods
+     */
+    interface Answer {
+        Object answer(Object proxy, Object[] args) throws Throwable;
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ *    Copyright 2026 Duncan "duncte123" Sterken
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package me.duncte123.botcommons.messaging;
+
+import net.dv8tion.jda.api.EmbedBuilder;
+import net.dv8tion.jda.api.entities.Message;
+import net.dv8tion.jda.api.utils.messages.MessageCreateBuilder;
+import net.dv8tion.jda.api.utils.messages.MessageCreateData;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class MessageQueueTest {
+
+    @Test
+    public void testConsecutivePlainMessagesAreMergedInOrder() {
+        final List<MessageQueue.Entry> entries = new ArrayList<>();
+
+        for (int i = 0; i < 20; i++) {
+            entries.add(entry(MessageCreateData.fromContent("line " + i)));
+        }
+
+        final List<List<MessageQueue.Entry>> groups = MessageQueue.group(entries);
+
+        assertEquals(1, groups.size());
+        assertEquals(
+            String.join("\n", Arrays.asList(
+                "line 0", "line 1", "line 2", "line 3", "line 4", "line 5", "line 6", "line 7", "line 8", "line 9",
+                "line 10", "line 11", "line 12", "line 13", "line 14", "line 15", "line 16", "line 17", "line 18", "line 19"
+            )),
+            MessageQueue.merge(groups.get(0)).getContent()
+        );
+    }
+
+    @Test
+    public void testMergingRespectsDiscordLimits() {
+        final String half = String.join("", Collections.nCopies(Message.MAX_CONTENT_LENGTH / 2, "a"));
+        final List<MessageQueue.Entry> entries = new ArrayList<>();
+
+        // the newline between them makes the two halves one character too long
+        entries.add(entry(MessageCreateData.fromContent(half)));
+        entries.add(entry(MessageCreateData.fromContent(half)));
+
+        for (int i = 0; i < 12; i++) {
+            entries.add(entry(MessageCreateData.fromEmbeds(new EmbedBuilder().setDescription("embed " + i).build())));
+        }
+
+        final List<List<MessageQueue.Entry>> groups = MessageQueue.group(entries);
+
+        assertEquals(3, groups.size());
+        assertEquals(1, groups.get(0).size());
+        assertEquals(Message.MAX_EMBED_COUNT, MessageQueue.merge(groups.get(1)).getEmbeds().size());
+        assertEquals(half, MessageQueue.merge(groups.get(1)).getContent());
+        assertEquals(2, groups.get(2).size());
+    }
+
+    @Test
+    public void testSpecialMessagesAreNeverMerged() {
+        final List<MessageQueue.Entry> entries = Arrays.asList(
+            entry(MessageCreateData.fromContent("one")),
+            entry(new MessageCreateBuilder().setContent("tts").setTTS(true).build()),
+            entry(MessageCreateData.fromContent("two")),
+            new MessageQueue.Entry(MessageCreateData.fromContent("reply"), (action) -> {}, null, null),
+            entry(MessageCreateData.fromContent("three")),
+            entry(MessageCreateData.fromContent("four"))
+        );
+
+        final List<List<MessageQueue.Entry>> groups = MessageQueue.group(entries);
+
+        assertEquals(5, groups.size());
+        assertEquals("three\nfour", MessageQueue.merge(groups.get(4)).getContent());
+    }
+
+    private static MessageQueue.Entry entry(MessageCreateData data) {
+        return new MessageQueue.Entry(data, null, null, null);
+    }
+}
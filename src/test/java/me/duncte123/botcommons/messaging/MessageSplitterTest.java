@@ -0,0 +1,95 @@
+/*
+ *    Copyright 2026 Duncan "duncte123" Sterken
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package me.duncte123.botcommons.messaging;
+
+import net.dv8tion.jda.api.entities.Message;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class MessageSplitterTest {
+
+    @Test
+    public void testShortContentIsNotSplit() {
+        assertEquals(Collections.singletonList("Hello world"), MessageSplitter.split("Hello world"));
+    }
+
+    @Test
+    public void testSplitsOnNewlineThenSpaceThenAnywhere() {
+        assertEquals(
+            Arrays.asList("first line", "second line"),
+            MessageSplitter.split("first line\nsecond line", 16)
+        );
+        assertEquals(
+            Arrays.asList("some words that", "are split"),
+            MessageSplitter.split("some words that are split", 16)
+        );
+        assertEquals(
+            Arrays.asList("abcdefghijklmnop", "qrstuvwxyz"),
+            MessageSplitter.split("abcdefghijklmnopqrstuvwxyz", 16)
+        );
+    }
+
+    @Test
+    public void testCodeBlocksAreClosedAndReopened() {
+        final StringBuilder content = new StringBuilder("Here is the code:\n```java\n");
+
+        for (int i = 0; i < 200; i++) {
+            content.append("System.out.println(").append(i).append(");\n");
+        }
+
+        content.append("```\nThat was the code");
+
+        final List<String> chunks = MessageSplitter.split(content.toString());
+
+        assertTrue(chunks.size() > 1);
+
+        for (int i = 0; i < chunks.size(); i++) {
+            final String chunk = chunks.get(i);
+
+            assertTrue(chunk.length() <= Message.MAX_CONTENT_LENGTH);
+
+            if (i > 0) {
+                assertTrue(chunk.startsWith("```java\n"));
+            }
+
+            if (i < chunks.size() - 1) {
+                assertTrue(chunk.endsWith("\n```"));
+            }
+        }
+
+        assertTrue(chunks.get(chunks.size() - 1).endsWith("```\nThat was the code"));
+    }
+
+    @Test
+    public void testNoContentIsLost() {
+        final String content = String.join(" ", Collections.nCopies(5000, "word"));
+        final List<String> chunks = MessageSplitter.split(content);
+
+        for (String chunk : chunks) {
+            assertTrue(chunk.length() <= Message.MAX_CONTENT_LENGTH);
+        }
+
+        // only the spaces the chunks were cut at are dropped
+        assertEquals(content, String.join(" ", chunks));
+    }
+}
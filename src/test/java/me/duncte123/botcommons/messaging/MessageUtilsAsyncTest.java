@@ -0,0 +1,131 @@
+/*
+ *    Copyright 2026 Duncan "duncte123" Sterken
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package me.duncte123.botcommons.messaging;
+
+import me.duncte123.botcommons.messaging.JDAStubs.Answer;
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.entities.Message;
+import net.dv8tion.jda.api.entities.channel.middleman.MessageChannel;
+import net.dv8tion.jda.api.requests.restaction.MessageCreateAction;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static me.duncte123.botcommons.messaging.JDAStubs.stub;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class MessageUtilsAsyncTest {
+    private static final String LONG_MESSAGE = String.join("\n", Collections.nCopies(3, String.join("", Collections.nCopies(1500, "a"))));
+
+    @Test
+    public void testFutureCompletesWithEveryChunk() throws Exception {
+        final List<CompletableFuture<Message>> submitted = new ArrayList<>();
+        final List<Long> deadlines = new ArrayList<>();
+        final MessageConfig config = new MessageConfig.Builder()
+            .setChannel(channel(submitted, deadlines))
+            .setMessage(LONG_MESSAGE)
+            .build();
+
+        final CompletableFuture<List<Message>> future = MessageUtils.sendMsgAsync(config, 10L, TimeUnit.SECONDS);
+        final List<Message> messages = new ArrayList<>();
+
+        // the next chunk is only sent when the previous one was sent
+        for (int i = 0; i < 3; i++) {
+            assertEquals(i + 1, submitted.size());
+            assertFalse(future.isDone());
+
+            final Message message = message();
+
+            messages.add(message);
+            submitted.get(i).complete(message);
+        }
+
+        final List<Message> sent = future.get(1L, TimeUnit.SECONDS);
+
+        assertEquals(3, sent.size());
+
+        for (int i = 0; i < 3; i++) {
+            assertSame(messages.get(i), sent.get(i));
+        }
+
+        assertEquals(3, deadlines.size());
+        assertTrue(deadlines.get(0) > System.currentTimeMillis());
+    }
+
+    @Test
+    public void testCancellingStopsRemainingChunks() {
+        final List<CompletableFuture<Message>> submitted = new ArrayList<>();
+        final MessageConfig config = new MessageConfig.Builder()
+            .setChannel(channel(submitted, new ArrayList<>()))
+            .setMessage(LONG_MESSAGE)
+            .build();
+
+        final CompletableFuture<List<Message>> future = MessageUtils.sendMsgAsync(config);
+
+        submitted.get(0).complete(message());
+        assertEquals(2, submitted.size());
+
+        assertTrue(future.cancel(false));
+        assertTrue(submitted.get(1).isCancelled());
+        assertEquals(2, submitted.size());
+    }
+
+    private static MessageChannel channel(List<CompletableFuture<Message>> submitted, List<Long> deadlines) {
+        final Map<String, Answer> jdaAnswers = new HashMap<>();
+        final Map<String, Answer> channelAnswers = new HashMap<>();
+        final JDA jda = stub(JDA.class, jdaAnswers);
+        final MessageChannel channel = stub(MessageChannel.class, channelAnswers);
+
+        channelAnswers.put("getIdLong", (proxy, args) -> 1L);
+        channelAnswers.put("getJDA", (proxy, args) -> jda);
+        channelAnswers.put("canTalk", (proxy, args) -> true);
+        channelAnswers.put("sendMessage", (proxy, args) -> action(submitted, deadlines));
+        jdaAnswers.put("getChannelById", (proxy, args) -> channel);
+
+        return channel;
+    }
+
+    private static MessageCreateAction action(List<CompletableFuture<Message>> submitted, List<Long> deadlines) {
+        final Map<String, Answer> answers = new HashMap<>();
+
+        answers.put("deadline", (proxy, args) -> {
+            deadlines.add((Long) args[0]);
+            return proxy;
+        });
+        answers.put("submit", (proxy, args) -> {
+            final CompletableFuture<Message> future = new CompletableFuture<>();
+
+            submitted.add(future);
+            return future;
+        });
+
+        return stub(MessageCreateAction.class, answers);
+    }
+
+    private static Message message() {
+        return stub(Message.class, Collections.emptyMap());
+    }
+}
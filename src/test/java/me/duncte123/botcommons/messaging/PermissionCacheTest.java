@@ -0,0 +1,119 @@
+/*
+ *    Copyright 2026 Duncan "duncte123" Sterken
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package me.duncte123.botcommons.messaging;
+
+import me.duncte123.botcommons.messaging.JDAStubs.Answer;
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.Permission;
+import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.entities.Member;
+import net.dv8tion.jda.api.entities.PermissionOverride;
+import net.dv8tion.jda.api.entities.Role;
+import net.dv8tion.jda.api.entities.SelfUser;
+import net.dv8tion.jda.api.entities.channel.concrete.TextChannel;
+import net.dv8tion.jda.api.entities.channel.concrete.ThreadChannel;
+import net.dv8tion.jda.api.events.guild.member.GuildMemberRoleAddEvent;
+import net.dv8tion.jda.api.events.guild.override.PermissionOverrideCreateEvent;
+import net.dv8tion.jda.api.events.role.update.RoleUpdatePermissionsEvent;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static me.duncte123.botcommons.messaging.JDAStubs.strictStub;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class PermissionCacheTest {
+
+    @Test
+    public void testPermissionsAreCachedUntilTheyChange() {
+        final AtomicInteger lookups = new AtomicInteger();
+        final EnumSet<Permission> granted = EnumSet.of(Permission.VIEW_CHANNEL, Permission.MESSAGE_SEND);
+        final Map<String, Answer> jdaAnswers = new HashMap<>();
+        final Map<String, Answer> guildAnswers = new HashMap<>();
+        final Map<String, Answer> memberAnswers = new HashMap<>();
+        final Map<String, Answer> channelAnswers = new HashMap<>();
+        final Map<String, Answer> selfUserAnswers = new HashMap<>();
+        final Map<String, Answer> roleAnswers = new HashMap<>();
+        final JDA jda = strictStub(JDA.class, jdaAnswers);
+        final Guild guild = strictStub(Guild.class, guildAnswers);
+        final Member self = strictStub(Member.class, memberAnswers);
+        final TextChannel channel = strictStub(TextChannel.class, channelAnswers);
+        final Role role = strictStub(Role.class, roleAnswers);
+
+        roleAnswers.put("getGuild", (proxy, args) -> guild);
+        roleAnswers.put("getPermissions", (proxy, args) -> EnumSet.copyOf(granted));
+        roleAnswers.put("getPermissionsRaw", (proxy, args) -> Permission.getRaw(granted));
+
+        selfUserAnswers.put("getIdLong", (proxy, args) -> 1L);
+        jdaAnswers.put("getSelfUser", (proxy, args) -> strictStub(SelfUser.class, selfUserAnswers));
+        guildAnswers.put("getIdLong", (proxy, args) -> 2L);
+        guildAnswers.put("getSelfMember", (proxy, args) -> self);
+        memberAnswers.put("getIdLong", (proxy, args) -> 1L);
+        memberAnswers.put("getJDA", (proxy, args) -> jda);
+        memberAnswers.put("getGuild", (proxy, args) -> guild);
+        memberAnswers.put("getPermissions", (proxy, args) -> {
+            lookups.incrementAndGet();
+            return EnumSet.copyOf(granted);
+        });
+        channelAnswers.put("getIdLong", (proxy, args) -> 3L);
+        channelAnswers.put("getGuild", (proxy, args) -> guild);
+        channelAnswers.put("canTalk", (proxy, args) -> granted.contains(Permission.MESSAGE_SEND));
+
+        final PermissionCache cache = new PermissionCache();
+
+        assertTrue(cache.canTalk(channel));
+        assertFalse(cache.hasPermission(channel, Permission.MESSAGE_EMBED_LINKS));
+        assertFalse(cache.hasPermission(channel, Permission.MESSAGE_EMBED_LINKS, Permission.MESSAGE_HISTORY));
+        assertEquals(1, lookups.get());
+
+        granted.add(Permission.MESSAGE_EMBED_LINKS);
+        cache.onEvent(new RoleUpdatePermissionsEvent(jda, 0L, role, 0L));
+
+        assertEquals(0, cache.size());
+        assertTrue(cache.hasPermission(channel, Permission.MESSAGE_EMBED_LINKS));
+        assertEquals(2, lookups.get());
+
+        granted.remove(Permission.MESSAGE_SEND);
+        cache.onEvent(new GuildMemberRoleAddEvent(jda, 0L, self, Collections.singletonList(role)));
+
+        assertFalse(cache.canTalk(channel));
+        assertEquals(3, lookups.get());
+
+        final Map<String, Answer> threadAnswers = new HashMap<>();
+        final ThreadChannel thread = strictStub(ThreadChannel.class, threadAnswers);
+
+        threadAnswers.put("getIdLong", (proxy, args) -> 4L);
+        threadAnswers.put("getGuild", (proxy, args) -> guild);
+        threadAnswers.put("canTalk", (proxy, args) -> granted.contains(Permission.MESSAGE_SEND));
+
+        assertFalse(cache.canTalk(thread));
+        assertEquals(2, cache.size());
+
+        // threads inherit the overrides of their parent channel
+        granted.add(Permission.MESSAGE_SEND);
+        cache.onEvent(new PermissionOverrideCreateEvent(jda, 0L, channel, strictStub(PermissionOverride.class, new HashMap<>())));
+
+        assertEquals(0, cache.size());
+        assertTrue(cache.canTalk(thread));
+    }
+}
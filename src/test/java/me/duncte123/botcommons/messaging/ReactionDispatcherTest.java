@@ -0,0 +1,104 @@
+/*
+ *    Copyright 2026 Duncan "duncte123" Sterken
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package me.duncte123.botcommons.messaging;
+
+import me.duncte123.botcommons.messaging.JDAStubs.Answer;
+import net.dv8tion.jda.api.entities.channel.middleman.MessageChannel;
+import net.dv8tion.jda.api.entities.emoji.Emoji;
+import net.dv8tion.jda.api.requests.RestAction;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import static me.duncte123.botcommons.messaging.JDAStubs.strictStub;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ReactionDispatcherTest {
+
+    @Test
+    public void testReactionsAreDeduplicatedAndStaleOnesDropped() throws InterruptedException {
+        final AtomicLong clock = new AtomicLong();
+        final List<Long> sent = Collections.synchronizedList(new ArrayList<>());
+        final BlockingQueue<Consumer<Object>> inFlight = new LinkedBlockingQueue<>();
+        final MessageChannel channel = channel(sent, inFlight);
+        final ReactionDispatcher dispatcher = new ReactionDispatcher(0L, 1L, TimeUnit.SECONDS, clock::get);
+        final Emoji success = Emoji.fromUnicode("✅");
+
+        assertTrue(dispatcher.add(channel, 1L, success));
+
+        // the first reaction is sent right away and blocks the channel until it completes
+        final Consumer<Object> first = inFlight.poll(5L, TimeUnit.SECONDS);
+
+        assertNotNull(first);
+        assertTrue(dispatcher.add(channel, 2L, success));
+        assertFalse(dispatcher.add(channel, 2L, success));
+        assertTrue(dispatcher.add(channel, 3L, Emoji.fromUnicode("❌")));
+        assertEquals(2, dispatcher.getPendingCount());
+        assertEquals(2, dispatcher.getPendingCount(10L));
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(2L));
+        assertTrue(dispatcher.add(channel, 4L, success));
+        first.accept(null);
+
+        final Consumer<Object> second = inFlight.poll(5L, TimeUnit.SECONDS);
+
+        assertNotNull(second);
+        second.accept(null);
+        assertNull(inFlight.poll(100L, TimeUnit.MILLISECONDS));
+        assertEquals(2L, dispatcher.getDroppedCount());
+        assertEquals(0, dispatcher.getPendingCount());
+        assertEquals(Arrays.asList(1L, 4L), sent);
+    }
+
+    private static MessageChannel channel(List<Long> sent, BlockingQueue<Consumer<Object>> inFlight) {
+        final Map<String, Answer> answers = new HashMap<>();
+
+        answers.put("getIdLong", (proxy, args) -> 10L);
+        answers.put("addReactionById", (proxy, args) -> {
+            sent.add((Long) args[0]);
+            return action(inFlight);
+        });
+
+        return strictStub(MessageChannel.class, answers);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static RestAction<Void> action(BlockingQueue<Consumer<Object>> inFlight) {
+        return strictStub(RestAction.class, Collections.singletonMap("queue", (proxy, args) -> {
+            if (args == null || args.length != 2) {
+                throw new UnsupportedOperationException("RestAction#queue");
+            }
+
+            inFlight.add((Consumer<Object>) args[0]);
+            return null;
+        }));
+    }
+}